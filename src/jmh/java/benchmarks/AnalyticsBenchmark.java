@@ -0,0 +1,106 @@
+package benchmarks;
+
+import analytics.OccupancyAnalytics;
+import analytics.OccupancyStats;
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures a 365-day occupancy dashboard, one row per day and capacity, answered by the incremental analytics,
+ * by streaming the bookings for each day, and the parallel recompute of the whole year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+
+    private Hotel hotel;
+    private OccupancyAnalytics analytics;
+    private LocalDate firstDay;
+    private Booking booking;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hotel = HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD);
+        firstDay = HotelFixtures.firstDay();
+        analytics = OccupancyAnalytics.attach(hotel, firstDay, firstDay.plusDays(2 * DAY_SPREAD));
+        booking = Booking.builder()
+                .reference(hotel.nextReference())
+                .roomNumber(1)
+                .fullName("Benchmark Guest")
+                .checkInDate(firstDay.plusDays(10))
+                .checkOutDate(firstDay.plusDays(17))
+                .build();
+    }
+
+    @Benchmark
+    public List<OccupancyStats> dashboard() throws Exception {
+        List<OccupancyStats> rows = new ArrayList<>();
+        for (int capacity : HotelFixtures.CAPACITIES) {
+            rows.addAll(analytics.getDailyStats(capacity, firstDay, firstDay.plusDays(DAY_SPREAD)));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<OccupancyStats> dashboardByStreaming() {
+        Map<Integer, Room> rooms = hotel.getRooms().stream().collect(Collectors.toMap(Room::getRoomNumber, Function.identity()));
+        List<Booking> bookings = hotel.getBookings();
+        List<OccupancyStats> rows = new ArrayList<>();
+        for (int capacity : HotelFixtures.CAPACITIES) {
+            long available = hotel.getRoomsWithCapacity(capacity).size();
+            for (LocalDate day = firstDay; day.isBefore(firstDay.plusDays(DAY_SPREAD)); day = day.plusDays(1)) {
+                long sold = 0;
+                double revenue = 0;
+                for (Booking b : bookings) {
+                    Room room = rooms.get(b.getRoomNumber());
+                    if (room.getCapacity() == capacity && !b.getCheckInDate().isAfter(day) && b.getCheckOutDate().isAfter(day)) {
+                        sold++;
+                        revenue += room.getPrice();
+                    }
+                }
+                rows.add(new OccupancyStats(capacity, day, day.plusDays(1), available, sold, revenue));
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<OccupancyStats> recompute() throws Exception {
+        return analytics.recompute(firstDay, firstDay.plusDays(DAY_SPREAD));
+    }
+
+    @Benchmark
+    public boolean addAndRemoveBooking() {
+        analytics.bookingAdded(booking);
+        analytics.bookingRemoved(booking);
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of a hotel with ten years of history, kept in the live indexes or archived.
+ * Every guest of a future stay also has 20 past stays, so searches by guest pay for the history unless it is archived.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ArchiveBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+    private static final int PAST_STAYS_PER_ROOM = 2000;
+
+    @Param({"false", "true"})
+    public boolean archived;
+
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+    private int slot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Hotel hotel = HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD);
+        LocalDate today = LocalDate.now();
+        for (int r = 1; r <= ROOMS; r++) {
+            for (int i = 1; i <= PAST_STAYS_PER_ROOM; i++) {
+                LocalDate checkIn = today.minusDays(2L * i);
+                hotel.addBooking(Booking.builder()
+                        .reference(hotel.nextReference())
+                        .roomNumber(r)
+                        .fullName(HotelFixtures.guestName(r, i % BOOKINGS_PER_ROOM))
+                        .checkInDate(checkIn)
+                        .checkOutDate(checkIn.plusDays(1))
+                        .build());
+            }
+        }
+        if (archived) {
+            hotel.archiveBookings(today);
+        }
+        manageHotel = ManageHotel.builder().hotel(hotel).build();
+        firstDay = HotelFixtures.firstDay();
+        slot = HotelFixtures.slot(BOOKINGS_PER_ROOM, DAY_SPREAD);
+    }
+
+    @Benchmark
+    public Booking searchBooking() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = random.nextInt(ROOMS) + 1;
+        int index = random.nextInt(BOOKINGS_PER_ROOM);
+        return manageHotel.searchBooking(roomNumber, HotelFixtures.guestName(roomNumber, index), firstDay.plusDays((long) index * slot));
+    }
+
+    @Benchmark
+    public List<Booking> searchBookings() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return manageHotel.searchBookings(HotelFixtures.guestName(random.nextInt(ROOMS) + 1, random.nextInt(BOOKINGS_PER_ROOM)));
+    }
+
+    @Benchmark
+    public Booking searchPastBooking() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = random.nextInt(ROOMS) + 1;
+        int i = random.nextInt(PAST_STAYS_PER_ROOM) + 1;
+        return manageHotel.searchBooking(roomNumber, HotelFixtures.guestName(roomNumber, i % BOOKINGS_PER_ROOM), LocalDate.now().minusDays(2L * i));
+    }
+
+    @Benchmark
+    public List<?> suggestFirstRoom() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = firstDay.plusDays((long) random.nextInt(BOOKINGS_PER_ROOM) * slot + Math.max(1, slot / 2));
+        return manageHotel.suggestRoom(HotelFixtures.capacity(random.nextInt(ROOMS) + 1), checkIn, checkIn.plusDays(1), 0, 1);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import entities.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures suggesting the 5 best fitting rooms for a party of 3, with the best-fit search
+ * or by suggesting every available room of each large enough capacity and ranking them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestFitBenchmark {
+
+    private static final int PARTY_SIZE = 3;
+    private static final int LIMIT = 5;
+
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    @Param({"365"})
+    public int daySpread;
+
+    private ManageHotel manageHotel;
+    private LocalDate checkIn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(rooms, bookingsPerRoom, daySpread)).build();
+        // the first night of a slot is booked in every room, the last one is free
+        int slot = HotelFixtures.slot(bookingsPerRoom, daySpread);
+        checkIn = HotelFixtures.firstDay().plusDays(10L * slot + slot - 1);
+    }
+
+    @Benchmark
+    public List<Room> bestFit() throws Exception {
+        return manageHotel.suggestBestFit(PARTY_SIZE, checkIn, checkIn.plusDays(1), LIMIT);
+    }
+
+    @Benchmark
+    public List<Room> suggestEachCapacity() throws Exception {
+        List<Room> candidates = new ArrayList<>();
+        for (int capacity : HotelFixtures.CAPACITIES) {
+            if (capacity >= PARTY_SIZE) {
+                candidates.addAll(manageHotel.suggestRoom(capacity, checkIn, checkIn.plusDays(1)));
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Room::getCapacity).thenComparingDouble(Room::getPrice));
+        return candidates.subList(0, Math.min(LIMIT, candidates.size()));
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import entities.Booking;
+import exceptions.BookingNotFoundException;
+import exceptions.RoomNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bookings made concurrently on a shared hotel.
+ * Every thread books a random night of a random room and cancels it, so the fewer the rooms the higher the contention.
+ * Run it with {@code -t} to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BookingContentionBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int rooms;
+
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    @Param({"365"})
+    public int daySpread;
+
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(rooms, bookingsPerRoom, daySpread)).build();
+        firstDay = HotelFixtures.firstDay();
+    }
+
+    @Benchmark
+    public Booking bookAndCancelRoom() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = firstDay.plusDays(random.nextInt(daySpread));
+        try {
+            Booking booking = manageHotel.bookRoom(1 + random.nextInt(rooms), checkIn, checkIn.plusDays(1), "Benchmark Guest");
+            manageHotel.cancelBooking(booking.getReference());
+            return booking;
+        } catch (RoomNotAvailableException | BookingNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import storage.CompactBookingStore;
+
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Compares the heap taken by the bookings of a {@link Hotel} and by a {@link CompactBookingStore}.
+ * It is not a JMH benchmark, run it with a large heap, e.g.
+ * {@code java -Xmx16g -cp target/benchmarks.jar benchmarks.BookingFootprint 1000000 5000000 10000000}.
+ */
+public class BookingFootprint {
+
+    private static final int BOOKINGS_PER_ROOM = 1000;
+    private static final int GUEST_NAMES = 100_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1_000_000, 5_000_000, 10_000_000};
+        System.out.printf("%12s %16s %16s %14s %14s%n", "bookings", "hotel (MB)", "compact (MB)", "hotel B/op", "compact B/op");
+        for (int size : sizes) {
+            long hotelBytes = measure(() -> {
+                Hotel hotel = Hotel.builder().build();
+                forEachBooking(size, hotel::addBooking);
+                return hotel;
+            });
+            long compactBytes = measure(() -> {
+                CompactBookingStore store = new CompactBookingStore(size);
+                forEachBooking(size, store::add);
+                return store;
+            });
+            System.out.printf("%12d %16d %16d %14d %14d%n", size, hotelBytes >> 20, compactBytes >> 20, hotelBytes / size, compactBytes / size);
+        }
+    }
+
+    private static void forEachBooking(int size, Consumer<Booking> consumer) {
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        String[] names = new String[GUEST_NAMES];
+        for (int reference = 0; reference < size; reference++) {
+            int roomNumber = reference / BOOKINGS_PER_ROOM + 1;
+            LocalDate checkIn = firstDay.plusDays(3L * (reference % BOOKINGS_PER_ROOM));
+            int name = reference % GUEST_NAMES;
+            if (names[name] == null) {
+                names[name] = "Guest " + name;
+            }
+            consumer.accept(Booking.builder()
+                    .reference(reference)
+                    .roomNumber(roomNumber)
+                    // a new string per booking, as when bookings come from requests
+                    .fullName(new String(names[name]))
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(2))
+                    .build());
+        }
+    }
+
+    private static long measure(Supplier<Object> builder) {
+        long before = usedHeap();
+        Object store = builder.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(store);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import bulk.BulkExporter;
+import bulk.BulkFormat;
+import bulk.BulkImporter;
+import bulk.ImportReport;
+import entities.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the bulk import and export, in rows per second,
+ * on 500 rooms of 1000 bookings each, with a sequential and a parallel parse stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BulkImportBenchmark {
+
+    private static final int ROOMS = 500;
+    private static final int BOOKINGS_PER_ROOM = 1000;
+    private static final int ROWS = ROOMS * BOOKINGS_PER_ROOM;
+
+    @Param({"CSV", "NDJSON"})
+    public BulkFormat format;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Hotel source;
+    private String bookings;
+    private Hotel target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, 3 * BOOKINGS_PER_ROOM);
+        StringWriter writer = new StringWriter(ROWS * 64);
+        BulkExporter.builder().hotel(source).format(format).build().exportBookings(writer);
+        bookings = writer.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyHotel() {
+        target = Hotel.builder().rooms(source.getRooms()).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportReport importBookings() throws IOException {
+        ImportReport report = BulkImporter.builder().hotel(target).format(format).parallelism(parallelism).build()
+                .importBookings(new StringReader(bookings));
+        if (report.accepted() != ROWS) {
+            throw new IllegalStateException("Rejected rows: " + report.rejected());
+        }
+        return report;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long exportBookings() throws IOException {
+        return BulkExporter.builder().hotel(source).format(format).build().exportBookings(Writer.nullWriter());
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import entities.Hotel;
+import entities.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.AvailabilityCalendar;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a 90-night availability calendar of every room, built from the bitmaps of occupied nights
+ * or by checking the availability of each room for each night.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+
+    private static final int NIGHTS = 90;
+
+    @Param({"100"})
+    public int rooms;
+
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    @Param({"365"})
+    public int daySpread;
+
+    private ManageHotel manageHotel;
+    private LocalDate from;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(rooms, bookingsPerRoom, daySpread)).build();
+        from = HotelFixtures.firstDay().plusDays(daySpread / 3);
+    }
+
+    @Benchmark
+    public AvailabilityCalendar calendar() throws Exception {
+        return manageHotel.getAvailabilityCalendar(from, from.plusDays(NIGHTS));
+    }
+
+    @Benchmark
+    public int[][] checkEachNight() {
+        Hotel hotel = manageHotel.getHotel();
+        List<Room> roomList = hotel.getRooms();
+        int[][] freeRooms = new int[HotelFixtures.CAPACITIES.length][NIGHTS];
+        for (int night = 0; night < NIGHTS; night++) {
+            LocalDate date = from.plusDays(night);
+            for (Room room : roomList) {
+                if (hotel.checkRoomAvailability(room.getRoomNumber(), date, date.plusDays(1))) {
+                    freeRooms[room.getCapacity() / 2 - 1][night]++;
+                }
+            }
+        }
+        return freeRooms;
+    }
+}
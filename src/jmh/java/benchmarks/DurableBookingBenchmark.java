@@ -0,0 +1,86 @@
+package benchmarks;
+
+import entities.Booking;
+import exceptions.BookingNotFoundException;
+import exceptions.RoomNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.HotelStore;
+import services.ManageHotel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures bookings made on a durable hotel, where every booking and cancellation is synced to the write-ahead log.
+ * The more threads, the more records share a sync. Run it with {@code -t} to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class DurableBookingBenchmark {
+
+    @Param({"256"})
+    public int rooms;
+
+    @Param({"365"})
+    public int daySpread;
+
+    private Path directory;
+    private HotelStore store;
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-store");
+        store = HotelStore.open(directory, HotelFixtures.hotel(rooms, 0, daySpread).getRooms());
+        manageHotel = ManageHotel.builder().hotel(store.getHotel()).build();
+        firstDay = HotelFixtures.firstDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Booking bookAndCancelRoom() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = firstDay.plusDays(random.nextInt(daySpread));
+        try {
+            Booking booking = manageHotel.bookRoom(1 + random.nextInt(rooms), checkIn, checkIn.plusDays(1), "Benchmark Guest");
+            manageHotel.cancelBooking(booking.getReference());
+            return booking;
+        } catch (RoomNotAvailableException | BookingNotFoundException e) {
+            return null;
+        }
+    }
+}
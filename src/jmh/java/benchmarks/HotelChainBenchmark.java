@@ -0,0 +1,86 @@
+package benchmarks;
+
+import entities.Booking;
+import exceptions.RoomNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+import services.ManageHotelChain;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a chain of 1 to 64 hotels of 50 rooms each.
+ * Bookings are routed to a random hotel, so their throughput should grow with the hotels until the cores are busy,
+ * while a search across the chain is fanned out to every hotel.
+ * Run it with {@code -t} to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+public class HotelChainBenchmark {
+
+    private static final int ROOMS = 50;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int hotels;
+
+    private ManageHotelChain chain;
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ManageHotelChain.ManageHotelChainBuilder builder = ManageHotelChain.builder();
+        for (int hotel = 0; hotel < hotels; hotel++) {
+            builder.hotel(hotelId(hotel), ManageHotel.builder().hotel(HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD)).build());
+        }
+        chain = builder.build();
+        firstDay = HotelFixtures.firstDay();
+    }
+
+    @Benchmark
+    public Booking bookAndCancelRoom() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String hotelId = hotelId(random.nextInt(hotels));
+        LocalDate checkIn = firstDay.plusDays(random.nextInt(DAY_SPREAD));
+        try {
+            Booking booking = chain.bookRoom(hotelId, random.nextInt(ROOMS) + 1, checkIn, checkIn.plusDays(1), "Benchmark Guest");
+            chain.cancelBooking(hotelId, booking.getReference());
+            return booking;
+        } catch (RoomNotAvailableException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<ManageHotelChain.HotelRoom> suggestRoom() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = firstDay.plusDays(random.nextInt(DAY_SPREAD));
+        return chain.suggestRoom(HotelFixtures.CAPACITIES[random.nextInt(HotelFixtures.CAPACITIES.length)], checkIn, checkIn.plusDays(1));
+    }
+
+    private static String hotelId(int hotel) {
+        return "hotel-" + hotel;
+    }
+}
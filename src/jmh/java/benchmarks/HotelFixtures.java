@@ -0,0 +1,97 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds hotels of a given size for the benchmarks.
+ */
+public final class HotelFixtures {
+
+    /**
+     * The capacities given to the rooms, in turn.
+     */
+    public static final int[] CAPACITIES = {2, 4, 6};
+
+    private HotelFixtures() {
+    }
+
+    /**
+     * Builds a hotel whose rooms are evenly booked over the given number of days, starting tomorrow.
+     * Booking {@code i} of a room starts {@code i * daySpread / bookingsPerRoom} days after tomorrow
+     * and lasts half of that slot, so there is always a free night between two bookings.
+     *
+     * @param rooms           the number of rooms
+     * @param bookingsPerRoom the number of bookings of each room
+     * @param daySpread       the number of days the bookings of a room are spread over
+     * @return the hotel
+     */
+    public static Hotel hotel(int rooms, int bookingsPerRoom, int daySpread) {
+        List<Room> roomList = new ArrayList<>(rooms);
+        for (int r = 1; r <= rooms; r++) {
+            roomList.add(Room.builder().roomNumber(r).capacity(capacity(r)).price(50 + 10 * capacity(r)).build());
+        }
+        Hotel hotel = Hotel.builder().rooms(roomList).build();
+        int slot = slot(bookingsPerRoom, daySpread);
+        LocalDate start = firstDay();
+        for (int r = 1; r <= rooms; r++) {
+            for (int i = 0; i < bookingsPerRoom; i++) {
+                LocalDate checkIn = start.plusDays((long) i * slot);
+                hotel.addBooking(Booking.builder()
+                        .reference(hotel.nextReference())
+                        .roomNumber(r)
+                        .fullName(guestName(r, i))
+                        .checkInDate(checkIn)
+                        .checkOutDate(checkIn.plusDays(Math.max(1, slot / 2)))
+                        .build());
+            }
+        }
+        return hotel;
+    }
+
+    /**
+     * Returns the capacity of a room built by {@link #hotel(int, int, int)}.
+     *
+     * @param roomNumber the room number
+     * @return the capacity of the room
+     */
+    public static int capacity(int roomNumber) {
+        return CAPACITIES[roomNumber % CAPACITIES.length];
+    }
+
+    /**
+     * Returns the number of days between two check-ins of a room.
+     *
+     * @param bookingsPerRoom the number of bookings of each room
+     * @param daySpread       the number of days the bookings of a room are spread over
+     * @return the number of days between two check-ins
+     */
+    public static int slot(int bookingsPerRoom, int daySpread) {
+        return Math.max(2, daySpread / Math.max(1, bookingsPerRoom));
+    }
+
+    /**
+     * Returns the check-in date of the first booking of every room.
+     *
+     * @return tomorrow
+     */
+    public static LocalDate firstDay() {
+        return LocalDate.now().plusDays(1);
+    }
+
+    /**
+     * Returns the guest name of a booking built by {@link #hotel(int, int, int)}.
+     *
+     * @param roomNumber the room number
+     * @param index      the index of the booking in the room
+     * @return the guest name
+     */
+    public static String guestName(int roomNumber, int index) {
+        return "Guest " + roomNumber + "-" + index;
+    }
+}
@@ -0,0 +1,140 @@
+package benchmarks;
+
+import http.HotelHttpServer;
+import metrics.LatencyHistogram;
+import services.ManageHotel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a {@link HotelHttpServer} with many concurrent clients and reports the latency percentiles.
+ * <p>
+ * Every client sends a request as soon as its previous one is answered: 80% of the requests search for a booking,
+ * 10% suggest a room and 10% book a room. It is not a JMH benchmark, run it with e.g.
+ * {@code java -cp target/benchmarks.jar benchmarks.HttpLoadGenerator --clients 10000 --seconds 20}.
+ * <p>
+ * With {@code --serve <port>}, it only serves the hotel it loads, so the clients can be run in another process
+ * with {@code --url http://localhost:<port>}: a process holds a socket per client and one per server connection.
+ */
+public class HttpLoadGenerator {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of("--clients", "10000", "--seconds", "20", "--warmup", "5"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+
+        if (options.containsKey("--serve")) {
+            HotelHttpServer server = serve(Integer.parseInt(options.get("--serve")));
+            System.out.println("Serving on port " + server.getPort());
+            return;
+        }
+        HotelHttpServer server = options.containsKey("--url") ? null : serve(0);
+        String url = server != null ? "http://localhost:" + server.getPort() : options.get("--url");
+        try {
+            load(url, Integer.parseInt(options.get("--clients")), Integer.parseInt(options.get("--warmup")), Integer.parseInt(options.get("--seconds")));
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static HotelHttpServer serve(int port) throws IOException {
+        // as Main does, or each response body waits for a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        ManageHotel manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD)).build();
+        return HotelHttpServer.start(new InetSocketAddress(port), manageHotel);
+    }
+
+    private static void load(String url, int clients, int warmupSeconds, int seconds) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        Load load = new Load(client, url, histogram, errors, measureFrom, end);
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            loops[i] = load.loop();
+        }
+        CompletableFuture.allOf(loops).join();
+        executor.shutdownNow();
+
+        long count = histogram.getCount();
+        System.out.printf("clients %d, requests %d, errors %d, throughput %.0f req/s%n", clients, count, errors.get(), count / (double) seconds);
+        System.out.printf("p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6, histogram.getPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+    }
+
+    private record Load(HttpClient client, String url, LatencyHistogram histogram, AtomicLong errors, long measureFrom, long end) {
+
+        private CompletableFuture<Void> loop() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        long received = System.nanoTime();
+                        if (failure != null || response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                        } else if (sent >= measureFrom) {
+                            histogram.record(received - sent);
+                        }
+                        return null;
+                    })
+                    .thenCompose(ignored -> loop());
+        }
+
+        private HttpRequest nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int roomNumber = random.nextInt(ROOMS) + 1;
+            int index = random.nextInt(BOOKINGS_PER_ROOM);
+            int slot = HotelFixtures.slot(BOOKINGS_PER_ROOM, DAY_SPREAD);
+            LocalDate checkIn = HotelFixtures.firstDay().plusDays((long) index * slot);
+            int kind = random.nextInt(10);
+            if (kind < 8) {
+                return get("/bookings/search?room=" + roomNumber + "&name=" + HotelFixtures.guestName(roomNumber, index).replace(" ", "%20") + "&date=" + checkIn);
+            }
+            LocalDate freeNight = checkIn.plusDays(Math.max(1, slot / 2));
+            if (kind == 8) {
+                return get("/rooms/suggest?capacity=" + HotelFixtures.capacity(roomNumber) + "&checkIn=" + freeNight + "&checkOut=" + freeNight.plusDays(1) + "&limit=1");
+            }
+            // a free night is booked once, then the room is not available: both are answered
+            return HttpRequest.newBuilder(URI.create(url + "/bookings?room=" + roomNumber + "&checkIn=" + freeNight + "&checkOut=" + freeNight.plusDays(1) + "&name=Load%20Guest"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(url + path)).GET().build();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import journal.BookingJournal;
+import journal.Subscription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures booking and cancelling a room without a journal, with a journal, and with a journal read by
+ * 4 slow subscribers, which sleep a millisecond per batch as if they called a remote system.
+ * The journal truncates itself as it grows, up to the slowest subscriber: the lag is printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JournalBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+    private static final int SUBSCRIBERS = 4;
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"none", "journal", "slowSubscribers"})
+    public String journaling;
+
+    private ManageHotel manageHotel;
+    private BookingJournal journal;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private LocalDate firstDay;
+    private int slot;
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Hotel hotel = HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD);
+        if (!journaling.equals("none")) {
+            journal = new BookingJournal();
+            hotel.addListener(journal);
+        }
+        if (journaling.equals("slowSubscribers")) {
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                subscriptions.add(journal.subscribe(events -> Thread.sleep(1), 0, BATCH_SIZE));
+            }
+        }
+        manageHotel = ManageHotel.builder().hotel(hotel).build();
+        firstDay = HotelFixtures.firstDay();
+        slot = HotelFixtures.slot(BOOKINGS_PER_ROOM, DAY_SPREAD);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLag() {
+        if (journal != null) {
+            long lag = subscriptions.stream().mapToLong(Subscription::getLag).max().orElse(0);
+            System.out.print("(lag " + lag + ", kept " + (journal.getNextSequence() - journal.getFirstSequence()) + ") ");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    @Benchmark
+    public Booking bookAndCancelRoom() throws Exception {
+        invocation++;
+        int roomNumber = (int) (invocation % ROOMS) + 1;
+        int index = (int) ((invocation / ROOMS) % BOOKINGS_PER_ROOM);
+        LocalDate checkIn = firstDay.plusDays((long) index * slot + Math.max(1, slot / 2));
+        Booking booking = manageHotel.bookRoom(roomNumber, checkIn, checkIn.plusDays(1), "Benchmark Guest");
+        manageHotel.cancelBooking(booking.getReference());
+        return booking;
+    }
+}
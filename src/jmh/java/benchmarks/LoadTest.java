@@ -0,0 +1,214 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import metrics.LatencyHistogram;
+import services.ManageHotel;
+import services.OperationResult;
+import services.OperationStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays the operations of a {@link WorkloadGenerator} against a {@link ManageHotel} from many threads,
+ * reports the throughput and the latency percentiles of each operation, then checks the hotel:
+ * no two bookings of a room overlap, every reference is unique and found by reference,
+ * and the number of bookings matches the bookings made and cancelled.
+ * <p>
+ * Each thread replays a stream of its own, so the same seed replays the same operations, their interleaving aside.
+ * It exits with status 1 if a check fails. It is not a JMH benchmark, run it with e.g.
+ * {@code java -cp target/benchmarks.jar benchmarks.LoadTest --threads 8 --operations 1000000 --rooms 2:600,4:300,6:100}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of("--seed", "42", "--threads", "4", "--operations", "200000",
+                "--rooms", "2:60,4:30,6:10", "--days", "365", "--occupancy", "0.7", "--cancellations", "0.05", "--names", "10000"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        WorkloadGenerator generator = WorkloadGenerator.builder()
+                .seed(Long.parseLong(options.get("--seed")))
+                .roomMix(roomMix(options.get("--rooms")))
+                .days(Integer.parseInt(options.get("--days")))
+                .occupancy(Double.parseDouble(options.get("--occupancy")))
+                .cancelShare(Double.parseDouble(options.get("--cancellations")))
+                .guestNames(Integer.parseInt(options.get("--names")))
+                .build();
+        int threads = Integer.parseInt(options.get("--threads"));
+        int operations = Integer.parseInt(options.get("--operations"));
+
+        long generating = System.nanoTime();
+        Hotel hotel = generator.hotel();
+        List<Booking> initial = hotel.getBookings();
+        List<List<WorkloadGenerator.Operation>> streams = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            streams.add(generator.operations(initial, t, operations / threads));
+        }
+        System.out.printf("seed %d, rooms %d, bookings %d, generated in %.0f ms%n", generator.getSeed(),
+                hotel.getRooms().size(), initial.size(), (System.nanoTime() - generating) / 1e6);
+
+        Replay replay = new Replay(ManageHotel.builder().hotel(hotel).build());
+        replay.run(streams);
+        replay.report();
+
+        List<String> failures = check(hotel, initial.size(), replay);
+        if (failures.isEmpty()) {
+            System.out.println("checks passed");
+        } else {
+            failures.forEach(failure -> System.out.println("check failed: " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static Map<Integer, Integer> roomMix(String option) {
+        Map<Integer, Integer> roomMix = new TreeMap<>();
+        for (String entry : option.split(",")) {
+            String[] capacityAndRooms = entry.split(":");
+            roomMix.put(Integer.parseInt(capacityAndRooms[0].strip()), Integer.parseInt(capacityAndRooms[1].strip()));
+        }
+        return roomMix;
+    }
+
+    private static List<String> check(Hotel hotel, int initialBookings, Replay replay) {
+        List<String> failures = new ArrayList<>();
+        Set<Integer> references = new HashSet<>();
+        int bookings = 0;
+        for (Room room : hotel.getRooms()) {
+            List<Booking> roomBookings = new ArrayList<>(hotel.getBookingsForRoom(room.getRoomNumber()));
+            roomBookings.sort(Comparator.comparing(Booking::getCheckInDate));
+            for (int i = 0; i < roomBookings.size(); i++) {
+                Booking booking = roomBookings.get(i);
+                if (i > 0 && roomBookings.get(i - 1).getCheckOutDate().isAfter(booking.getCheckInDate())) {
+                    failures.add("room " + room.getRoomNumber() + " has overlapping bookings " + roomBookings.get(i - 1) + " and " + booking);
+                }
+                if (!references.add(booking.getReference())) {
+                    failures.add("reference " + booking.getReference() + " is used twice");
+                }
+                if (hotel.getBookingByReference(booking.getReference()).filter(booking::equals).isEmpty()) {
+                    failures.add("booking " + booking + " is not found by reference");
+                }
+            }
+            bookings += roomBookings.size();
+        }
+        if (replay.bookedReferences.size() != replay.count(WorkloadGenerator.Operation.Type.BOOK, OperationStatus.SUCCESS)) {
+            failures.add("a reference was given to two bookings during the replay");
+        }
+        long expected = initialBookings + replay.count(WorkloadGenerator.Operation.Type.BOOK, OperationStatus.SUCCESS)
+                - replay.count(WorkloadGenerator.Operation.Type.CANCEL, OperationStatus.SUCCESS);
+        if (bookings != expected || hotel.getBookingCount() != expected) {
+            failures.add("the hotel has " + bookings + " bookings in its rooms and counts " + hotel.getBookingCount() + ", expected " + expected);
+        }
+        return failures;
+    }
+
+    private static final class Replay {
+
+        private final ManageHotel manageHotel;
+        private final Map<WorkloadGenerator.Operation.Type, LatencyHistogram> latencies = new EnumMap<>(WorkloadGenerator.Operation.Type.class);
+        private final Map<WorkloadGenerator.Operation.Type, Map<OperationStatus, LongAdder>> outcomes = new EnumMap<>(WorkloadGenerator.Operation.Type.class);
+        private final Set<Integer> bookedReferences = ConcurrentHashMap.newKeySet();
+        private int threads;
+        private long elapsedNanos;
+        private long operations;
+
+        private Replay(ManageHotel manageHotel) {
+            this.manageHotel = manageHotel;
+            for (WorkloadGenerator.Operation.Type type : WorkloadGenerator.Operation.Type.values()) {
+                latencies.put(type, new LatencyHistogram());
+                Map<OperationStatus, LongAdder> counts = new EnumMap<>(OperationStatus.class);
+                for (OperationStatus status : OperationStatus.values()) {
+                    counts.put(status, new LongAdder());
+                }
+                outcomes.put(type, counts);
+            }
+        }
+
+        private void run(List<List<WorkloadGenerator.Operation>> streams) throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (List<WorkloadGenerator.Operation> stream : streams) {
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    replay(stream);
+                }));
+                operations += stream.size();
+            }
+            this.threads = threads.size();
+            threads.forEach(Thread::start);
+            long started = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            elapsedNanos = System.nanoTime() - started;
+        }
+
+        private void replay(List<WorkloadGenerator.Operation> stream) {
+            List<Integer> ownBookings = new ArrayList<>();
+            for (WorkloadGenerator.Operation operation : stream) {
+                long start = System.nanoTime();
+                OperationStatus status = switch (operation.type()) {
+                    case BOOK -> {
+                        OperationResult<Booking> result = manageHotel.tryBookRoom(operation.roomNumber(),
+                                operation.checkInDate(), operation.checkOutDate(), operation.fullName());
+                        if (result.isSuccess()) {
+                            ownBookings.add(result.getValue().getReference());
+                            bookedReferences.add(result.getValue().getReference());
+                        }
+                        yield result.getStatus();
+                    }
+                    case CANCEL -> {
+                        // a booking of the stream is cancelled once, a booking of the generated hotel may already be
+                        int reference = operation.reference() >= 0 || ownBookings.isEmpty()
+                                ? operation.reference()
+                                : ownBookings.remove(operation.pick() % ownBookings.size());
+                        yield manageHotel.tryCancelBooking(reference).getStatus();
+                    }
+                    case SEARCH -> manageHotel.trySearchBooking(operation.roomNumber(), operation.fullName(), operation.checkInDate()).getStatus();
+                    case SUGGEST -> manageHotel.trySuggestRoom(operation.capacity(), operation.checkInDate(), operation.checkOutDate(), 0, 10).getStatus();
+                };
+                latencies.get(operation.type()).record(System.nanoTime() - start);
+                outcomes.get(operation.type()).get(status).increment();
+            }
+        }
+
+        private long count(WorkloadGenerator.Operation.Type type, OperationStatus status) {
+            return outcomes.get(type).get(status).sum();
+        }
+
+        private void report() {
+            System.out.printf("threads %d, operations %d in %.0f ms, throughput %.0f ops/s%n",
+                    threads, operations, elapsedNanos / 1e6, operations / (elapsedNanos / 1e9));
+            for (WorkloadGenerator.Operation.Type type : WorkloadGenerator.Operation.Type.values()) {
+                LatencyHistogram histogram = latencies.get(type);
+                Map<String, Long> counts = new LinkedHashMap<>();
+                outcomes.get(type).forEach((status, count) -> {
+                    if (count.sum() > 0) {
+                        counts.put(status.getOutcome(), count.sum());
+                    }
+                });
+                System.out.printf("%-8s %9d  p50 %7.2f us  p99 %8.2f us  p99.9 %8.2f us  max %9.2f us  %s%n",
+                        type.name().toLowerCase(), histogram.getCount(), histogram.getPercentile(50) / 1e3, histogram.getPercentile(99) / 1e3,
+                        histogram.getPercentile(99.9) / 1e3, histogram.getMax() / 1e3, counts);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.BookingRequest;
+import entities.Hotel;
+import exceptions.BookingNotFoundException;
+import exceptions.RoomNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every public operation of {@link ManageHotel} against hotels of growing size.
+ * Each invocation targets the next room and the next booking of that room, so the whole hotel is visited.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManageHotelBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int rooms;
+
+    @Param({"10", "100", "1000"})
+    public int bookingsPerRoom;
+
+    @Param({"365", "3650"})
+    public int daySpread;
+
+    private Hotel hotel;
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+    private int slot;
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hotel = HotelFixtures.hotel(rooms, bookingsPerRoom, daySpread);
+        manageHotel = ManageHotel.builder().hotel(hotel).build();
+        firstDay = HotelFixtures.firstDay();
+        slot = HotelFixtures.slot(bookingsPerRoom, daySpread);
+    }
+
+    @Benchmark
+    public Booking searchBooking() throws Exception {
+        next();
+        int roomNumber = room();
+        int index = index();
+        return manageHotel.searchBooking(roomNumber, HotelFixtures.guestName(roomNumber, index), checkIn(index));
+    }
+
+    @Benchmark
+    public Booking bookAndCancelRoom() throws Exception {
+        next();
+        LocalDate checkIn = checkIn(index()).plusDays(Math.max(1, slot / 2));
+        Booking booking = manageHotel.bookRoom(room(), checkIn, checkIn.plusDays(1), "Benchmark Guest");
+        manageHotel.cancelBooking(booking.getReference());
+        return booking;
+    }
+
+    @Benchmark
+    public List<Booking> bookAndCancelGroup() throws Exception {
+        next();
+        LocalDate checkIn = checkIn(index()).plusDays(Math.max(1, slot / 2));
+        List<BookingRequest> requests = new ArrayList<>(rooms);
+        for (int roomNumber = 1; roomNumber <= rooms; roomNumber++) {
+            requests.add(BookingRequest.builder().roomNumber(roomNumber).fullName("Benchmark Group").checkInDate(checkIn).checkOutDate(checkIn.plusDays(1)).build());
+        }
+        List<Booking> bookings = manageHotel.bookRooms(requests);
+        for (Booking booking : bookings) {
+            manageHotel.cancelBooking(booking.getReference());
+        }
+        return bookings;
+    }
+
+    @Benchmark
+    public Exception bookRoomNotAvailable() throws Exception {
+        next();
+        try {
+            manageHotel.bookRoom(room(), checkIn(index()), checkIn(index()).plusDays(1), "Benchmark Guest");
+            throw new IllegalStateException("The room should not be available");
+        } catch (RoomNotAvailableException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Exception cancelBookingNotFound() {
+        try {
+            manageHotel.cancelBooking(-1);
+            throw new IllegalStateException("The booking should not exist");
+        } catch (BookingNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<?> suggestRoom() throws Exception {
+        next();
+        LocalDate checkIn = checkIn(index()).plusDays(Math.max(1, slot / 2));
+        return manageHotel.suggestRoom(HotelFixtures.capacity(room()), checkIn, checkIn.plusDays(1));
+    }
+
+    @Benchmark
+    public List<?> suggestFirstRoom() throws Exception {
+        next();
+        LocalDate checkIn = checkIn(index()).plusDays(Math.max(1, slot / 2));
+        return manageHotel.suggestRoom(HotelFixtures.capacity(room()), checkIn, checkIn.plusDays(1), 0, 1);
+    }
+
+    @Benchmark
+    public boolean checkRoomAvailability() {
+        next();
+        LocalDate checkIn = checkIn(index());
+        return hotel.checkRoomAvailability(room(), checkIn, checkIn.plusDays(1));
+    }
+
+    private void next() {
+        invocation++;
+    }
+
+    private int room() {
+        return (int) (invocation % rooms) + 1;
+    }
+
+    private int index() {
+        return (int) ((invocation / rooms) % bookingsPerRoom);
+    }
+
+    private LocalDate checkIn(int index) {
+        return firstDay.plusDays((long) index * slot);
+    }
+}
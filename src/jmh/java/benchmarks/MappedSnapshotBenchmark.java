@@ -0,0 +1,76 @@
+package benchmarks;
+
+import entities.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.HotelSnapshot;
+import persistence.MappedSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time for a replica to answer its first availability query from a snapshot of 1M bookings:
+ * mapping the fixed-width snapshot, or reading the compact snapshot into a hotel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MappedSnapshotBenchmark {
+
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"1000"})
+    public int bookingsPerRoom;
+
+    private Path directory;
+    private Path mapped;
+    private Path compact;
+    private LocalDate checkIn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-mapped");
+        Hotel hotel = HotelFixtures.hotel(rooms, bookingsPerRoom, 3 * bookingsPerRoom);
+        mapped = directory.resolve("hotel.map");
+        compact = directory.resolve("hotel.snapshot");
+        MappedSnapshot.write(hotel, mapped);
+        HotelSnapshot.write(hotel, compact);
+        checkIn = HotelFixtures.firstDay().plusDays(bookingsPerRoom);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(mapped);
+        Files.delete(compact);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public boolean openMapped() throws IOException {
+        return MappedSnapshot.open(mapped).checkRoomAvailability(rooms / 2, checkIn, checkIn.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean readCompact() throws IOException {
+        return HotelSnapshot.read(compact).checkRoomAvailability(rooms / 2, checkIn, checkIn.plusDays(1));
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import entities.Booking;
+import exceptions.RoomNotAvailableException;
+import metrics.HotelMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link HotelMetrics} on the cheapest operations of {@link ManageHotel},
+ * where it weighs the most, with the metrics disabled and enabled.
+ * Several threads record into the same histograms, as in a server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+    private int slot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder()
+                .hotel(HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD))
+                .metrics(metrics ? HotelMetrics.create() : HotelMetrics.disabled())
+                .build();
+        firstDay = HotelFixtures.firstDay();
+        slot = HotelFixtures.slot(BOOKINGS_PER_ROOM, DAY_SPREAD);
+    }
+
+    @Benchmark
+    public Booking searchBooking() throws Exception {
+        int roomNumber = room();
+        int index = index();
+        return manageHotel.searchBooking(roomNumber, HotelFixtures.guestName(roomNumber, index), checkIn(index));
+    }
+
+    @Benchmark
+    public Exception bookRoomNotAvailable() throws Exception {
+        LocalDate checkIn = checkIn(index());
+        try {
+            manageHotel.bookRoom(room(), checkIn, checkIn.plusDays(1), "Benchmark Guest");
+            throw new IllegalStateException("The room should not be available");
+        } catch (RoomNotAvailableException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<?> suggestFirstRoom() throws Exception {
+        LocalDate checkIn = checkIn(index()).plusDays(Math.max(1, slot / 2));
+        return manageHotel.suggestRoom(HotelFixtures.capacity(room()), checkIn, checkIn.plusDays(1), 0, 1);
+    }
+
+    private static int room() {
+        return ThreadLocalRandom.current().nextInt(ROOMS) + 1;
+    }
+
+    private static int index() {
+        return ThreadLocalRandom.current().nextInt(BOOKINGS_PER_ROOM);
+    }
+
+    private LocalDate checkIn(int index) {
+        return firstDay.plusDays((long) index * slot);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import entities.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+import services.OperationResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a read-heavy workload on a shared hotel: of {@code readsPerWrite + 1} operations, one books a random night
+ * of a random room and cancels it, the others check the availability of a random stay or search a booking.
+ * Reads do not lock the rooms, so their throughput should grow with the threads even on few rooms.
+ * Run it with {@code -t} to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ReadHeavyBenchmark {
+
+    @Param({"1", "16"})
+    public int rooms;
+
+    @Param({"100"})
+    public int bookingsPerRoom;
+
+    @Param({"365"})
+    public int daySpread;
+
+    @Param({"200"})
+    public int readsPerWrite;
+
+    private ManageHotel manageHotel;
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(rooms, bookingsPerRoom, daySpread)).build();
+        firstDay = HotelFixtures.firstDay();
+    }
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = 1 + random.nextInt(rooms);
+        LocalDate checkIn = firstDay.plusDays(random.nextInt(daySpread));
+        int operation = random.nextInt(readsPerWrite + 1);
+        if (operation == 0) {
+            OperationResult<Booking> booked = manageHotel.tryBookRoom(roomNumber, checkIn, checkIn.plusDays(1), "Benchmark Guest");
+            return booked.isSuccess() ? manageHotel.tryCancelBooking(booked.getValue().getReference()) : booked;
+        }
+        if (operation % 2 == 0) {
+            return manageHotel.getHotel().checkRoomAvailability(roomNumber, checkIn, checkIn.plusDays(2));
+        }
+        int booking = random.nextInt(bookingsPerRoom);
+        return manageHotel.trySearchBooking(roomNumber, HotelFixtures.guestName(roomNumber, booking), checkIn);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.HotelStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time to restore a durable hotel of 1M bookings: reading the snapshot and replaying the log written since.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecoveryBenchmark {
+
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"1000"})
+    public int bookingsPerRoom;
+
+    @Param({"0", "100000"})
+    public int logTail;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-recovery");
+        Hotel hotel = HotelFixtures.hotel(rooms, bookingsPerRoom, 3 * bookingsPerRoom);
+        try (HotelStore store = HotelStore.open(directory, hotel.getRooms())) {
+            Hotel durable = store.getHotel();
+            durable.setBookings(hotel.getBookings());
+            store.snapshot();
+            // the tail is written from several threads, so its records share syncs
+            List<Booking> bookings = durable.getBookings();
+            IntStream.range(0, logTail).parallel().forEach(i -> durable.removeBooking(bookings.get(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Hotel recover() throws IOException {
+        return HotelStore.recover(directory, List.of());
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import entities.Booking;
+import exceptions.BookingNotFoundException;
+import exceptions.ParamNotValidException;
+import exceptions.RoomNotAvailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.ManageHotel;
+import services.OperationResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rejected requests, through the exception-throwing operations and the result-returning ones.
+ * Run it with {@code -prof gc} to read the allocation per rejection, {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final int BOOKINGS_PER_ROOM = 100;
+    private static final int DAY_SPREAD = 365;
+
+    private ManageHotel manageHotel;
+    private LocalDate checkIn;
+    private String guestName;
+    private LocalDate yesterday;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manageHotel = ManageHotel.builder().hotel(HotelFixtures.hotel(ROOMS, BOOKINGS_PER_ROOM, DAY_SPREAD)).build();
+        checkIn = HotelFixtures.firstDay();
+        guestName = HotelFixtures.guestName(1, 0);
+        yesterday = LocalDate.now().minusDays(1);
+    }
+
+    @Benchmark
+    public Exception bookRoomNotAvailable() throws Exception {
+        try {
+            manageHotel.bookRoom(1, checkIn, checkIn.plusDays(1), guestName);
+            throw new IllegalStateException("The room should not be available");
+        } catch (RoomNotAvailableException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult<Booking> tryBookRoomNotAvailable() {
+        return manageHotel.tryBookRoom(1, checkIn, checkIn.plusDays(1), guestName);
+    }
+
+    @Benchmark
+    public Exception bookRoomInThePast() throws Exception {
+        try {
+            manageHotel.bookRoom(1, yesterday, checkIn, guestName);
+            throw new IllegalStateException("The dates should not be valid");
+        } catch (ParamNotValidException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult<Booking> tryBookRoomInThePast() {
+        return manageHotel.tryBookRoom(1, yesterday, checkIn, guestName);
+    }
+
+    @Benchmark
+    public Exception searchBookingNotFound() throws Exception {
+        try {
+            manageHotel.searchBooking(2, guestName, checkIn);
+            throw new IllegalStateException("The booking should not be found");
+        } catch (BookingNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public OperationResult<Booking> trySearchBookingNotFound() {
+        return manageHotel.trySearchBooking(2, guestName, checkIn);
+    }
+}
@@ -0,0 +1,220 @@
+package benchmarks;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Generates hotels and operation mixes that look like production, from a seed.
+ * <p>
+ * The same generator always builds the same hotel and the same operations for a stream, so a run can be replayed.
+ * The rooms follow a mix of capacities, and the bookings of each room cover the nights of the horizon
+ * with a density that follows the seasons: {@code occupancy * (1 + seasonality * cos(days from the peak))}.
+ * Guests are drawn from a fixed number of names, skewed towards the first ones so that some guests come back.
+ * <p>
+ * An operation stream books stays whose check-in is drawn from an exponential lead time, weighted by the season,
+ * cancels bookings, searches for bookings (most of them existing) and suggests rooms, in the given shares.
+ */
+@Getter
+@Builder
+public class WorkloadGenerator {
+
+    // the share of the searches that look for an existing booking, the others mostly miss
+    private static final double SEARCH_HIT_RATIO = 0.8;
+    private static final double MAX_OCCUPANCY = 0.95;
+    private static final int MAX_STAY = 30;
+
+    @Builder.Default
+    private long seed = 42;
+    // the number of rooms of each capacity
+    @Builder.Default
+    private Map<Integer, Integer> roomMix = Map.of(2, 60, 4, 30, 6, 10);
+    @Builder.Default
+    private LocalDate firstDay = HotelFixtures.firstDay();
+    // the number of days bookings are made over, from the first day
+    @Builder.Default
+    private int days = 365;
+    // the mean share of the nights that are booked
+    @Builder.Default
+    private double occupancy = 0.7;
+    // the amplitude of the seasons, from 0 for a flat year to 1
+    @Builder.Default
+    private double seasonality = 0.3;
+    // the day of the year of the highest occupancy
+    @Builder.Default
+    private int peakDayOfYear = 200;
+    @Builder.Default
+    private double meanLeadTimeDays = 30;
+    @Builder.Default
+    private double meanStayNights = 3;
+    @Builder.Default
+    private int guestNames = 10_000;
+    // the shares of the operations, the searches taking the rest
+    @Builder.Default
+    private double bookShare = 0.25;
+    @Builder.Default
+    private double cancelShare = 0.05;
+    @Builder.Default
+    private double suggestShare = 0.2;
+
+    /**
+     * Represents an operation to replay against a hotel.
+     *
+     * @param type         the type of operation
+     * @param roomNumber   the room to book or search
+     * @param capacity     the capacity to suggest rooms for
+     * @param checkInDate  the check-in date, or the searched date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @param reference    the reference of the booking to cancel, or -1 to cancel a booking made by the stream
+     * @param pick         a random number to pick which booking made by the stream to cancel
+     */
+    public record Operation(Type type, int roomNumber, int capacity, LocalDate checkInDate, LocalDate checkOutDate,
+                            String fullName, int reference, int pick) {
+
+        /**
+         * The types of operation.
+         */
+        public enum Type {BOOK, CANCEL, SEARCH, SUGGEST}
+    }
+
+    /**
+     * Builds the rooms of the mix, numbered from 1 by capacity, and books them over the horizon.
+     *
+     * @return a new hotel
+     */
+    public Hotel hotel() {
+        List<Room> rooms = rooms();
+        Hotel hotel = Hotel.builder().rooms(rooms).build();
+        for (Room room : rooms) {
+            SplittableRandom random = random(-room.getRoomNumber());
+            int day = 0;
+            while (day < days) {
+                double target = Math.min(MAX_OCCUPANCY, occupancy * season(day));
+                // a free night starts a stay with the probability that keeps the room booked for that share of the nights
+                if (random.nextDouble() < target / (meanStayNights * (1 - target) + target)) {
+                    int stay = stay(random);
+                    if (day + stay > days) {
+                        break;
+                    }
+                    hotel.addBooking(Booking.builder()
+                            .reference(hotel.nextReference())
+                            .roomNumber(room.getRoomNumber())
+                            .fullName(guestName(random))
+                            .checkInDate(firstDay.plusDays(day))
+                            .checkOutDate(firstDay.plusDays(day + stay))
+                            .build());
+                    day += stay;
+                } else {
+                    day++;
+                }
+            }
+        }
+        return hotel;
+    }
+
+    /**
+     * Generates a stream of operations.
+     *
+     * @param bookings the bookings of the generated hotel, that the searches and the cancellations look for
+     * @param stream   the number of the stream, e.g. of the thread replaying it
+     * @param count    the number of operations
+     * @return the operations
+     */
+    public List<Operation> operations(List<Booking> bookings, int stream, int count) {
+        List<Booking> existing = new ArrayList<>(bookings);
+        existing.sort(Comparator.comparingInt(Booking::getReference));
+        List<Room> rooms = rooms();
+        List<Integer> capacities = new ArrayList<>(new TreeMap<>(roomMix).keySet());
+        SplittableRandom random = random(stream);
+        List<Operation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double kind = random.nextDouble();
+            if (kind < bookShare) {
+                int checkIn = checkInDay(random);
+                int checkOut = Math.min(days, checkIn + stay(random));
+                Room room = rooms.get(random.nextInt(rooms.size()));
+                operations.add(new Operation(Operation.Type.BOOK, room.getRoomNumber(), room.getCapacity(),
+                        firstDay.plusDays(checkIn), firstDay.plusDays(checkOut), guestName(random), -1, 0));
+            } else if (kind < bookShare + cancelShare) {
+                // half of the cancellations are of bookings made by the stream, when it has made any
+                int reference = existing.isEmpty() || random.nextBoolean() ? -1 : existing.get(random.nextInt(existing.size())).getReference();
+                operations.add(new Operation(Operation.Type.CANCEL, 0, 0, null, null, null, reference, random.nextInt(Integer.MAX_VALUE)));
+            } else if (kind < bookShare + cancelShare + suggestShare) {
+                int checkIn = checkInDay(random);
+                int checkOut = Math.min(days, checkIn + stay(random));
+                int capacity = capacities.get(random.nextInt(capacities.size()));
+                operations.add(new Operation(Operation.Type.SUGGEST, 0, capacity, firstDay.plusDays(checkIn), firstDay.plusDays(checkOut), null, -1, 0));
+            } else if (!existing.isEmpty() && random.nextDouble() < SEARCH_HIT_RATIO) {
+                Booking booking = existing.get(random.nextInt(existing.size()));
+                int nights = (int) (booking.getCheckOutDate().toEpochDay() - booking.getCheckInDate().toEpochDay());
+                operations.add(new Operation(Operation.Type.SEARCH, booking.getRoomNumber(), 0,
+                        booking.getCheckInDate().plusDays(random.nextInt(nights)), null, booking.getFullName(), -1, 0));
+            } else {
+                Room room = rooms.get(random.nextInt(rooms.size()));
+                operations.add(new Operation(Operation.Type.SEARCH, room.getRoomNumber(), 0,
+                        firstDay.plusDays(random.nextInt(days)), null, guestName(random), -1, 0));
+            }
+        }
+        return operations;
+    }
+
+    private List<Room> rooms() {
+        List<Room> rooms = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(roomMix).entrySet()) {
+            int capacity = entry.getKey();
+            for (int i = 0; i < entry.getValue(); i++) {
+                rooms.add(Room.builder().roomNumber(rooms.size() + 1).capacity(capacity).price(50 + 10 * capacity).build());
+            }
+        }
+        return rooms;
+    }
+
+    private SplittableRandom random(long stream) {
+        // mixes the seed of a stream, consecutive seeds would give the same numbers shifted by one
+        return new SplittableRandom(new SplittableRandom(seed + stream).nextLong());
+    }
+
+    private double season(int day) {
+        int dayOfYear = firstDay.plusDays(day).getDayOfYear();
+        return 1 + seasonality * Math.cos(2 * Math.PI * (dayOfYear - peakDayOfYear) / 365.25);
+    }
+
+    private int checkInDay(SplittableRandom random) {
+        while (true) {
+            int day = (int) Math.min(days - 1, exponential(random, meanLeadTimeDays));
+            // keeps a check-in with the weight of its season, so peak days are booked more often
+            if (random.nextDouble() * (1 + seasonality) < season(day)) {
+                return day;
+            }
+        }
+    }
+
+    private int stay(SplittableRandom random) {
+        if (meanStayNights <= 1) {
+            return 1;
+        }
+        // a geometric number of nights from 1, whose mean is the mean stay
+        double mean = 1 / Math.log(meanStayNights / (meanStayNights - 1));
+        return (int) Math.min(MAX_STAY, 1 + exponential(random, mean));
+    }
+
+    private String guestName(SplittableRandom random) {
+        double u = random.nextDouble();
+        return "Guest " + (int) (guestNames * u * u);
+    }
+
+    private static long exponential(SplittableRandom random, double mean) {
+        return (long) (-mean * Math.log(1 - random.nextDouble()));
+    }
+}
@@ -1,10 +1,38 @@
+import analytics.OccupancyAnalytics;
+import analytics.OccupancyStats;
+import bulk.BulkExporter;
+import bulk.BulkFormat;
+import bulk.BulkImporter;
+import bulk.ImportReport;
+import cli.BatchRunner;
 import entities.Booking;
 import entities.Hotel;
 import entities.Room;
+import http.HotelHttpServer;
+import indexes.RoomBookingIndex;
+import metrics.HotelMetrics;
+import persistence.HotelStore;
+import services.BookingArchiver;
+import services.ManageHotel;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 import static java.lang.System.in;
@@ -18,18 +46,114 @@ public class Main {
 
     private static final Scanner scanner = new Scanner(in);
 
-    private static final ManageHotel manageHotel = new ManageHotel(Hotel.builder()
-            .rooms(Arrays.asList(
-                    Room.builder().roomNumber(1).capacity(2).price(70).build(),
-                    Room.builder().roomNumber(2).capacity(2).price(80).build(),
-                    Room.builder().roomNumber(3).capacity(4).price(130).build(),
-                    Room.builder().roomNumber(4).capacity(4).price(130).build(),
-                    Room.builder().roomNumber(5).capacity(6).price(180).build(),
-                    Room.builder().roomNumber(6).capacity(6).price(190).build()))
-            .bookings(new ArrayList<>())
-            .build());
-
-    public static void main(String[] args) {
+    private static final List<Room> ROOMS = Arrays.asList(
+            Room.builder().roomNumber(1).capacity(2).price(70).build(),
+            Room.builder().roomNumber(2).capacity(2).price(80).build(),
+            Room.builder().roomNumber(3).capacity(4).price(130).build(),
+            Room.builder().roomNumber(4).capacity(4).price(130).build(),
+            Room.builder().roomNumber(5).capacity(6).price(180).build(),
+            Room.builder().roomNumber(6).capacity(6).price(190).build());
+
+    private static final Duration SNAPSHOT_PERIOD = Duration.ofMinutes(5);
+    private static final Duration ARCHIVE_PERIOD = Duration.ofHours(1);
+
+    private static ManageHotel manageHotel;
+    private static OccupancyAnalytics analytics;
+
+    /**
+     * Starts the interactive menu.
+     * With {@code --data-dir <directory>}, the bookings are saved in the directory and restored on the next start.
+     * With {@code --http <port>}, the hotel is served over HTTP instead, until the process is stopped.
+     * With {@code --batch <file>}, or {@code --batch -} for the standard input, the commands of the script are run instead,
+     * see {@link BatchRunner}; adding {@code --pipeline} parses the script on another thread while the commands run.
+     * With {@code --import-rooms <file>} and {@code --import-bookings <file>}, rooms and bookings are imported first,
+     * see {@link BulkImporter}; with {@code --export-rooms <file>} and {@code --export-bookings <file>},
+     * or {@code -} for the standard output, they are exported instead of starting the menu, see {@link BulkExporter}.
+     * The files are in {@code --format csv} unless {@code --format ndjson} is given.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the data directory cannot be read or written, or the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        String dataDirectory = null;
+        Integer httpPort = null;
+        String batchScript = null;
+        boolean pipeline = false;
+        String roomsImport = null;
+        String bookingsImport = null;
+        String roomsExport = null;
+        String bookingsExport = null;
+        BulkFormat format = BulkFormat.CSV;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--data-dir" -> dataDirectory = optionValue(args, ++i);
+                case "--http" -> httpPort = Integer.parseInt(optionValue(args, ++i));
+                case "--batch" -> batchScript = optionValue(args, ++i);
+                case "--pipeline" -> pipeline = true;
+                case "--import-rooms" -> roomsImport = optionValue(args, ++i);
+                case "--import-bookings" -> bookingsImport = optionValue(args, ++i);
+                case "--export-rooms" -> roomsExport = optionValue(args, ++i);
+                case "--export-bookings" -> bookingsExport = optionValue(args, ++i);
+                case "--format" -> format = BulkFormat.valueOf(optionValue(args, ++i).toUpperCase(Locale.ROOT));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        HotelStore store = null;
+        Hotel hotel;
+        if (dataDirectory != null) {
+            store = HotelStore.open(Path.of(dataDirectory), ROOMS);
+            store.scheduleSnapshots(SNAPSHOT_PERIOD);
+            hotel = store.getHotel();
+        } else {
+            hotel = Hotel.builder()
+                    .rooms(ROOMS)
+                    .bookings(new ArrayList<>())
+                    .build();
+        }
+        manageHotel = ManageHotel.builder()
+                .hotel(hotel)
+                .metrics(HotelMetrics.forHotel(hotel))
+                .build();
+        new BookingArchiver(hotel, Clock.systemDefaultZone()).schedule(ARCHIVE_PERIOD);
+        // every day a booking can cover, so the window does not drift while the process runs, about 3 MB per capacity
+        analytics = OccupancyAnalytics.attach(hotel, RoomBookingIndex.FIRST_NIGHT, RoomBookingIndex.LAST_CHECK_OUT);
+
+        BulkImporter importer = BulkImporter.builder().hotel(hotel).format(format).build();
+        if (roomsImport != null) {
+            importFile(roomsImport, "rooms", importer::importRooms);
+        }
+        if (bookingsImport != null) {
+            importFile(bookingsImport, "bookings", importer::importBookings);
+        }
+        if (roomsExport != null || bookingsExport != null) {
+            BulkExporter exporter = BulkExporter.builder().hotel(hotel).format(format).build();
+            if (roomsExport != null) {
+                exportFile(roomsExport, exporter::exportRooms);
+            }
+            if (bookingsExport != null) {
+                exportFile(bookingsExport, exporter::exportBookings);
+            }
+            if (store != null) {
+                store.snapshot();
+                store.close();
+            }
+            return;
+        }
+
+        if (httpPort != null) {
+            serve(httpPort, store);
+            return;
+        }
+        if (batchScript != null) {
+            runBatch(batchScript, pipeline);
+            if (store != null) {
+                store.snapshot();
+                store.close();
+            }
+            return;
+        }
+
         out.println("Welcome to the domains.Hotel domains.Booking System");
         out.println("------");
         out.println("Rooms:");
@@ -44,7 +168,9 @@ public class Main {
             out.println("2. Cancel a booking");
             out.println("3. Search bookings");
             out.println("4. View all bookings");
-            out.println("5. Exit");
+            out.println("5. View metrics");
+            out.println("6. View occupancy");
+            out.println("7. Exit");
             out.println("------");
             out.print("Enter your choice: ");
             int choice = scanner.nextInt();
@@ -81,12 +207,88 @@ public class Main {
                     });
                     break;
                 case 5:
+                    out.println(manageHotel.getMetrics().snapshot());
+                    break;
+                case 6:
+                    try {
+                        for (OccupancyStats stats : analytics.getStatsByCapacity(getFromDate(), getToDate())) {
+                            out.printf("capacity %d: occupancy %.1f%%, ADR %.2f, RevPAR %.2f, revenue %.2f%n",
+                                    stats.capacity(), stats.occupancy() * 100, stats.adr(), stats.revPar(), stats.revenue());
+                        }
+                    } catch (Exception e) {
+                        out.println(e.getMessage());
+                    }
+                    break;
+                case 7:
                     exit = true;
                     break;
                 default:
                     out.println("Invalid choice");
             }
         }
+
+        if (store != null) {
+            store.snapshot();
+            store.close();
+        }
+    }
+
+    private static void serve(int port, HotelStore store) throws IOException {
+        // the JDK's server writes the headers and the body separately, without TCP_NODELAY the body waits for a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HotelHttpServer server = HotelHttpServer.start(new InetSocketAddress(port), manageHotel);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (store != null) {
+                try {
+                    store.snapshot();
+                    store.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
+        out.println("Serving the hotel on port " + server.getPort());
+    }
+
+    private static void runBatch(String script, boolean pipeline) throws IOException {
+        Writer output = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        BufferedReader input = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8);
+        try (input) {
+            new BatchRunner(manageHotel, pipeline).run(input, output);
+        }
+    }
+
+    private static void importFile(String file, String entities, Import action) throws IOException {
+        try (BufferedReader input = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            ImportReport report = action.run(input);
+            // not on the standard output, where the rows may be exported
+            System.err.println("Imported " + report.accepted() + " " + entities + ", rejected " + report.rejectedCount());
+            for (ImportReport.RejectedRow row : report.rejected()) {
+                System.err.println("line " + row.lineNumber() + ": " + row.reason() + ": " + row.line());
+            }
+        }
+    }
+
+    private static void exportFile(String file, Export action) throws IOException {
+        if (file.equals("-")) {
+            action.run(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            return;
+        }
+        try (Writer output = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8)) {
+            action.run(output);
+        }
+    }
+
+    private static String optionValue(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of option " + args[i - 1]);
+        }
+        return args[i];
     }
 
     private static String getFullName() {
@@ -104,6 +306,16 @@ public class Main {
         return LocalDate.parse(scanner.next());
     }
 
+    private static LocalDate getFromDate() {
+        out.print("Enter from date: ");
+        return LocalDate.parse(scanner.next());
+    }
+
+    private static LocalDate getToDate() {
+        out.print("Enter to date: ");
+        return LocalDate.parse(scanner.next());
+    }
+
     private static int getReference() {
         out.print("Enter reference: ");
         return scanner.nextInt();
@@ -118,4 +330,14 @@ public class Main {
         out.print("Enter room number: ");
         return scanner.nextInt();
     }
+
+    private interface Import {
+
+        ImportReport run(Reader input) throws IOException;
+    }
+
+    private interface Export {
+
+        long run(Writer output) throws IOException;
+    }
 }
@@ -0,0 +1,90 @@
+package analytics;
+
+/**
+ * Represents an array of longs supporting the addition of a value to a range and the sum of a range, both in O(log n).
+ * <p>
+ * It holds two Fenwick trees, {@code b1} and {@code b2}, such that the prefix sum up to {@code i} is
+ * {@code sum(b1, i) * i - sum(b2, i)}: a range addition is then four point updates.
+ * It is not thread-safe, its owner guards it.
+ */
+public class FenwickTree {
+
+    private final long[] b1;
+    private final long[] b2;
+
+    /**
+     * Creates an array of zeros.
+     *
+     * @param size the number of elements
+     */
+    public FenwickTree(int size) {
+        b1 = new long[size + 1];
+        b2 = new long[size + 1];
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return b1.length - 1;
+    }
+
+    /**
+     * Adds a value to every element of a range.
+     *
+     * @param from  the first index, included, from 0
+     * @param to    the last index, excluded
+     * @param value the value to add
+     */
+    public void add(int from, int to, long value) {
+        if (from >= to) {
+            return;
+        }
+        // 1-based inclusive range [from + 1, to]
+        update(b1, from + 1, value);
+        update(b1, to + 1, -value);
+        update(b2, from + 1, value * from);
+        update(b2, to + 1, -value * to);
+    }
+
+    /**
+     * Returns the sum of the elements of a range.
+     *
+     * @param from the first index, included, from 0
+     * @param to   the last index, excluded
+     * @return the sum
+     */
+    public long sum(int from, int to) {
+        return from >= to ? 0 : prefixSum(to) - prefixSum(from);
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param index the index, from 0
+     * @return the element
+     */
+    public long get(int index) {
+        return sum(index, index + 1);
+    }
+
+    private long prefixSum(int count) {
+        return query(b1, count) * count - query(b2, count);
+    }
+
+    private void update(long[] tree, int index, long value) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += value;
+        }
+    }
+
+    private static long query(long[] tree, int index) {
+        long sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,221 @@
+package analytics;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+import exceptions.ParamNotValidException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the occupancy and revenue of a hotel per room capacity, kept up to date as bookings are added and removed.
+ * <p>
+ * For each capacity, the room-nights sold and the revenue of every day of a fixed range are held in {@link FenwickTree}s:
+ * a booking adds to the range of its nights, and the totals of any range of days are read, both in O(log days).
+ * Nights outside the range of days are not counted. A night is sold at the price of its room when it is recorded,
+ * prices are expected not to change while it is booked. Archived bookings still count, they are not cancelled.
+ * <p>
+ * It is thread-safe, each capacity is guarded by its own lock.
+ */
+public class OccupancyAnalytics implements BookingListener {
+
+    private final Hotel hotel;
+    private final LocalDate firstDay;
+    private final int days;
+    private final Map<Integer, CapacityClass> classes = new ConcurrentHashMap<>();
+
+    private OccupancyAnalytics(Hotel hotel, LocalDate firstDay, int days) {
+        this.hotel = hotel;
+        this.firstDay = firstDay;
+        this.days = days;
+    }
+
+    /**
+     * Builds the analytics of a hotel from its bookings, archived ones included, and keeps them up to date.
+     * It must not be called while bookings are being made.
+     *
+     * @param hotel    the hotel
+     * @param firstDay the first day analysed, included
+     * @param lastDay  the last day analysed, excluded
+     * @return the analytics, registered as a listener of the hotel
+     */
+    public static OccupancyAnalytics attach(Hotel hotel, LocalDate firstDay, LocalDate lastDay) {
+        int days = (int) (lastDay.toEpochDay() - firstDay.toEpochDay());
+        if (days <= 0) {
+            throw new IllegalArgumentException("The last day must be after the first day");
+        }
+        OccupancyAnalytics analytics = new OccupancyAnalytics(hotel, firstDay, days);
+        hotel.forEachBooking(analytics::bookingAdded);
+        hotel.forEachArchivedBooking(analytics::bookingAdded);
+        hotel.addListener(analytics);
+        return analytics;
+    }
+
+    @Override
+    public void bookingAdded(Booking booking) {
+        record(booking, 1);
+    }
+
+    @Override
+    public void bookingRemoved(Booking booking) {
+        record(booking, -1);
+    }
+
+    /**
+     * Returns the occupancy and revenue of the rooms of a capacity over a range of days.
+     *
+     * @param capacity the capacity of the rooms
+     * @param from     the first day, included
+     * @param to       the last day, excluded
+     * @return the statistics of the range
+     * @throws ParamNotValidException if the range is empty or not within the days analysed
+     */
+    public OccupancyStats getStats(int capacity, LocalDate from, LocalDate to) throws ParamNotValidException {
+        int fromDay = day(from);
+        int toDay = day(to);
+        //check if range is valid
+        if (fromDay < 0 || toDay > days || fromDay >= toDay) {
+            throw new ParamNotValidException();
+        }
+
+        long nightsAvailable = (long) hotel.getRoomsWithCapacity(capacity).size() * (toDay - fromDay);
+        CapacityClass capacityClass = classes.get(capacity);
+        if (capacityClass == null) {
+            return new OccupancyStats(capacity, from, to, nightsAvailable, 0, 0);
+        }
+        synchronized (capacityClass) {
+            return new OccupancyStats(capacity, from, to, nightsAvailable,
+                    capacityClass.nightsSold.sum(fromDay, toDay),
+                    capacityClass.revenueCents.sum(fromDay, toDay) / 100.0);
+        }
+    }
+
+    /**
+     * Returns the occupancy and revenue of each capacity over a range of days.
+     *
+     * @param from the first day, included
+     * @param to   the last day, excluded
+     * @return the statistics of each capacity, by ascending capacity
+     * @throws ParamNotValidException if the range is empty or not within the days analysed
+     */
+    public List<OccupancyStats> getStatsByCapacity(LocalDate from, LocalDate to) throws ParamNotValidException {
+        List<OccupancyStats> stats = new ArrayList<>();
+        for (int capacity : capacities()) {
+            stats.add(getStats(capacity, from, to));
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the occupancy and revenue of the rooms of a capacity for each day of a range.
+     *
+     * @param capacity the capacity of the rooms
+     * @param from     the first day, included
+     * @param to       the last day, excluded
+     * @return the statistics of each day, in order
+     * @throws ParamNotValidException if the range is empty or not within the days analysed
+     */
+    public List<OccupancyStats> getDailyStats(int capacity, LocalDate from, LocalDate to) throws ParamNotValidException {
+        List<OccupancyStats> stats = new ArrayList<>();
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            stats.add(getStats(capacity, day, day.plusDays(1)));
+        }
+        return stats;
+    }
+
+    /**
+     * Computes the occupancy and revenue of each capacity over a range of days from the bookings themselves,
+     * in parallel. It is slow but independent from the incremental aggregates, so it can be used to check them.
+     *
+     * @param from the first day, included
+     * @param to   the last day, excluded
+     * @return the statistics of each capacity, by ascending capacity
+     * @throws ParamNotValidException if the range is empty or not within the days analysed
+     */
+    public List<OccupancyStats> recompute(LocalDate from, LocalDate to) throws ParamNotValidException {
+        int fromDay = day(from);
+        int toDay = day(to);
+        //check if range is valid
+        if (fromDay < 0 || toDay > days || fromDay >= toDay) {
+            throw new ParamNotValidException();
+        }
+
+        List<Booking> bookings = hotel.getBookings();
+        hotel.forEachArchivedBooking(bookings::add);
+        // capacity -> {nights sold, revenue in cents}
+        Map<Integer, long[]> totals = bookings.parallelStream().collect(HashMap::new, (partial, booking) -> {
+            Room room = hotel.getRoom(booking.getRoomNumber()).orElse(null);
+            long nights = Math.min(toDay, day(booking.getCheckOutDate())) - Math.max(fromDay, day(booking.getCheckInDate()));
+            if (room != null && nights > 0) {
+                long[] total = partial.computeIfAbsent(room.getCapacity(), capacity -> new long[2]);
+                total[0] += nights;
+                total[1] += nights * cents(room);
+            }
+        }, (left, right) -> right.forEach((capacity, total) -> {
+            long[] sum = left.computeIfAbsent(capacity, c -> new long[2]);
+            sum[0] += total[0];
+            sum[1] += total[1];
+        }));
+
+        List<OccupancyStats> stats = new ArrayList<>();
+        for (int capacity : capacities()) {
+            long[] total = totals.getOrDefault(capacity, new long[2]);
+            long nightsAvailable = (long) hotel.getRoomsWithCapacity(capacity).size() * (toDay - fromDay);
+            stats.add(new OccupancyStats(capacity, from, to, nightsAvailable, total[0], total[1] / 100.0));
+        }
+        return stats;
+    }
+
+    private void record(Booking booking, int sign) {
+        Room room = hotel.getRoom(booking.getRoomNumber()).orElse(null);
+        if (room == null) {
+            return;
+        }
+        int from = Math.max(0, day(booking.getCheckInDate()));
+        int to = Math.min(days, day(booking.getCheckOutDate()));
+        if (from >= to) {
+            return;
+        }
+        CapacityClass capacityClass = classes.computeIfAbsent(room.getCapacity(), capacity -> new CapacityClass(days));
+        synchronized (capacityClass) {
+            capacityClass.nightsSold.add(from, to, sign);
+            capacityClass.revenueCents.add(from, to, sign * cents(room));
+        }
+    }
+
+    private TreeSet<Integer> capacities() {
+        TreeSet<Integer> capacities = new TreeSet<>(classes.keySet());
+        hotel.getRooms().forEach(room -> capacities.add(room.getCapacity()));
+        return capacities;
+    }
+
+    private int day(LocalDate date) {
+        return (int) (Objects.requireNonNullElse(date, firstDay).toEpochDay() - firstDay.toEpochDay());
+    }
+
+    private static long cents(Room room) {
+        return Math.round(room.getPrice() * 100);
+    }
+
+    /**
+     * Represents the aggregates of the rooms of a capacity.
+     */
+    private static final class CapacityClass {
+
+        private final FenwickTree nightsSold;
+        private final FenwickTree revenueCents;
+
+        private CapacityClass(int days) {
+            nightsSold = new FenwickTree(days);
+            revenueCents = new FenwickTree(days);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the occupancy and revenue of the rooms of a capacity over a range of days.
+ *
+ * @param capacity        the capacity of the rooms
+ * @param from            the first day, included
+ * @param to              the last day, excluded
+ * @param nightsAvailable the number of room-nights of the range: rooms times days
+ * @param nightsSold      the number of room-nights booked
+ * @param revenue         the revenue of the nights booked, at the price of their room
+ */
+public record OccupancyStats(int capacity, LocalDate from, LocalDate to, long nightsAvailable, long nightsSold, double revenue) {
+
+    /**
+     * Returns the occupancy rate: the share of the room-nights booked.
+     *
+     * @return the occupancy rate, between 0 and 1, or 0 if no room-night is available
+     */
+    public double occupancy() {
+        return nightsAvailable == 0 ? 0 : (double) nightsSold / nightsAvailable;
+    }
+
+    /**
+     * Returns the average daily rate: the revenue per room-night booked.
+     *
+     * @return the average daily rate, or 0 if no room-night is booked
+     */
+    public double adr() {
+        return nightsSold == 0 ? 0 : revenue / nightsSold;
+    }
+
+    /**
+     * Returns the revenue per available room: the revenue per room-night of the range.
+     *
+     * @return the revenue per available room, or 0 if no room-night is available
+     */
+    public double revPar() {
+        return nightsAvailable == 0 ? 0 : revenue / nightsAvailable;
+    }
+}
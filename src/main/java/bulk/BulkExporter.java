@@ -0,0 +1,69 @@
+package bulk;
+
+import entities.Hotel;
+import lombok.Builder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Exports the rooms and bookings of a hotel as a stream of rows, which {@link BulkImporter} can import back.
+ * Bookings are written room by room, so only the bookings of one room are copied at a time.
+ */
+@Builder
+public class BulkExporter {
+
+    private final Hotel hotel;
+    @Builder.Default
+    private final BulkFormat format = BulkFormat.CSV;
+
+    /**
+     * Exports the rooms of the hotel.
+     *
+     * @param output the writer of the rows, flushed but not closed
+     * @return the number of rooms exported
+     * @throws IOException if the rows cannot be written
+     */
+    public long exportRooms(Writer output) throws IOException {
+        return export(output, RowMapper.ROOMS, hotel.getRooms()::forEach);
+    }
+
+    /**
+     * Exports the bookings of the hotel, by room and check-in date.
+     *
+     * @param output the writer of the rows, flushed but not closed
+     * @return the number of bookings exported
+     * @throws IOException if the rows cannot be written
+     */
+    public long exportBookings(Writer output) throws IOException {
+        return export(output, RowMapper.BOOKINGS, hotel::forEachBooking);
+    }
+
+    private <T> long export(Writer output, RowMapper<T> mapper, Consumer<Consumer<T>> entities) throws IOException {
+        BufferedWriter writer = output instanceof BufferedWriter buffered ? buffered : new BufferedWriter(output, 1 << 16);
+        String header = format.header(mapper.columns());
+        if (header != null) {
+            writer.write(header);
+            writer.write('\n');
+        }
+        long[] count = new long[1];
+        try {
+            entities.accept(entity -> {
+                try {
+                    writer.write(format.format(mapper.columns(), mapper.write(entity)));
+                    writer.write('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+}
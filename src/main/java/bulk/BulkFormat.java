@@ -0,0 +1,140 @@
+package bulk;
+
+import exceptions.ParamNotValidException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a line-based format of rows: one row per line, so files can be read and written as streams.
+ */
+public enum BulkFormat {
+
+    /**
+     * Comma-separated values with a header line. Fields holding a comma or a quote are quoted, quotes are doubled.
+     */
+    CSV {
+        @Override
+        String header(List<String> columns) {
+            return String.join(",", columns);
+        }
+
+        @Override
+        String[] parse(String line, List<String> columns) throws ParamNotValidException {
+            List<String> fields = new ArrayList<>(columns.size());
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            if (quoted || fields.size() != columns.size()) {
+                throw new ParamNotValidException();
+            }
+            return fields.toArray(new String[0]);
+        }
+
+        @Override
+        String format(List<String> columns, Object[] values) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                String value = String.valueOf(values[i]);
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+                    line.append('"').append(value.replace("\"", "\"\"")).append('"');
+                } else {
+                    line.append(value);
+                }
+            }
+            return line.toString();
+        }
+    },
+
+    /**
+     * Newline-delimited JSON: one flat object per line, without header. Numbers are written unquoted.
+     */
+    NDJSON {
+        @Override
+        String header(List<String> columns) {
+            return null;
+        }
+
+        @Override
+        String[] parse(String line, List<String> columns) throws ParamNotValidException {
+            Map<String, String> object = FlatJson.parse(line);
+            String[] fields = new String[columns.size()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = object.get(columns.get(i));
+                if (fields[i] == null) {
+                    throw new ParamNotValidException();
+                }
+            }
+            return fields;
+        }
+
+        @Override
+        String format(List<String> columns, Object[] values) {
+            StringBuilder line = new StringBuilder("{");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                FlatJson.appendString(line, columns.get(i));
+                line.append(':');
+                if (values[i] instanceof Number) {
+                    line.append(values[i]);
+                } else {
+                    FlatJson.appendString(line, String.valueOf(values[i]));
+                }
+            }
+            return line.append('}').toString();
+        }
+    };
+
+    /**
+     * Returns the header line of the format.
+     *
+     * @param columns the names of the columns
+     * @return the header line, or null if the format has none
+     */
+    abstract String header(List<String> columns);
+
+    /**
+     * Splits a line into the fields of the given columns.
+     *
+     * @param line    the line to split
+     * @param columns the names of the columns
+     * @return the fields, in the order of the columns
+     * @throws ParamNotValidException if the line is malformed or misses a column
+     */
+    abstract String[] parse(String line, List<String> columns) throws ParamNotValidException;
+
+    /**
+     * Joins the values of a row into a line.
+     *
+     * @param columns the names of the columns
+     * @param values  the values, in the order of the columns
+     * @return the line, without line separator
+     */
+    abstract String format(List<String> columns, Object[] values);
+}
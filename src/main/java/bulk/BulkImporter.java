@@ -0,0 +1,279 @@
+package bulk;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import exceptions.BookingNotValidException;
+import exceptions.ParamNotValidException;
+import exceptions.RoomNotAvailableException;
+import exceptions.RoomNotFoundException;
+import lombok.Builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports rooms and bookings into a hotel from a stream of rows, e.g. when migrating from another system.
+ * <p>
+ * The input is read in chunks of lines, so memory stays bounded whatever its size.
+ * When the input holds more than one chunk, the chunks are parsed and checked by a pool of threads,
+ * while the caller adds the rows to the hotel one chunk at a time, in the order of the input.
+ * Bookings are added straight to the hotel's indexes, a chunk at a time, so the listeners of the hotel are notified
+ * once per chunk, e.g. a write-ahead log syncs once. A row is rejected, and reported with the exception
+ * matching the reason, if it is malformed ({@link ParamNotValidException}), its dates are not valid or out of the supported range
+ * ({@link indexes.RoomBookingIndex#isSupported}) or its reference
+ * is already taken, by the hotel or an earlier row ({@link BookingNotValidException}), its room does not exist ({@link RoomNotFoundException})
+ * or it overlaps another booking ({@link RoomNotAvailableException}).
+ * Past bookings are accepted, they are part of the history being migrated.
+ */
+@Builder
+public class BulkImporter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int DEFAULT_MAX_REPORTED_REJECTIONS = 1000;
+
+    private final Hotel hotel;
+    @Builder.Default
+    private final BulkFormat format = BulkFormat.CSV;
+    @Builder.Default
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+    @Builder.Default
+    private final int chunkSize = DEFAULT_CHUNK_SIZE;
+    @Builder.Default
+    private final int maxReportedRejections = DEFAULT_MAX_REPORTED_REJECTIONS;
+
+    /**
+     * Imports rooms into the hotel. A room whose number is already taken is rejected.
+     *
+     * @param input the rows of the rooms
+     * @return the report of the import
+     * @throws IOException if the input cannot be read or its header is not the expected one
+     */
+    public ImportReport importRooms(Reader input) throws IOException {
+        Map<Integer, Room> rooms = new LinkedHashMap<>();
+        hotel.getRooms().forEach(room -> rooms.put(room.getRoomNumber(), room));
+        ImportReport report = run(input, RowMapper.ROOMS, room -> {
+        }, eachRow(room -> {
+            //check if room number is free
+            if (rooms.putIfAbsent(room.getRoomNumber(), room) != null) {
+                throw new ParamNotValidException();
+            }
+        }));
+        hotel.setRooms(new ArrayList<>(rooms.values()));
+        return report;
+    }
+
+    /**
+     * Imports bookings into the hotel, whose rooms must have been imported first.
+     *
+     * @param input the rows of the bookings
+     * @return the report of the import
+     * @throws IOException if the input cannot be read or its header is not the expected one
+     */
+    public ImportReport importBookings(Reader input) throws IOException {
+        return run(input, RowMapper.BOOKINGS, booking -> {
+            //check if room exists
+            if (!hotel.checkRoomExists(booking.getRoomNumber())) {
+                throw new RoomNotFoundException();
+            }
+        }, bookings -> {
+            List<Exception> failures = new ArrayList<>(Collections.nCopies(bookings.size(), null));
+            Set<Integer> references = new HashSet<>();
+            List<Booking> candidates = new ArrayList<>(bookings.size());
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking booking = bookings.get(i);
+                //check if reference is free
+                if (hotel.getBookingByReference(booking.getReference()).isPresent() || !references.add(booking.getReference())) {
+                    failures.set(i, new BookingNotValidException());
+                } else {
+                    candidates.add(booking);
+                }
+            }
+
+            //add bookings whose room is available
+            Set<Booking> notAdded = Collections.newSetFromMap(new IdentityHashMap<>());
+            notAdded.addAll(hotel.addAvailableBookings(candidates));
+            for (int i = 0; i < bookings.size(); i++) {
+                if (notAdded.contains(bookings.get(i))) {
+                    failures.set(i, new RoomNotAvailableException());
+                }
+            }
+            return failures;
+        });
+    }
+
+    private <T> ImportReport run(Reader input, RowMapper<T> mapper, RowAction<T> check, ChunkAction<T> apply) throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input, 1 << 16);
+        Report report = new Report();
+        long lineNumber = 0;
+        String header = format.header(mapper.columns());
+        if (header != null) {
+            String line = reader.readLine();
+            lineNumber++;
+            if (line == null || !line.strip().equals(header)) {
+                throw new IOException("Expected header " + header + " but was " + line);
+            }
+        }
+
+        ExecutorService executor = null;
+        Deque<Future<List<Row<T>>>> pending = new ArrayDeque<>();
+        try {
+            while (true) {
+                List<String> lines = readChunk(reader);
+                if (lines.isEmpty()) {
+                    break;
+                }
+                long firstLineNumber = lineNumber + 1;
+                lineNumber += lines.size();
+                if (executor == null && (parallelism <= 1 || lines.size() < chunkSize)) {
+                    // the input fits in one chunk, it is not worth starting threads
+                    apply(parse(lines, firstLineNumber, mapper, check), apply, report);
+                    continue;
+                }
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(parallelism);
+                }
+                pending.add(executor.submit(() -> parse(lines, firstLineNumber, mapper, check)));
+                // bound the chunks in memory
+                if (pending.size() > 2 * parallelism) {
+                    apply(await(pending.poll()), apply, report);
+                }
+            }
+            while (!pending.isEmpty()) {
+                apply(await(pending.poll()), apply, report);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        return new ImportReport(report.accepted, report.rejectedCount, List.copyOf(report.rejected));
+    }
+
+    private List<String> readChunk(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(chunkSize);
+        String line;
+        while (lines.size() < chunkSize && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private <T> List<Row<T>> parse(List<String> lines, long firstLineNumber, RowMapper<T> mapper, RowAction<T> check) {
+        List<Row<T>> rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                T entity = mapper.read(format.parse(line, mapper.columns()));
+                check.accept(entity);
+                rows.add(new Row<>(firstLineNumber + i, line, entity, null));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                rows.add(new Row<>(firstLineNumber + i, line, null, e));
+            }
+        }
+        return rows;
+    }
+
+    private <T> void apply(List<Row<T>> rows, ChunkAction<T> apply, Report report) {
+        List<T> entities = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            if (row.failure() == null) {
+                entities.add(row.entity());
+            }
+        }
+        List<Exception> failures = apply.accept(entities);
+        int next = 0;
+        for (Row<T> row : rows) {
+            Exception failure = row.failure() != null ? row.failure() : failures.get(next++);
+            if (failure == null) {
+                report.accepted++;
+                continue;
+            }
+            report.rejectedCount++;
+            if (report.rejected.size() < maxReportedRejections) {
+                report.rejected.add(new ImportReport.RejectedRow(row.lineNumber(), row.line(), failure.getClass().getSimpleName()));
+            }
+        }
+    }
+
+    private static <T> ChunkAction<T> eachRow(RowAction<T> action) {
+        return entities -> {
+            List<Exception> failures = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                try {
+                    action.accept(entity);
+                    failures.add(null);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            }
+            return failures;
+        };
+    }
+
+    private static <T> List<Row<T>> await(Future<List<Row<T>>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Represents a check or an action on a row, rejecting the row by throwing a checked exception.
+     */
+    private interface RowAction<T> {
+
+        void accept(T entity) throws Exception;
+    }
+
+    /**
+     * Represents an action on the rows of a chunk, returning the exception rejecting each row, or null if it is accepted.
+     */
+    private interface ChunkAction<T> {
+
+        List<Exception> accept(List<T> entities);
+    }
+
+    private record Row<T>(long lineNumber, String line, T entity, Exception failure) {
+    }
+
+    private static final class Report {
+
+        private final List<ImportReport.RejectedRow> rejected = new ArrayList<>();
+        private long accepted;
+        private long rejectedCount;
+    }
+}
@@ -0,0 +1,160 @@
+package bulk;
+
+import exceptions.ParamNotValidException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes flat JSON objects, whose values are strings, numbers, booleans or null.
+ * Nested objects and arrays are not supported, rows never hold any.
+ */
+final class FlatJson {
+
+    private FlatJson() {
+    }
+
+    /**
+     * Parses a flat JSON object.
+     *
+     * @param text the text of the object
+     * @return the values by key, numbers and booleans as written, null values are left out
+     * @throws ParamNotValidException if the text is not a flat JSON object
+     */
+    static Map<String, String> parse(String text) throws ParamNotValidException {
+        Parser parser = new Parser(text);
+        Map<String, String> object = new HashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String key = parser.string();
+                parser.expect(':');
+                String value = parser.value();
+                if (value != null) {
+                    object.put(key, value);
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return object;
+    }
+
+    /**
+     * Appends a string as a JSON string, quoted and escaped.
+     *
+     * @param json  the JSON being written
+     * @param value the string to append
+     */
+    static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private void expect(char c) throws ParamNotValidException {
+            if (!consume(c)) {
+                throw new ParamNotValidException();
+            }
+        }
+
+        private boolean consume(char c) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void end() throws ParamNotValidException {
+            skipSpaces();
+            if (position != text.length()) {
+                throw new ParamNotValidException();
+            }
+        }
+
+        private String value() throws ParamNotValidException {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return string();
+            }
+            int start = position;
+            while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw new ParamNotValidException();
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() throws ParamNotValidException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                } else if (position < text.length()) {
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > text.length()) {
+                                throw new ParamNotValidException();
+                            }
+                            try {
+                                value.append((char) Integer.parseInt(text, position, position + 4, 16));
+                            } catch (NumberFormatException e) {
+                                throw new ParamNotValidException();
+                            }
+                            position += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                }
+            }
+            throw new ParamNotValidException();
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
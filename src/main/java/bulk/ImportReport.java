@@ -0,0 +1,23 @@
+package bulk;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of an import.
+ *
+ * @param accepted      the number of rows imported
+ * @param rejectedCount the number of rows rejected
+ * @param rejected      the first rejected rows, in the order of the input
+ */
+public record ImportReport(long accepted, long rejectedCount, List<RejectedRow> rejected) {
+
+    /**
+     * Represents a row that was not imported.
+     *
+     * @param lineNumber the number of the line in the input, starting at 1
+     * @param line       the line
+     * @param reason     the simple name of the exception that rejected the row, e.g. {@code RoomNotAvailableException}
+     */
+    public record RejectedRow(long lineNumber, String line, String reason) {
+    }
+}
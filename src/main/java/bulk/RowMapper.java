@@ -0,0 +1,155 @@
+package bulk;
+
+import entities.Booking;
+import entities.Room;
+import exceptions.BookingNotValidException;
+import exceptions.ParamNotValidException;
+import indexes.RoomBookingIndex;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maps the fields of a row to an entity and back.
+ *
+ * @param <T> the type of the entity
+ */
+interface RowMapper<T> {
+
+    /**
+     * Maps the rows of rooms: room number, capacity and price.
+     */
+    RowMapper<Room> ROOMS = new RowMapper<>() {
+
+        private final List<String> columns = List.of("roomNumber", "capacity", "price");
+
+        @Override
+        public List<String> columns() {
+            return columns;
+        }
+
+        @Override
+        public Room read(String[] fields) throws ParamNotValidException {
+            Room room = Room.builder()
+                    .roomNumber(parseInt(fields[0]))
+                    .capacity(parseInt(fields[1]))
+                    .price(parseDouble(fields[2]))
+                    .build();
+            //check if room is valid
+            if (room.getCapacity() <= 0 || room.getPrice() < 0) {
+                throw new ParamNotValidException();
+            }
+            return room;
+        }
+
+        @Override
+        public Object[] write(Room room) {
+            return new Object[]{room.getRoomNumber(), room.getCapacity(), room.getPrice()};
+        }
+    };
+
+    /**
+     * Maps the rows of bookings: reference, room number, guest's full name, check-in and check-out dates.
+     */
+    RowMapper<Booking> BOOKINGS = new RowMapper<>() {
+
+        private final List<String> columns = List.of("reference", "roomNumber", "fullName", "checkInDate", "checkOutDate");
+
+        @Override
+        public List<String> columns() {
+            return columns;
+        }
+
+        @Override
+        public Booking read(String[] fields) throws ParamNotValidException, BookingNotValidException {
+            Booking booking = Booking.builder()
+                    .reference(parseInt(fields[0]))
+                    .roomNumber(parseInt(fields[1]))
+                    .fullName(fields[2])
+                    .checkInDate(parseDate(fields[3]))
+                    .checkOutDate(parseDate(fields[4]))
+                    .build();
+            //check if booking is valid
+            if (booking.getFullName().isBlank()) {
+                throw new ParamNotValidException();
+            }
+            if (!booking.getCheckInDate().isBefore(booking.getCheckOutDate())
+                    || !RoomBookingIndex.isSupported(booking.getCheckInDate(), booking.getCheckOutDate())) {
+                throw new BookingNotValidException();
+            }
+            return booking;
+        }
+
+        @Override
+        public Object[] write(Booking booking) {
+            return new Object[]{booking.getReference(), booking.getRoomNumber(), booking.getFullName(), booking.getCheckInDate(), booking.getCheckOutDate()};
+        }
+    };
+
+    /**
+     * Returns the names of the columns, in the order of the fields.
+     *
+     * @return the names of the columns
+     */
+    List<String> columns();
+
+    /**
+     * Builds an entity from the fields of a row.
+     *
+     * @param fields the fields, in the order of the columns
+     * @return the entity
+     * @throws ParamNotValidException   if a field is malformed
+     * @throws BookingNotValidException if the fields are well-formed but do not make a valid entity
+     */
+    T read(String[] fields) throws ParamNotValidException, BookingNotValidException;
+
+    /**
+     * Returns the values of the fields of an entity.
+     *
+     * @param entity the entity
+     * @return the values, in the order of the columns
+     */
+    Object[] write(T entity);
+
+    private static int parseInt(String field) throws ParamNotValidException {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            throw new ParamNotValidException();
+        }
+    }
+
+    private static double parseDouble(String field) throws ParamNotValidException {
+        try {
+            return Double.parseDouble(field.trim());
+        } catch (NumberFormatException e) {
+            throw new ParamNotValidException();
+        }
+    }
+
+    private static LocalDate parseDate(String field) throws ParamNotValidException {
+        String date = field.trim();
+        try {
+            // most dates are yyyy-MM-dd, read without the formatter, which is several times slower
+            if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+                return LocalDate.of(digits(date, 0, 4), digits(date, 5, 7), digits(date, 8, 10));
+            }
+            return LocalDate.parse(date);
+        } catch (DateTimeException e) {
+            throw new ParamNotValidException();
+        }
+    }
+
+    private static int digits(String text, int start, int end) throws ParamNotValidException {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new ParamNotValidException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
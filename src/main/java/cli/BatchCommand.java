@@ -0,0 +1,84 @@
+package cli;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Represents a parsed line of a batch script.
+ * <p>
+ * A line is one of:
+ * <ul>
+ *     <li>{@code book <room> <check-in> <check-out> <full name>}</li>
+ *     <li>{@code cancel <reference>}</li>
+ *     <li>{@code search <room> <date> <full name>}</li>
+ *     <li>{@code suggest <capacity> <check-in> <check-out>}</li>
+ *     <li>{@code list}</li>
+ * </ul>
+ * Dates are {@code yyyy-MM-dd}, the full name is the rest of the line. A line that cannot be parsed is an invalid command.
+ *
+ * @param type   the type of command
+ * @param line   the number of the line in the script, from 1
+ * @param number the room number, capacity or reference
+ * @param from   the check-in date or the searched date
+ * @param to     the check-out date
+ * @param name   the full name of the guest
+ */
+record BatchCommand(Type type, long line, int number, LocalDate from, LocalDate to, String name) {
+
+    /**
+     * The types of command, by their name in a script.
+     */
+    enum Type {
+        BOOK("book"), CANCEL("cancel"), SEARCH("search"), SUGGEST("suggest"), LIST("list"), INVALID("invalid");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Parses a line of a script.
+     *
+     * @param line the number of the line
+     * @param text the text of the line
+     * @return the command, or null if the line is blank or a comment starting with #
+     */
+    static BatchCommand parse(long line, String text) {
+        String trimmed = text.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] words = trimmed.split("\\s+", 5);
+        try {
+            return switch (words[0]) {
+                case "book" -> words.length == 5
+                        ? new BatchCommand(Type.BOOK, line, Integer.parseInt(words[1]), LocalDate.parse(words[2]), LocalDate.parse(words[3]), words[4])
+                        : invalid(line);
+                case "cancel" -> words.length == 2 ? new BatchCommand(Type.CANCEL, line, Integer.parseInt(words[1]), null, null, null) : invalid(line);
+                case "search" -> {
+                    String[] search = trimmed.split("\\s+", 4);
+                    yield search.length == 4
+                            ? new BatchCommand(Type.SEARCH, line, Integer.parseInt(search[1]), LocalDate.parse(search[2]), null, search[3])
+                            : invalid(line);
+                }
+                case "suggest" -> words.length == 4
+                        ? new BatchCommand(Type.SUGGEST, line, Integer.parseInt(words[1]), LocalDate.parse(words[2]), LocalDate.parse(words[3]), null)
+                        : invalid(line);
+                case "list" -> words.length == 1 ? new BatchCommand(Type.LIST, line, 0, null, null, null) : invalid(line);
+                default -> invalid(line);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return invalid(line);
+        }
+    }
+
+    private static BatchCommand invalid(long line) {
+        return new BatchCommand(Type.INVALID, line, 0, null, null, null);
+    }
+}
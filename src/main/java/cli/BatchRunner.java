@@ -0,0 +1,269 @@
+package cli;
+
+import entities.Booking;
+import entities.Room;
+import services.ManageHotel;
+import services.OperationResult;
+import services.OperationStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a script of commands against a hotel without prompts, see {@link BatchCommand} for the commands.
+ * <p>
+ * Each command writes one line to a buffered output: its result, or {@code line <n>: <command>: <reason>} if it failed.
+ * Commands run through the result-returning operations of {@link ManageHotel}, so a rejection throws nothing.
+ * When pipelined, the script is read and parsed on a thread of its own and handed over in chunks,
+ * while the commands run on the calling thread in the order of the script.
+ * At the end, a summary of the throughput and of the failures of each command is written, its lines starting with #.
+ */
+public class BatchRunner {
+
+    private static final int CHUNK_SIZE = 512;
+    private static final int CHUNKS_AHEAD = 16;
+    private static final List<BatchCommand> END = List.of();
+
+    private final ManageHotel manageHotel;
+    private final boolean pipelined;
+
+    /**
+     * Creates a runner.
+     *
+     * @param manageHotel the hotel to run the commands against
+     * @param pipelined   true to parse the script on another thread while the commands run
+     */
+    public BatchRunner(ManageHotel manageHotel, boolean pipelined) {
+        this.manageHotel = manageHotel;
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Runs a script until its end.
+     *
+     * @param script the script
+     * @param output the output of the commands and of the summary, flushed at the end
+     * @return the summary of the run
+     * @throws IOException if the script cannot be read or the output cannot be written
+     */
+    public BatchSummary run(BufferedReader script, Writer output) throws IOException {
+        BatchSummary summary = new BatchSummary();
+        long start = System.nanoTime();
+        if (pipelined) {
+            runPipelined(script, output, summary);
+        } else {
+            long line = 0;
+            for (String text = script.readLine(); text != null; text = script.readLine()) {
+                BatchCommand command = BatchCommand.parse(++line, text);
+                if (command != null) {
+                    execute(command, output, summary);
+                }
+            }
+        }
+        summary.setElapsedNanos(System.nanoTime() - start);
+        summary.writeTo(output);
+        output.flush();
+        return summary;
+    }
+
+    private void runPipelined(BufferedReader script, Writer output, BatchSummary summary) throws IOException {
+        BlockingQueue<List<BatchCommand>> chunks = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+        ExecutorService parser = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> parsing = parser.submit(() -> {
+                try {
+                    parse(script, chunks);
+                } finally {
+                    chunks.put(END);
+                }
+                return null;
+            });
+            for (List<BatchCommand> chunk = chunks.take(); chunk != END; chunk = chunks.take()) {
+                for (BatchCommand command : chunk) {
+                    execute(command, output, summary);
+                }
+            }
+            parsing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The batch was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            parser.shutdownNow();
+        }
+    }
+
+    private static void parse(BufferedReader script, BlockingQueue<List<BatchCommand>> chunks) throws IOException, InterruptedException {
+        List<BatchCommand> chunk = new ArrayList<>(CHUNK_SIZE);
+        long line = 0;
+        for (String text = script.readLine(); text != null; text = script.readLine()) {
+            BatchCommand command = BatchCommand.parse(++line, text);
+            if (command != null) {
+                chunk.add(command);
+                if (chunk.size() == CHUNK_SIZE) {
+                    chunks.put(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.put(chunk);
+        }
+    }
+
+    private void execute(BatchCommand command, Writer output, BatchSummary summary) throws IOException {
+        OperationStatus status = switch (command.type()) {
+            case BOOK -> {
+                OperationResult<Booking> result = manageHotel.tryBookRoom(command.number(), command.from(), command.to(), command.name());
+                if (result.isSuccess()) {
+                    output.append("booked ").append(String.valueOf(result.getValue().getReference())).append('\n');
+                }
+                yield result.getStatus();
+            }
+            case CANCEL -> {
+                OperationResult<Booking> result = manageHotel.tryCancelBooking(command.number());
+                if (result.isSuccess()) {
+                    output.append("cancelled ").append(String.valueOf(command.number())).append('\n');
+                }
+                yield result.getStatus();
+            }
+            case SEARCH -> {
+                OperationResult<Booking> result = manageHotel.trySearchBooking(command.number(), command.name(), command.from());
+                if (result.isSuccess()) {
+                    output.append(result.getValue().toString()).append('\n');
+                }
+                yield result.getStatus();
+            }
+            case SUGGEST -> {
+                OperationResult<List<Room>> result = manageHotel.trySuggestRoom(command.number(), command.from(), command.to(), 0, Integer.MAX_VALUE);
+                if (result.isSuccess()) {
+                    output.append("rooms");
+                    for (Room room : result.getValue()) {
+                        output.append(' ').append(String.valueOf(room.getRoomNumber()));
+                    }
+                    output.append('\n');
+                }
+                yield result.getStatus();
+            }
+            case LIST -> {
+                try {
+                    manageHotel.getHotel().forEachBooking(booking -> {
+                        try {
+                            output.append(booking.toString()).append('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                yield OperationStatus.SUCCESS;
+            }
+            case INVALID -> OperationStatus.PARAM_NOT_VALID;
+        };
+        if (status != OperationStatus.SUCCESS) {
+            output.append("line ").append(String.valueOf(command.line())).append(": ")
+                    .append(command.type().label()).append(": ").append(status.getMessage()).append('\n');
+        }
+        summary.record(command.type(), status);
+    }
+
+    /**
+     * Represents the outcome of a batch: the number of commands, their throughput and the failures of each command.
+     */
+    public static final class BatchSummary {
+
+        private final Map<BatchCommand.Type, Map<String, Long>> outcomes = new EnumMap<>(BatchCommand.Type.class);
+        private long commands;
+        private long failures;
+        private long elapsedNanos;
+
+        private void record(BatchCommand.Type type, OperationStatus status) {
+            commands++;
+            if (status != OperationStatus.SUCCESS) {
+                failures++;
+            }
+            outcomes.computeIfAbsent(type, t -> new TreeMap<>()).merge(status.getOutcome(), 1L, Long::sum);
+        }
+
+        private void setElapsedNanos(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of commands run, invalid ones included.
+         *
+         * @return the number of commands
+         */
+        public long getCommands() {
+            return commands;
+        }
+
+        /**
+         * Returns the number of commands that failed.
+         *
+         * @return the number of failures
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Returns the number of commands of a type by outcome.
+         *
+         * @param command the name of the command in a script, or invalid
+         * @return the number of commands by outcome, the outcome of a success being success
+         */
+        public Map<String, Long> getOutcomes(String command) {
+            for (BatchCommand.Type type : BatchCommand.Type.values()) {
+                if (type.label().equals(command)) {
+                    return outcomes.getOrDefault(type, Map.of());
+                }
+            }
+            return Map.of();
+        }
+
+        /**
+         * Returns the time the batch took.
+         *
+         * @return the elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        private void writeTo(Writer output) throws IOException {
+            double seconds = elapsedNanos / 1e9;
+            output.append(String.format("# %d commands in %.1f ms, %.0f commands/s, %d failed%n",
+                    commands, elapsedNanos / 1e6, seconds > 0 ? commands / seconds : 0, failures));
+            for (Map.Entry<BatchCommand.Type, Map<String, Long>> entry : outcomes.entrySet()) {
+                output.append("# ").append(entry.getKey().label());
+                for (Map.Entry<String, Long> outcome : entry.getValue().entrySet()) {
+                    output.append(' ').append(outcome.getKey()).append('=').append(String.valueOf(outcome.getValue()));
+                }
+                output.append('\n');
+            }
+        }
+    }
+}
@@ -16,20 +16,9 @@ import java.time.LocalDate;
 @ToString
 public class Booking {
 
-    private static int referenceCount = 0;
-
     private int reference;
     private int roomNumber;
     private String fullName;
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
-
-    /**
-     * Returns the next reference count for a booking.
-     *
-     * @return The next reference count.
-     */
-    public static int nextReferenceCount(){
-        return referenceCount++;
-    }
 }
@@ -0,0 +1,46 @@
+package entities;
+
+import java.util.List;
+
+/**
+ * Represents a component notified of the bookings added to or removed from a hotel.
+ * It is called while the room of the booking is locked, so the notifications of a room come in order.
+ * A listener that throws an exception cancels the change it was notified of:
+ * the listeners notified before it are then notified of the opposite change.
+ * Bookings added together are notified together, so a listener can e.g. make them durable at once.
+ */
+public interface BookingListener {
+
+    /**
+     * Called when a booking has been added to the hotel.
+     *
+     * @param booking the booking added
+     */
+    void bookingAdded(Booking booking);
+
+    /**
+     * Called when a booking has been removed from the hotel.
+     *
+     * @param booking the booking removed
+     */
+    void bookingRemoved(Booking booking);
+
+    /**
+     * Called when several bookings have been added to the hotel together.
+     * By default, each booking is notified in turn; if one throws, the bookings before it are notified as removed.
+     *
+     * @param bookings the bookings added
+     */
+    default void bookingsAdded(List<Booking> bookings) {
+        for (int i = 0; i < bookings.size(); i++) {
+            try {
+                bookingAdded(bookings.get(i));
+            } catch (RuntimeException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    bookingRemoved(bookings.get(j));
+                }
+                throw e;
+            }
+        }
+    }
+}
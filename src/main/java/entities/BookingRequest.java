@@ -0,0 +1,21 @@
+package entities;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a request to book a room, as part of a group booking.
+ */
+@Getter
+@Builder
+@ToString
+public class BookingRequest {
+
+    private int roomNumber;
+    private String fullName;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+}
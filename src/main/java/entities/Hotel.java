@@ -1,27 +1,211 @@
 package entities;
 
+import indexes.GuestIndex;
+import indexes.RoomBookingIndex;
+import indexes.RoomRegistry;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import storage.CompactBookingStore;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Represents a hotel with rooms and bookings.
+ * Bookings are stored per room and each room is guarded by its own lock,
+ * so bookings on different rooms can be made concurrently.
+ * Bookings are also indexed by reference, references are unique within a hotel, and by guest.
+ * Past bookings can be moved to a compact archive, which keeps them searchable but out of the indexes.
+ * Rooms are held in a copy-on-write {@link RoomRegistry}: they can be added and retired while bookings are made.
  */
 @Getter
 @Setter
-@Builder
 @ToString
 public class Hotel {
 
-    @Builder.Default
-    private List<Room> rooms = new ArrayList<>();
-    @Builder.Default
-    private List<Booking> bookings = new ArrayList<>();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile RoomRegistry roomRegistry = RoomRegistry.empty();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<Integer, RoomBookingIndex> roomIndexes = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<Integer, Booking> bookingsByReference = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final GuestIndex guestIndex = new GuestIndex();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicInteger referenceCount = new AtomicInteger();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<BookingListener> listeners = new CopyOnWriteArrayList<>();
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final CompactBookingStore archive = new CompactBookingStore();
+
+    @Builder
+    public Hotel(List<Room> rooms, List<Booking> bookings) {
+        setRooms(rooms != null ? rooms : new ArrayList<>());
+        setBookings(bookings != null ? bookings : new ArrayList<>());
+    }
+
+    /**
+     * Retrieves the rooms of the hotel.
+     *
+     * @return an unmodifiable list of the rooms, in the order they were added
+     */
+    @ToString.Include(name = "rooms")
+    public List<Room> getRooms() {
+        return roomRegistry.getRooms();
+    }
+
+    /**
+     * Replaces the rooms of the hotel and rebuilds the room registry.
+     *
+     * @param rooms the new rooms
+     * @throws IllegalArgumentException if two rooms have the same number
+     */
+    public synchronized void setRooms(List<Room> rooms) {
+        this.roomRegistry = RoomRegistry.of(rooms);
+    }
+
+    /**
+     * Adds a room to the hotel. Searches and bookings go on while it is added.
+     * The room is persisted by the next snapshot of the hotel.
+     *
+     * @param room the room to add
+     * @return true if the room was added, false if a room has the same number
+     */
+    public synchronized boolean addRoom(Room room) {
+        if (roomRegistry.contains(room.getRoomNumber())) {
+            return false;
+        }
+        roomRegistry = roomRegistry.withRoom(room);
+        return true;
+    }
+
+    /**
+     * Retires a room of the hotel, unless it still has bookings. Its archived bookings are kept.
+     * The room is locked while it is checked and retired, so no booking can be added to it meanwhile.
+     *
+     * @param roomNumber the number of the room to retire
+     * @return true if the room was retired, false if it does not exist or still has bookings
+     */
+    public synchronized boolean retireRoom(int roomNumber) {
+        if (!roomRegistry.contains(roomNumber)) {
+            return false;
+        }
+        RoomBookingIndex index = roomIndex(roomNumber);
+        index.lock();
+        try {
+            if (index.size() > 0) {
+                return false;
+            }
+            roomRegistry = roomRegistry.withoutRoom(roomNumber);
+            return true;
+        } finally {
+            index.unlock();
+        }
+    }
+
+    /**
+     * Retrieves a room by its number.
+     *
+     * @param roomNumber the room number
+     * @return the room, or an empty optional if the hotel has no room of this number
+     */
+    public Optional<Room> getRoom(int roomNumber) {
+        return Optional.ofNullable(roomRegistry.get(roomNumber));
+    }
+
+    /**
+     * Retrieves all bookings of the hotel, sorted by room and check-in date.
+     *
+     * @return a snapshot of the bookings
+     */
+    public List<Booking> getBookings() {
+        List<Booking> bookings = new ArrayList<>();
+        indexesByRoom().forEach(index -> bookings.addAll(index.getBookings()));
+        return bookings;
+    }
+
+    /**
+     * Passes every booking of the hotel to a consumer, room by room and by check-in date within a room.
+     * Only the bookings of one room are copied at a time, so it does not copy the whole hotel.
+     *
+     * @param consumer the consumer of the bookings
+     */
+    public void forEachBooking(Consumer<Booking> consumer) {
+        indexesByRoom().forEach(index -> index.getBookings().forEach(consumer));
+    }
+
+    /**
+     * Replaces the bookings of the hotel and rebuilds the room indexes.
+     * It must not be called while bookings are being made.
+     *
+     * @param bookings the new bookings
+     */
+    public void setBookings(List<Booking> bookings) {
+        roomIndexes.clear();
+        bookingsByReference.clear();
+        guestIndex.clear();
+        archive.clear();
+        bookings.forEach(this::addBooking);
+    }
+
+    /**
+     * Returns the next reference for a booking of this hotel.
+     * References are unique even when bookings are made concurrently.
+     *
+     * @return the next reference
+     */
+    public int nextReference() {
+        return referenceCount.getAndIncrement();
+    }
+
+    /**
+     * Registers a listener notified of every booking added to or removed from the hotel.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(BookingListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to unregister
+     */
+    public void removeListener(BookingListener listener) {
+        listeners.remove(listener);
+    }
 
     /**
      * Checks if a room with the given room number exists in the hotel.
@@ -30,38 +214,325 @@ public class Hotel {
      * @return true if the room exists, false otherwise
      */
     public boolean checkRoomExists(int roomNumber) {
-        return rooms.stream()
-                .anyMatch(r -> r.getRoomNumber() == roomNumber);
+        return roomRegistry.contains(roomNumber);
+    }
+
+    /**
+     * Retrieves the rooms of a given capacity.
+     *
+     * @param capacity the capacity of the rooms
+     * @return an unmodifiable list of the rooms, in the order of the hotel's rooms
+     */
+    public List<Room> getRoomsWithCapacity(int capacity) {
+        return roomRegistry.getRooms(capacity);
+    }
+
+    /**
+     * Retrieves the rooms of at least a given capacity, by ascending capacity then ascending price.
+     *
+     * @param minCapacity the minimum capacity of the rooms
+     * @return an unmodifiable list of the rooms, the best fitting first
+     */
+    public List<Room> getRoomsByFit(int minCapacity) {
+        return roomRegistry.getRoomsByFit(minCapacity);
+    }
+
+    /**
+     * Retrieves a booking by its reference.
+     *
+     * @param reference the reference of the booking
+     * @return the booking, or an empty optional if no booking has this reference
+     */
+    public Optional<Booking> getBookingByReference(int reference) {
+        return Optional.ofNullable(bookingsByReference.get(reference));
+    }
+
+    /**
+     * Finds the booking of a guest in a room that includes a date, its check-in and check-out dates included.
+     *
+     * @param roomNumber the room number
+     * @param fullName   the exact full name of the guest
+     * @param date       the date
+     * @return the booking, or an empty optional if the guest has no booking of the room on that date
+     */
+    public Optional<Booking> findBooking(int roomNumber, String fullName, LocalDate date) {
+        RoomBookingIndex index = roomIndexes.get(roomNumber);
+        return index != null ? Optional.ofNullable(index.find(fullName, date)) : Optional.empty();
+    }
+
+    /**
+     * Retrieves the bookings of a guest, whatever their room.
+     * Guest names are compared ignoring case and extra spaces.
+     *
+     * @param fullName the full name of the guest
+     * @return a list of the guest's bookings, sorted by check-in date
+     */
+    public List<Booking> getBookingsForGuest(String fullName) {
+        return guestIndex.getBookings(fullName);
+    }
+
+    /**
+     * Returns the number of guests having a booking in the hotel.
+     *
+     * @return the number of guests
+     */
+    public int getGuestCount() {
+        return guestIndex.size();
+    }
+
+    /**
+     * Returns the number of bookings of the hotel.
+     *
+     * @return the number of bookings
+     */
+    public int getBookingCount() {
+        return bookingsByReference.size();
     }
 
     /**
      * Retrieves all bookings for a specific room.
      *
      * @param roomNumber the room number to get bookings for
-     * @return a list of bookings for the room
+     * @return a list of bookings for the room, sorted by check-in date
      */
     public List<Booking> getBookingsForRoom(int roomNumber) {
-        return bookings.stream()
-                .filter(b -> b.getRoomNumber() == roomNumber)
-                .toList();
+        RoomBookingIndex index = roomIndexes.get(roomNumber);
+        return index != null ? index.getBookings() : new ArrayList<>();
     }
 
     /**
-     * Adds a booking to the hotel.
+     * Adds a booking to the hotel without checking the availability of the room.
      *
      * @param booking the booking to add
+     * @throws IllegalArgumentException if its stay is not supported, see {@link RoomBookingIndex#isSupported}
      */
     public void addBooking(Booking booking) {
-        bookings.add(booking);
+        RoomBookingIndex index = roomIndex(booking.getRoomNumber());
+        index.lock();
+        try {
+            index.add(booking);
+            bookingAdded(index, booking);
+        } finally {
+            index.unlock();
+        }
+    }
+
+    /**
+     * Adds a booking to the hotel if the room is available for its dates.
+     * The availability check and the insert are atomic for the room.
+     *
+     * @param booking the booking to add
+     * @return true if the booking was added, false if the room is not available or does not exist
+     */
+    public boolean addBookingIfAvailable(Booking booking) {
+        RoomBookingIndex index = roomIndex(booking.getRoomNumber());
+        index.lock();
+        try {
+            // a room retired meanwhile is not available
+            if (!roomRegistry.contains(booking.getRoomNumber()) || !index.addIfAvailable(booking)) {
+                return false;
+            }
+            bookingAdded(index, booking);
+            return true;
+        } finally {
+            index.unlock();
+        }
+    }
+
+    /**
+     * Adds several bookings to the hotel if their rooms are available for their dates, or none of them.
+     * The rooms of the bookings are locked in ascending order while they are checked and booked,
+     * so the bookings are atomic with respect to every other booking. The bookings must not overlap each other.
+     * The listeners are notified of the bookings together, so e.g. a write-ahead log syncs them once.
+     *
+     * @param bookings the bookings to add
+     * @return true if all the bookings were added, false if a room is not available or does not exist
+     */
+    public boolean addBookingsIfAvailable(List<Booking> bookings) {
+        List<RoomBookingIndex> indexes = lockRooms(bookings.stream().map(Booking::getRoomNumber).toList());
+        try {
+            RoomRegistry registry = roomRegistry;
+            for (Booking booking : bookings) {
+                if (!registry.contains(booking.getRoomNumber()) || !roomIndex(booking.getRoomNumber()).isAvailable(booking.getCheckInDate(), booking.getCheckOutDate())) {
+                    return false;
+                }
+            }
+            for (Booking booking : bookings) {
+                roomIndex(booking.getRoomNumber()).add(booking);
+                index(booking);
+            }
+            bookingsAdded(bookings);
+            return true;
+        } finally {
+            unlockRooms(indexes);
+        }
+    }
+
+    /**
+     * Adds each of several bookings to the hotel if its room is available for its dates, including for the bookings
+     * added before it, e.g. when importing them. The rooms of the bookings are locked in ascending order
+     * while they are checked and booked, and the listeners are notified of the bookings added together.
+     *
+     * @param bookings the bookings to add
+     * @return the bookings not added, because their room is not available or does not exist
+     */
+    public List<Booking> addAvailableBookings(List<Booking> bookings) {
+        List<RoomBookingIndex> indexes = lockRooms(bookings.stream().map(Booking::getRoomNumber).toList());
+        try {
+            RoomRegistry registry = roomRegistry;
+            List<Booking> added = new ArrayList<>(bookings.size());
+            List<Booking> rejected = new ArrayList<>();
+            for (Booking booking : bookings) {
+                if (registry.contains(booking.getRoomNumber()) && roomIndex(booking.getRoomNumber()).addIfAvailable(booking)) {
+                    index(booking);
+                    added.add(booking);
+                } else {
+                    rejected.add(booking);
+                }
+            }
+            if (!added.isEmpty()) {
+                bookingsAdded(added);
+            }
+            return rejected;
+        } finally {
+            unlockRooms(indexes);
+        }
+    }
+
+    /**
+     * Runs an action while some rooms are locked, in ascending order as when several bookings are added,
+     * so no booking of these rooms is added or removed meanwhile.
+     *
+     * @param roomNumbers the numbers of the rooms
+     * @param action      the action, which may book the rooms
+     * @param <T>         the type of the result
+     * @return the result of the action
+     */
+    public <T> T whileRoomsLocked(List<Integer> roomNumbers, Supplier<T> action) {
+        List<RoomBookingIndex> indexes = lockRooms(roomNumbers);
+        try {
+            return action.get();
+        } finally {
+            unlockRooms(indexes);
+        }
     }
 
     /**
      * Removes a booking from the hotel.
      *
      * @param booking the booking to remove
+     * @return true if the booking was removed, false if it was not in the hotel
+     */
+    public boolean removeBooking(Booking booking) {
+        return removeBooking(booking, removed -> {
+        });
+    }
+
+    /**
+     * Removes a booking from the hotel, then passes it to a consumer while its room is still locked,
+     * so the consumer can book the freed nights before any other booking of the room.
+     *
+     * @param booking   the booking to remove
+     * @param onRemoved the consumer of the booking once removed and notified
+     * @return true if the booking was removed, false if it was not in the hotel
      */
-    public void removeBooking(Booking booking) {
-        bookings.remove(booking);
+    public boolean removeBooking(Booking booking, Consumer<Booking> onRemoved) {
+        RoomBookingIndex index = roomIndexes.get(booking.getRoomNumber());
+        if (index == null) {
+            return false;
+        }
+        index.lock();
+        try {
+            if (!index.remove(booking)) {
+                return false;
+            }
+            unindex(booking);
+            try {
+                notifyListeners(listener -> listener.bookingRemoved(booking), listener -> listener.bookingAdded(booking));
+            } catch (RuntimeException e) {
+                index.add(booking);
+                index(booking);
+                throw e;
+            }
+            onRemoved.accept(booking);
+            return true;
+        } finally {
+            index.unlock();
+        }
+    }
+
+    /**
+     * Moves the bookings whose check-out date is before the given date to the archive.
+     * The bookings of a room are added to the archive first, then the room is locked only while they leave its index,
+     * so a search always finds them in one of them and the archive is never waited for while a room is locked.
+     * Listeners are not notified: an archived booking has not been cancelled.
+     *
+     * @param date the date, usually today
+     * @return the number of bookings archived
+     */
+    public int archiveBookings(LocalDate date) {
+        int archived = 0;
+        for (RoomBookingIndex index : roomIndexes.values()) {
+            List<Booking> candidates = new ArrayList<>();
+            for (Booking booking : index.getBookings()) {
+                if (booking.getCheckOutDate().isBefore(date)) {
+                    candidates.add(booking);
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            candidates.forEach(archive::add);
+            List<Booking> removed;
+            index.lock();
+            try {
+                removed = index.removeCheckedOutBefore(date);
+                removed.forEach(this::unindex);
+            } finally {
+                index.unlock();
+            }
+            // a candidate cancelled meanwhile leaves the archive, a booking added meanwhile joins it
+            Set<Booking> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            removedSet.addAll(removed);
+            for (Booking booking : candidates) {
+                if (!removedSet.remove(booking)) {
+                    archive.remove(booking.getReference());
+                }
+            }
+            removedSet.forEach(archive::add);
+            archived += removed.size();
+        }
+        return archived;
+    }
+
+    /**
+     * Retrieves the archived bookings of a guest in a room that include the given date.
+     *
+     * @param roomNumber the room number
+     * @param fullName   the exact full name of the guest
+     * @param date       the date
+     * @return the archived bookings, in the order they were archived
+     */
+    public List<Booking> getArchivedBookings(int roomNumber, String fullName, LocalDate date) {
+        return archive.find(roomNumber, fullName, date);
+    }
+
+    /**
+     * Passes every archived booking to a consumer, in the order they were archived.
+     *
+     * @param consumer the consumer of the bookings
+     */
+    public void forEachArchivedBooking(Consumer<Booking> consumer) {
+        archive.forEach(consumer);
+    }
+
+    /**
+     * Returns the number of archived bookings.
+     *
+     * @return the number of bookings
+     */
+    public int getArchivedBookingCount() {
+        return archive.size();
     }
 
     /**
@@ -73,14 +544,110 @@ public class Hotel {
      * @return true if the room is available, false otherwise
      */
     public boolean checkRoomAvailability(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
-        //get all bookings for this room
-        List<Booking> bookingsForRoom = getBookingsForRoom(roomNumber);
-
-        //check if room is available
-        return bookingsForRoom.stream()
-                .filter(booking -> ((checkInDate.isBefore(booking.getCheckInDate()) || checkInDate.isEqual(booking.getCheckInDate())) && checkOutDate.isAfter(booking.getCheckInDate()))
-                        || ((checkInDate.isBefore(booking.getCheckOutDate())) && (checkOutDate.isAfter(booking.getCheckOutDate()) || checkOutDate.isEqual(booking.getCheckOutDate())))
-                        || ((checkInDate.isAfter(booking.getCheckInDate()) || checkInDate.isEqual(booking.getCheckInDate())) && (checkOutDate.isBefore(booking.getCheckOutDate()) || checkOutDate.isEqual(booking.getCheckOutDate()))))
-                .findFirst().isEmpty();
+        RoomBookingIndex index = roomIndexes.get(roomNumber);
+        return index == null || index.isAvailable(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Retrieves the occupied nights of a room over a range of dates, without scanning its bookings.
+     *
+     * @param roomNumber the room number
+     * @param from       the first night
+     * @param to         the day after the last night
+     * @return the occupied nights, bit i is set if the night i days after the first one is occupied
+     */
+    public BitSet getOccupiedNights(int roomNumber, LocalDate from, LocalDate to) {
+        RoomBookingIndex index = roomIndexes.get(roomNumber);
+        return index != null ? index.getOccupiedNights(from, (int) (to.toEpochDay() - from.toEpochDay())) : new BitSet();
+    }
+
+    // the indexes of a concurrent map come in no particular order
+    private Collection<RoomBookingIndex> indexesByRoom() {
+        return new TreeMap<>(roomIndexes).values();
+    }
+
+    private List<RoomBookingIndex> lockRooms(List<Integer> roomNumbers) {
+        List<RoomBookingIndex> indexes = roomNumbers.stream()
+                .distinct()
+                .sorted()
+                .map(this::roomIndex)
+                .toList();
+        indexes.forEach(RoomBookingIndex::lock);
+        return indexes;
+    }
+
+    private static void unlockRooms(List<RoomBookingIndex> indexes) {
+        for (int i = indexes.size() - 1; i >= 0; i--) {
+            indexes.get(i).unlock();
+        }
+    }
+
+    private RoomBookingIndex roomIndex(int roomNumber) {
+        return roomIndexes.computeIfAbsent(roomNumber, r -> new RoomBookingIndex());
+    }
+
+    private void bookingAdded(RoomBookingIndex index, Booking booking) {
+        index(booking);
+        try {
+            notifyListeners(listener -> listener.bookingAdded(booking), listener -> listener.bookingRemoved(booking));
+        } catch (RuntimeException e) {
+            index.remove(booking);
+            unindex(booking);
+            throw e;
+        }
+        referenceCount.accumulateAndGet(booking.getReference() + 1, Math::max);
+    }
+
+    // called with the rooms of the bookings locked, once they are indexed
+    private void bookingsAdded(List<Booking> bookings) {
+        try {
+            notifyListeners(listener -> listener.bookingsAdded(bookings), listener -> {
+                for (int i = bookings.size() - 1; i >= 0; i--) {
+                    listener.bookingRemoved(bookings.get(i));
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Booking booking : bookings) {
+                roomIndex(booking.getRoomNumber()).remove(booking);
+                unindex(booking);
+            }
+            throw e;
+        }
+        for (Booking booking : bookings) {
+            referenceCount.accumulateAndGet(booking.getReference() + 1, Math::max);
+        }
+    }
+
+    // the listeners notified before one that fails are notified of the opposite change, so e.g. the log cancels it too
+    private void notifyListeners(Consumer<BookingListener> change, Consumer<BookingListener> opposite) {
+        BookingListener current = null;
+        try {
+            for (BookingListener listener : listeners) {
+                current = listener;
+                change.accept(listener);
+            }
+        } catch (RuntimeException e) {
+            for (BookingListener listener : listeners) {
+                if (listener == current) {
+                    break;
+                }
+                try {
+                    opposite.accept(listener);
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void index(Booking booking) {
+        bookingsByReference.put(booking.getReference(), booking);
+        guestIndex.add(booking);
+    }
+
+    private void unindex(Booking booking) {
+        bookingsByReference.remove(booking.getReference(), booking);
+        guestIndex.remove(booking);
     }
 }
@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * This exception is thrown when a functional error occurs in the application.
+ */
+public class HotelNotFoundException extends Exception {
+
+    public HotelNotFoundException() {
+        super("Hotel not found");
+    }
+}
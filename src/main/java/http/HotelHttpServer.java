@@ -0,0 +1,330 @@
+package http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import entities.Booking;
+import entities.Room;
+import exceptions.ParamNotValidException;
+import services.AvailabilityCalendar;
+import services.ManageHotel;
+import services.OperationResult;
+import services.OperationStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a hotel over HTTP with JSON responses, on the JDK's built-in server.
+ * <p>
+ * Parameters are passed in the query string, dates as {@code yyyy-MM-dd}:
+ * <ul>
+ *     <li>{@code GET /rooms} lists the rooms</li>
+ *     <li>{@code GET /rooms/suggest?capacity=&checkIn=&checkOut=[&offset=&limit=]} suggests available rooms,
+ *     with {@code &bestFit=true} the rooms of at least the capacity, the best fitting and cheapest first</li>
+ *     <li>{@code GET /rooms/calendar?from=&to=[&rooms=1,2]} gives the free nights of the rooms and the free rooms of each capacity per night</li>
+ *     <li>{@code GET /bookings} lists the bookings, {@code GET /bookings?name=[&date=]} the bookings of a guest</li>
+ *     <li>{@code GET /bookings/search?room=&name=&date=} searches for a booking</li>
+ *     <li>{@code POST /bookings?room=&checkIn=&checkOut=&name=} books a room</li>
+ *     <li>{@code DELETE /bookings/{reference}} cancels a booking</li>
+ *     <li>{@code GET /metrics} exports the metrics in the Prometheus text format</li>
+ * </ul>
+ * A functional error is answered with its status and {@code {"error": <exception>, "message": <message>}},
+ * an unexpected one with 500 and a generic message, so its details stay on the server.
+ * Bookings are searched, made and cancelled through the result-returning operations, so a rejection throws nothing.
+ * <p>
+ * Each request runs on a virtual thread when the JVM has them, otherwise on a fixed pool of threads.
+ * The headers and the body of a response are written separately: run the JVM with
+ * {@code -Dsun.net.httpserver.nodelay=true}, as {@code Main} does, or each body waits for a delayed ACK, ~40ms.
+ */
+public class HotelHttpServer implements AutoCloseable {
+
+    private static final String JSON = "application/json";
+    private static final int RESPONSE_CAPACITY = 256;
+
+    private final ManageHotel manageHotel;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private HotelHttpServer(ManageHotel manageHotel, HttpServer server, ExecutorService executor) {
+        this.manageHotel = manageHotel;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving a hotel.
+     *
+     * @param address     the address to listen to, port 0 picks a free port
+     * @param manageHotel the manager of the hotel
+     * @return the started server
+     * @throws IOException if the address cannot be bound
+     */
+    public static HotelHttpServer start(InetSocketAddress address, ManageHotel manageHotel) throws IOException {
+        // the backlog holds the connections of a burst of clients until they are accepted
+        HttpServer server = HttpServer.create(address, 4096);
+        ExecutorService executor = newExecutor();
+        HotelHttpServer hotelServer = new HotelHttpServer(manageHotel, server, executor);
+        server.createContext("/", hotelServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return hotelServer;
+    }
+
+    /**
+     * Returns the port the server listens to.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, letting the requests being handled finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // the handlers hold locks for microseconds, a few threads per core are enough
+            return Executors.newFixedThreadPool(Math.max(16, 4 * Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                route(exchange, method, path, query);
+            } catch (ParamNotValidException e) {
+                sendError(exchange, 400, e);
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "InternalError", "The request could not be handled");
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String path, Map<String, String> query) throws IOException, ParamNotValidException {
+        switch (method + " " + path) {
+            case "GET /rooms" -> sendRooms(exchange, manageHotel.getHotel().getRooms());
+            case "GET /rooms/suggest" -> {
+                int limit = query.containsKey("limit") ? intParam(query, "limit") : Integer.MAX_VALUE;
+                if (Boolean.parseBoolean(query.get("bestFit"))) {
+                    sendRooms(exchange, manageHotel.suggestBestFit(intParam(query, "capacity"), dateParam(query, "checkIn"), dateParam(query, "checkOut"), limit));
+                } else {
+                    sendRooms(exchange, manageHotel.suggestRoom(intParam(query, "capacity"), dateParam(query, "checkIn"), dateParam(query, "checkOut"),
+                            query.containsKey("offset") ? intParam(query, "offset") : 0, limit));
+                }
+            }
+            case "GET /rooms/calendar" -> sendCalendar(exchange, manageHotel.tryGetAvailabilityCalendar(
+                    query.containsKey("rooms") ? intListParam(query, "rooms") : null, dateParam(query, "from"), dateParam(query, "to")));
+            case "GET /bookings" -> {
+                if (!query.containsKey("name")) {
+                    sendBookings(exchange, manageHotel.getHotel().getBookings());
+                } else if (!query.containsKey("date")) {
+                    sendBookings(exchange, manageHotel.searchBookings(query.get("name")));
+                } else {
+                    sendBookings(exchange, manageHotel.searchBookings(query.get("name"), dateParam(query, "date")));
+                }
+            }
+            case "GET /bookings/search" -> sendBooking(exchange, 200, manageHotel.trySearchBooking(intParam(query, "room"), query.get("name"), dateParam(query, "date")));
+            case "POST /bookings" -> sendBooking(exchange, 201, manageHotel.tryBookRoom(intParam(query, "room"), dateParam(query, "checkIn"), dateParam(query, "checkOut"), query.get("name")));
+            case "GET /metrics" -> {
+                byte[] body = manageHotel.getMetrics().snapshot().toPrometheus().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            default -> {
+                if (method.equals("DELETE") && path.startsWith("/bookings/")) {
+                    OperationResult<Booking> result = manageHotel.tryCancelBooking(parseInt(path.substring("/bookings/".length())));
+                    if (result.isSuccess()) {
+                        exchange.sendResponseHeaders(204, -1);
+                    } else {
+                        sendError(exchange, result.getStatus());
+                    }
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            }
+        }
+    }
+
+    private static void sendRooms(HttpExchange exchange, List<Room> rooms) throws IOException {
+        JsonWriter json = new JsonWriter(RESPONSE_CAPACITY + 48 * rooms.size());
+        json.beginArray();
+        for (Room room : rooms) {
+            json.beginObject()
+                    .name("roomNumber").value(room.getRoomNumber())
+                    .name("capacity").value(room.getCapacity())
+                    .name("price").value(room.getPrice())
+                    .endObject();
+        }
+        json.endArray();
+        send(exchange, 200, json);
+    }
+
+    private static void sendBookings(HttpExchange exchange, List<Booking> bookings) throws IOException {
+        JsonWriter json = new JsonWriter(RESPONSE_CAPACITY + 128 * bookings.size());
+        json.beginArray();
+        for (Booking booking : bookings) {
+            writeBooking(json, booking);
+        }
+        json.endArray();
+        send(exchange, 200, json);
+    }
+
+    private static void writeBooking(JsonWriter json, Booking booking) {
+        json.beginObject()
+                .name("reference").value(booking.getReference())
+                .name("roomNumber").value(booking.getRoomNumber())
+                .name("fullName").value(booking.getFullName())
+                .name("checkInDate").value(booking.getCheckInDate())
+                .name("checkOutDate").value(booking.getCheckOutDate())
+                .endObject();
+    }
+
+    private static void sendBooking(HttpExchange exchange, int status, OperationResult<Booking> result) throws IOException {
+        if (!result.isSuccess()) {
+            sendError(exchange, result.getStatus());
+            return;
+        }
+        JsonWriter json = new JsonWriter(RESPONSE_CAPACITY);
+        writeBooking(json, result.getValue());
+        send(exchange, status, json);
+    }
+
+    private static void sendCalendar(HttpExchange exchange, OperationResult<AvailabilityCalendar> result) throws IOException {
+        if (!result.isSuccess()) {
+            sendError(exchange, result.getStatus());
+            return;
+        }
+        AvailabilityCalendar calendar = result.getValue();
+        int nights = calendar.getNights();
+        JsonWriter json = new JsonWriter(RESPONSE_CAPACITY + (64 + 6 * nights) * calendar.getRooms().size());
+        json.beginObject()
+                .name("from").value(calendar.getFrom())
+                .name("to").value(calendar.getTo())
+                .name("rooms").beginArray();
+        for (Room room : calendar.getRooms()) {
+            BitSet busyNights = calendar.getBusyNights(room.getRoomNumber());
+            json.beginObject()
+                    .name("roomNumber").value(room.getRoomNumber())
+                    .name("free").beginArray();
+            for (int night = 0; night < nights; night++) {
+                json.value(!busyNights.get(night));
+            }
+            json.endArray().endObject();
+        }
+        json.endArray().name("capacities").beginArray();
+        for (int capacity : calendar.getCapacities()) {
+            json.beginObject()
+                    .name("capacity").value(capacity)
+                    .name("freeRooms").beginArray();
+            for (int freeRooms : calendar.getFreeRooms(capacity)) {
+                json.value(freeRooms);
+            }
+            json.endArray().endObject();
+        }
+        json.endArray().endObject();
+        send(exchange, 200, json);
+    }
+
+    private static void sendError(HttpExchange exchange, OperationStatus status) throws IOException {
+        int code = switch (status) {
+            case PARAM_NOT_VALID, BOOKING_NOT_VALID -> 400;
+            case ROOM_NOT_FOUND, BOOKING_NOT_FOUND -> 404;
+            case ROOM_NOT_AVAILABLE -> 409;
+            case SUCCESS -> throw new IllegalArgumentException("A success is not an error");
+        };
+        sendError(exchange, code, status.getOutcome(), status.getMessage());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, Exception e) throws IOException {
+        sendError(exchange, status, e.getClass().getSimpleName(), e.getMessage());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String error, String message) throws IOException {
+        JsonWriter json = new JsonWriter(RESPONSE_CAPACITY);
+        json.beginObject()
+                .name("error").value(error)
+                .name("message").value(message)
+                .endObject();
+        send(exchange, status, json);
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, json.size());
+        try (OutputStream body = exchange.getResponseBody()) {
+            json.writeTo(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static int intParam(Map<String, String> query, String name) throws ParamNotValidException {
+        return parseInt(query.get(name));
+    }
+
+    private static List<Integer> intListParam(Map<String, String> query, String name) throws ParamNotValidException {
+        List<Integer> values = new ArrayList<>();
+        for (String value : query.get(name).split(",")) {
+            values.add(parseInt(value.trim()));
+        }
+        return values;
+    }
+
+    private static int parseInt(String value) throws ParamNotValidException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ParamNotValidException();
+        }
+    }
+
+    private static LocalDate dateParam(Map<String, String> query, String name) throws ParamNotValidException {
+        String value = query.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ParamNotValidException();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Writes JSON as UTF-8 bytes into a growable buffer.
+ * <p>
+ * Numbers, dates and strings are encoded straight into the buffer, without intermediate strings,
+ * so writing a response allocates nothing but the buffer when it grows.
+ * Commas are inserted automatically; objects and arrays can be nested up to 64 levels.
+ */
+public final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private byte[] buffer;
+    private int size;
+    // one bit per nesting level, set once the level holds a value
+    private long nonEmpty;
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a writer with a buffer of the given capacity.
+     *
+     * @param capacity the initial capacity of the buffer, in bytes
+     */
+    public JsonWriter(int capacity) {
+        buffer = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Starts an object.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the name, written as is, so it must not need escaping
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        separate();
+        ensure(name.length() + 3);
+        buffer[size++] = '"';
+        for (int i = 0; i < name.length(); i++) {
+            buffer[size++] = (byte) name.charAt(i);
+        }
+        buffer[size++] = '"';
+        buffer[size++] = ':';
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        ensure(value.length() + 2);
+        buffer[size++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensure(1);
+                buffer[size++] = (byte) c;
+            } else {
+                writeEscaped(value, i);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+        ensure(1);
+        buffer[size++] = '"';
+        return this;
+    }
+
+    /**
+     * Writes an integer value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(long value) {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes a decimal value, integral values are written without decimals.
+     *
+     * @param value the value, null if it is not finite
+     * @return this writer
+     */
+    public JsonWriter value(double value) {
+        if (!Double.isFinite(value)) {
+            return nullValue();
+        }
+        if (value == (long) value) {
+            return value((long) value);
+        }
+        separate();
+        String text = Double.toString(value);
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(boolean value) {
+        separate();
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes a date as an ISO string, e.g. {@code "2024-01-31"}, or null.
+     *
+     * @param date the date
+     * @return this writer
+     */
+    public JsonWriter value(LocalDate date) {
+        if (date == null || date.getYear() < 0 || date.getYear() > 9999) {
+            return date == null ? nullValue() : value(date.toString());
+        }
+        separate();
+        ensure(12);
+        buffer[size++] = '"';
+        writeDigits(date.getYear(), 4);
+        buffer[size++] = '-';
+        writeDigits(date.getMonthValue(), 2);
+        buffer[size++] = '-';
+        writeDigits(date.getDayOfMonth(), 2);
+        buffer[size++] = '"';
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     *
+     * @return this writer
+     */
+    public JsonWriter nullValue() {
+        separate();
+        write(NULL);
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return the number of bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the bytes written to a stream.
+     *
+     * @param output the stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        output.write(buffer, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private JsonWriter open(char bracket) {
+        separate();
+        if (depth == Long.SIZE - 1) {
+            throw new IllegalStateException("JSON nested too deeply");
+        }
+        ensure(1);
+        buffer[size++] = (byte) bracket;
+        depth++;
+        nonEmpty &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No JSON object or array to end");
+        }
+        depth--;
+        ensure(1);
+        buffer[size++] = (byte) bracket;
+        return this;
+    }
+
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((nonEmpty & bit) != 0) {
+            ensure(1);
+            buffer[size++] = ',';
+        }
+        nonEmpty |= bit;
+    }
+
+    private void writeEscaped(String value, int index) {
+        char c = value.charAt(index);
+        ensure(6);
+        switch (c) {
+            case '"' -> writeAscii('\\', '"');
+            case '\\' -> writeAscii('\\', '\\');
+            case '\n' -> writeAscii('\\', 'n');
+            case '\r' -> writeAscii('\\', 'r');
+            case '\t' -> writeAscii('\\', 't');
+            default -> {
+                if (c < 0x20) {
+                    buffer[size++] = '\\';
+                    buffer[size++] = 'u';
+                    buffer[size++] = '0';
+                    buffer[size++] = '0';
+                    buffer[size++] = HEX[c >> 4];
+                    buffer[size++] = HEX[c & 0xF];
+                } else if (c < 0x800) {
+                    buffer[size++] = (byte) (0xC0 | c >> 6);
+                    buffer[size++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+                    buffer[size++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // a lone surrogate cannot be encoded, as String.getBytes does
+                    buffer[size++] = '?';
+                } else {
+                    buffer[size++] = (byte) (0xE0 | c >> 12);
+                    buffer[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+    }
+
+    private void writeAscii(char first, char second) {
+        buffer[size++] = (byte) first;
+        buffer[size++] = (byte) second;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void writeDigits(int value, int digits) {
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensure(int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + length, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package indexes;
+
+import entities.Booking;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the bookings of a hotel grouped by guest.
+ * Guest names are normalized, so "John  Doe" and "john doe" are the same guest.
+ */
+public class GuestIndex {
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Map<String, Set<Booking>> bookingsByGuest = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a booking to the index.
+     *
+     * @param booking the booking to add
+     */
+    public void add(Booking booking) {
+        bookingsByGuest.compute(normalize(booking.getFullName()), (guest, bookings) -> {
+            Set<Booking> guestBookings = bookings != null ? bookings : ConcurrentHashMap.newKeySet();
+            guestBookings.add(booking);
+            return guestBookings;
+        });
+    }
+
+    /**
+     * Removes a booking from the index.
+     *
+     * @param booking the booking to remove
+     */
+    public void remove(Booking booking) {
+        bookingsByGuest.computeIfPresent(normalize(booking.getFullName()), (guest, bookings) -> {
+            bookings.remove(booking);
+            return bookings.isEmpty() ? null : bookings;
+        });
+    }
+
+    /**
+     * Retrieves the bookings of a guest.
+     *
+     * @param fullName the full name of the guest
+     * @return a list of the guest's bookings, sorted by check-in date
+     */
+    public List<Booking> getBookings(String fullName) {
+        Set<Booking> bookings = bookingsByGuest.get(normalize(fullName));
+        if (bookings == null) {
+            return List.of();
+        }
+        return bookings.stream()
+                .sorted(Comparator.comparing(Booking::getCheckInDate))
+                .toList();
+    }
+
+    /**
+     * Returns the number of guests in the index.
+     *
+     * @return the number of guests
+     */
+    public int size() {
+        return bookingsByGuest.size();
+    }
+
+    /**
+     * Removes every booking from the index.
+     */
+    public void clear() {
+        bookingsByGuest.clear();
+    }
+
+    /**
+     * Normalizes a guest name: surrounding spaces are removed, inner spaces are collapsed and letters are lower-cased.
+     *
+     * @param fullName the full name of the guest
+     * @return the normalized name
+     */
+    public static String normalize(String fullName) {
+        return SPACES.matcher(fullName.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
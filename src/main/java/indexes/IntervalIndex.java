@@ -0,0 +1,85 @@
+package indexes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Represents values attached to ranges of days, found by the ranges they overlap.
+ * <p>
+ * Values are sorted by the first day of their range, and the length of the longest range is kept,
+ * so the ranges overlapping a query all start within that length before its end: only those are visited.
+ * Values of a same first day keep their insertion order. It is not thread-safe.
+ *
+ * @param <T> the type of the values
+ */
+public class IntervalIndex<T> {
+
+    private final NavigableMap<Long, List<Interval<T>>> intervalsByStart = new TreeMap<>();
+    private long maxLength;
+    private int size;
+
+    /**
+     * Adds a value for a range of days.
+     *
+     * @param start the first day of the range, as an epoch day
+     * @param end   the day after the range, as an epoch day
+     * @param value the value
+     */
+    public void add(long start, long end, T value) {
+        intervalsByStart.computeIfAbsent(start, s -> new ArrayList<>(1)).add(new Interval<>(start, end, value));
+        maxLength = Math.max(maxLength, end - start);
+        size++;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param start the first day of its range, as an epoch day
+     * @param value the value
+     * @return true if the value was removed, false if it was not in the index
+     */
+    public boolean remove(long start, T value) {
+        List<Interval<T>> intervals = intervalsByStart.get(start);
+        if (intervals == null || !intervals.removeIf(interval -> interval.value() == value)) {
+            return false;
+        }
+        if (intervals.isEmpty()) {
+            intervalsByStart.remove(start);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Retrieves the values whose range overlaps a range of days.
+     *
+     * @param from the first day of the range, as an epoch day
+     * @param to   the day after the range, as an epoch day
+     * @return the values, by first day of their range
+     */
+    public List<T> getOverlapping(long from, long to) {
+        List<T> values = new ArrayList<>();
+        for (List<Interval<T>> intervals : intervalsByStart.subMap(from - maxLength, false, to, false).values()) {
+            for (Interval<T> interval : intervals) {
+                if (interval.end() > from) {
+                    values.add(interval.value());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    private record Interval<T>(long start, long end, T value) {
+    }
+}
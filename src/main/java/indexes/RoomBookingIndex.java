@@ -0,0 +1,422 @@
+package indexes;
+
+import entities.Booking;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Represents the bookings of a single room, sorted by check-in date,
+ * along with the nights they occupy as a set of days from a first day of the room.
+ * The bookings of a room never overlap, so a stay is available if none of its nights is occupied.
+ * Only stays between {@link #FIRST_NIGHT} and {@link #LAST_CHECK_OUT} are supported, so the nights of a room take
+ * at most a few kilobytes: a room is never available outside of them.
+ * <p>
+ * Changes are guarded by a lock owned by the room, so rooms can be booked concurrently.
+ * Reads take no lock: they are optimistic reads of a {@link StampedLock}, which writers hold only while they
+ * change the arrays, not while they check availability or notify listeners. A read overlapping a change is
+ * detected and made again under the read lock. The arrays are read without a lock, so reading them never fails
+ * even when they are being changed: indexes are bounded and missing entries are skipped.
+ */
+public class RoomBookingIndex {
+
+    /**
+     * The first night a booking may include.
+     */
+    public static final LocalDate FIRST_NIGHT = LocalDate.of(1900, 1, 1);
+    /**
+     * The last check-out date a booking may have.
+     */
+    public static final LocalDate LAST_CHECK_OUT = LocalDate.of(2200, 1, 1);
+
+    private static final Booking[] NO_BOOKINGS = new Booking[0];
+    private static final long[] NO_NIGHTS = new long[0];
+    private static final long FIRST_DAY = FIRST_NIGHT.toEpochDay();
+    private static final long LAST_DAY = LAST_CHECK_OUT.toEpochDay();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final StampedLock changes = new StampedLock();
+    // the bookings sorted by check-in date, in the first size slots
+    private Booking[] bookings = NO_BOOKINGS;
+    private int size;
+    // the occupied nights, bit d of word d / 64 is set if the night d days after the first day is occupied
+    private long[] occupiedNights = NO_NIGHTS;
+    // the epoch day of the first bit, a multiple of 64, lowered when an earlier night is occupied
+    private long firstDay;
+
+    /**
+     * Acquires the lock of the room, so several operations on the room can be made atomically.
+     * The operations of the index take the lock themselves, it is reentrant. Reads do not wait for it.
+     */
+    public void lock() {
+        lock.lock();
+    }
+
+    /**
+     * Releases the lock of the room.
+     */
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Checks if a stay is between the first night and the last check-out date supported.
+     *
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @return true if the stay can be indexed, false otherwise
+     */
+    public static boolean isSupported(LocalDate checkInDate, LocalDate checkOutDate) {
+        return checkInDate.toEpochDay() >= FIRST_DAY && checkOutDate.toEpochDay() <= LAST_DAY;
+    }
+
+    /**
+     * Adds a booking to the index without checking its availability.
+     *
+     * @param booking the booking to add
+     * @throws IllegalArgumentException if its stay is not supported
+     */
+    public void add(Booking booking) {
+        if (!isSupported(booking.getCheckInDate(), booking.getCheckOutDate())) {
+            throw new IllegalArgumentException("Stay not supported: " + booking);
+        }
+        lock.lock();
+        try {
+            long stamp = changes.writeLock();
+            try {
+                int position = upperBound(bookings, size, booking.getCheckInDate());
+                if (size == bookings.length) {
+                    bookings = Arrays.copyOf(bookings, Math.max(4, 2 * size));
+                }
+                System.arraycopy(bookings, position, bookings, position + 1, size - position);
+                bookings[position] = booking;
+                size++;
+                setNights(booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay(), true);
+            } finally {
+                changes.unlockWrite(stamp);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a booking to the index if no other booking overlaps its dates.
+     * The check and the insert are atomic for the room.
+     *
+     * @param booking the booking to add
+     * @return true if the booking was added, false if the room is not available or the stay is not supported
+     */
+    public boolean addIfAvailable(Booking booking) {
+        lock.lock();
+        try {
+            if (!isAvailable(booking.getCheckInDate(), booking.getCheckOutDate())) {
+                return false;
+            }
+            add(booking);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a booking from the index.
+     *
+     * @param booking the booking to remove
+     * @return true if the booking was indexed, false otherwise
+     */
+    public boolean remove(Booking booking) {
+        lock.lock();
+        try {
+            int position = upperBound(bookings, size, booking.getCheckInDate()) - 1;
+            while (position >= 0 && !bookings[position].equals(booking) && bookings[position].getCheckInDate().equals(booking.getCheckInDate())) {
+                position--;
+            }
+            if (position < 0 || !bookings[position].equals(booking)) {
+                return false;
+            }
+            long stamp = changes.writeLock();
+            try {
+                System.arraycopy(bookings, position + 1, bookings, position, size - position - 1);
+                bookings[--size] = null;
+                setNights(booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay(), false);
+            } finally {
+                changes.unlockWrite(stamp);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the bookings whose check-out date is before the given date.
+     * They can no longer overlap a new booking, since bookings cannot start in the past.
+     *
+     * @param date the date
+     * @return the removed bookings, sorted by check-in date
+     */
+    public List<Booking> removeCheckedOutBefore(LocalDate date) {
+        lock.lock();
+        try {
+            List<Booking> removed = new ArrayList<>();
+            long stamp = changes.writeLock();
+            try {
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    Booking booking = bookings[i];
+                    if (booking.getCheckOutDate().isBefore(date)) {
+                        setNights(booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay(), false);
+                        removed.add(booking);
+                    } else {
+                        bookings[kept++] = booking;
+                    }
+                }
+                Arrays.fill(bookings, kept, size, null);
+                size = kept;
+            } finally {
+                changes.unlockWrite(stamp);
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the room is free between the specified dates, without locking.
+     * A stay may start on the check-out date of another one.
+     *
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @return true if no booking overlaps the dates, false otherwise or if the stay is not supported
+     */
+    public boolean isAvailable(LocalDate checkInDate, LocalDate checkOutDate) {
+        if (!isSupported(checkInDate, checkOutDate)) {
+            return false;
+        }
+        long from = checkInDate.toEpochDay();
+        long to = checkOutDate.toEpochDay();
+        long stamp = changes.tryOptimisticRead();
+        boolean available = isFree(occupiedNights, firstDay, from, to);
+        if (!changes.validate(stamp)) {
+            stamp = changes.readLock();
+            try {
+                available = isFree(occupiedNights, firstDay, from, to);
+            } finally {
+                changes.unlockRead(stamp);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Returns the occupied nights of a range of consecutive nights, without locking.
+     * They are copied from the nights of the room 64 at a time, whatever the number of bookings.
+     *
+     * @param firstNight the first night
+     * @param nights     the number of nights
+     * @return the occupied nights, bit i is set if the night i nights after the first one is occupied
+     */
+    public BitSet getOccupiedNights(LocalDate firstNight, int nights) {
+        long from = firstNight.toEpochDay();
+        long stamp = changes.tryOptimisticRead();
+        long[] words = copyNights(occupiedNights, from - firstDay, nights);
+        if (!changes.validate(stamp)) {
+            stamp = changes.readLock();
+            try {
+                words = copyNights(occupiedNights, from - firstDay, nights);
+            } finally {
+                changes.unlockRead(stamp);
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Finds the booking of a guest that includes a date, its check-in and check-out dates included, without locking.
+     * At most two bookings of the room include a date, so it is found without scanning the room's bookings.
+     *
+     * @param fullName the exact full name of the guest
+     * @param date     the date
+     * @return the booking, the earliest one if there are two, or null if there is none
+     */
+    public Booking find(String fullName, LocalDate date) {
+        long stamp = changes.tryOptimisticRead();
+        Booking found = find(bookings, size, fullName, date);
+        if (!changes.validate(stamp)) {
+            stamp = changes.readLock();
+            try {
+                found = find(bookings, size, fullName, date);
+            } finally {
+                changes.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves the bookings of the room, sorted by check-in date, without locking.
+     *
+     * @return a list of bookings for the room
+     */
+    public List<Booking> getBookings() {
+        long stamp = changes.tryOptimisticRead();
+        Booking[] copy = copy(bookings, size);
+        if (!changes.validate(stamp)) {
+            stamp = changes.readLock();
+            try {
+                copy = copy(bookings, size);
+            } finally {
+                changes.unlockRead(stamp);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(copy));
+    }
+
+    /**
+     * Returns the number of bookings of the room.
+     *
+     * @return the number of bookings
+     */
+    public int size() {
+        long stamp = changes.tryOptimisticRead();
+        int count = size;
+        if (!changes.validate(stamp)) {
+            stamp = changes.readLock();
+            try {
+                count = size;
+            } finally {
+                changes.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    // the stay is supported, so the nights are at most a window of days after the first day
+    private void setNights(long from, long to, boolean occupied) {
+        if (from >= to) {
+            return;
+        }
+        if (occupied) {
+            cover(from, to);
+        }
+        int start = (int) Math.max(0, from - firstDay);
+        int end = (int) Math.min((long) occupiedNights.length << 6, to - firstDay);
+        if (start >= end) {
+            return;
+        }
+        int lastWord = (end - 1) >> 6;
+        for (int word = start >> 6; word <= lastWord; word++) {
+            long mask = mask(word, start, end, lastWord);
+            occupiedNights[word] = occupied ? occupiedNights[word] | mask : occupiedNights[word] & ~mask;
+        }
+    }
+
+    // grows the nights so they include the stay, moving the first day back if the stay starts before it
+    private void cover(long from, long to) {
+        long first = Math.floorDiv(from, 64) * 64;
+        if (occupiedNights.length == 0) {
+            firstDay = first;
+        } else if (first < firstDay) {
+            int shift = (int) ((firstDay - first) >> 6);
+            long[] words = new long[occupiedNights.length + shift];
+            System.arraycopy(occupiedNights, 0, words, shift, occupiedNights.length);
+            occupiedNights = words;
+            firstDay = first;
+        }
+        int lastWord = (int) ((to - 1 - firstDay) >> 6);
+        if (lastWord >= occupiedNights.length) {
+            int maxWords = (int) ((LAST_DAY - firstDay + 63) >> 6);
+            occupiedNights = Arrays.copyOf(occupiedNights, Math.max(lastWord + 1, Math.min(maxWords, 2 * occupiedNights.length)));
+        }
+    }
+
+    // the nights may be read while they change: the words read are bounded by the array read
+    private static boolean isFree(long[] occupiedNights, long firstDay, long from, long to) {
+        long start = Math.max(0, from - firstDay);
+        long end = Math.min((long) occupiedNights.length << 6, to - firstDay);
+        if (start >= end) {
+            return true;
+        }
+        int lastWord = (int) ((end - 1) >> 6);
+        for (int word = (int) (start >> 6); word <= lastWord; word++) {
+            if ((occupiedNights[word] & mask(word, (int) start, (int) end, lastWord)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // copies the nights from the given number of days after the first day, which may be outside of the nights
+    private static long[] copyNights(long[] occupiedNights, long from, int nights) {
+        long[] words = new long[(Math.max(0, nights) + 63) >> 6];
+        for (int i = 0; i < words.length; i++) {
+            long start = from + 64L * i;
+            long word = Math.floorDiv(start, 64);
+            int shift = Math.floorMod(start, 64);
+            long low = word >= 0 && word < occupiedNights.length ? occupiedNights[(int) word] >>> shift : 0;
+            long high = shift != 0 && word + 1 >= 0 && word + 1 < occupiedNights.length ? occupiedNights[(int) word + 1] << (64 - shift) : 0;
+            words[i] = low | high;
+        }
+        if ((nights & 63) != 0) {
+            words[words.length - 1] &= -1L >>> -nights;
+        }
+        return words;
+    }
+
+    private static long mask(int word, int from, int to, int lastWord) {
+        long mask = -1L;
+        if (word == from >> 6) {
+            mask &= -1L << from;
+        }
+        if (word == lastWord) {
+            mask &= -1L >>> -to;
+        }
+        return mask;
+    }
+
+    // the bookings may be read while they change: the size is bounded by the array read and null slots end the search
+    private static Booking find(Booking[] bookings, int size, String fullName, LocalDate date) {
+        Booking found = null;
+        for (int i = upperBound(bookings, size, date) - 1; i >= 0; i--) {
+            Booking booking = bookings[i];
+            if (booking == null || booking.getCheckOutDate().isBefore(date)) {
+                break;
+            }
+            if (booking.getFullName().equals(fullName)) {
+                found = booking;
+            }
+        }
+        return found;
+    }
+
+    // returns the number of bookings checking in on or before the date
+    private static int upperBound(Booking[] bookings, int size, LocalDate date) {
+        int low = 0;
+        int high = Math.min(size, bookings.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Booking booking = bookings[middle];
+            if (booking == null) {
+                return middle;
+            }
+            if (booking.getCheckInDate().isAfter(date)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static Booking[] copy(Booking[] bookings, int size) {
+        return Arrays.copyOf(bookings, Math.max(0, Math.min(size, bookings.length)));
+    }
+}
@@ -0,0 +1,209 @@
+package indexes;
+
+import entities.Room;
+import storage.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Represents the rooms of a hotel, by room number and by capacity.
+ * <p>
+ * A room is found by its number in O(1): in an array indexed by room number when the numbers are compact,
+ * as they usually are, otherwise in an {@link IntIntMap} of their positions. It is immutable: adding or retiring
+ * a room returns a new registry, so readers never wait for a change.
+ * <p>
+ * Rooms are also sorted by capacity then price, so the rooms best fitting a party are the first ones
+ * from its size on.
+ */
+public final class RoomRegistry {
+
+    private static final RoomRegistry EMPTY = new RoomRegistry(List.of());
+    // the numbers are compact if the array is at most this many times larger than the rooms
+    private static final int MAX_DENSE_FACTOR = 4;
+    private static final int MIN_DENSE_SPAN = 64;
+
+    private final List<Room> rooms;
+    private final int firstNumber;
+    private final Room[] roomsByNumber;
+    private final IntIntMap positions;
+    private final NavigableMap<Integer, List<Room>> roomsByCapacity = new TreeMap<>();
+    private final List<Room> roomsByFit;
+
+    private RoomRegistry(List<Room> rooms) {
+        this.rooms = Collections.unmodifiableList(rooms);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Room room : rooms) {
+            min = Math.min(min, room.getRoomNumber());
+            max = Math.max(max, room.getRoomNumber());
+        }
+        long span = rooms.isEmpty() ? 0 : (long) max - min + 1;
+        if (span <= Math.max(MIN_DENSE_SPAN, (long) MAX_DENSE_FACTOR * rooms.size())) {
+            firstNumber = rooms.isEmpty() ? 0 : min;
+            roomsByNumber = new Room[(int) span];
+            positions = null;
+        } else {
+            firstNumber = 0;
+            roomsByNumber = null;
+            positions = new IntIntMap(-1);
+        }
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            if (get(room.getRoomNumber()) != null) {
+                throw new IllegalArgumentException("Room " + room.getRoomNumber() + " is registered twice");
+            }
+            if (roomsByNumber != null) {
+                roomsByNumber[room.getRoomNumber() - firstNumber] = room;
+            } else {
+                positions.put(room.getRoomNumber(), i);
+            }
+            roomsByCapacity.computeIfAbsent(room.getCapacity(), capacity -> new ArrayList<>()).add(room);
+        }
+        roomsByCapacity.replaceAll((capacity, roomsOfCapacity) -> Collections.unmodifiableList(roomsOfCapacity));
+        List<Room> sorted = new ArrayList<>(rooms);
+        sorted.sort(Comparator.comparingInt(Room::getCapacity).thenComparingDouble(Room::getPrice));
+        roomsByFit = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns a registry without rooms.
+     *
+     * @return the empty registry
+     */
+    public static RoomRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the registry of the given rooms, keeping their order.
+     *
+     * @param rooms the rooms
+     * @return the registry
+     * @throws IllegalArgumentException if two rooms have the same number
+     */
+    public static RoomRegistry of(List<Room> rooms) {
+        return new RoomRegistry(new ArrayList<>(rooms));
+    }
+
+    /**
+     * Returns a registry with a room added after the others.
+     *
+     * @param room the room to add
+     * @return the new registry
+     * @throws IllegalArgumentException if a room has the same number
+     */
+    public RoomRegistry withRoom(Room room) {
+        List<Room> newRooms = new ArrayList<>(rooms.size() + 1);
+        newRooms.addAll(rooms);
+        newRooms.add(room);
+        return new RoomRegistry(newRooms);
+    }
+
+    /**
+     * Returns a registry without a room.
+     *
+     * @param roomNumber the number of the room to retire
+     * @return the new registry, or this registry if it has no room of this number
+     */
+    public RoomRegistry withoutRoom(int roomNumber) {
+        if (!contains(roomNumber)) {
+            return this;
+        }
+        List<Room> newRooms = new ArrayList<>(rooms.size() - 1);
+        for (Room room : rooms) {
+            if (room.getRoomNumber() != roomNumber) {
+                newRooms.add(room);
+            }
+        }
+        return new RoomRegistry(newRooms);
+    }
+
+    /**
+     * Retrieves a room by its number.
+     *
+     * @param roomNumber the room number
+     * @return the room, or null if there is none
+     */
+    public Room get(int roomNumber) {
+        if (roomsByNumber != null) {
+            int index = roomNumber - firstNumber;
+            return index >= 0 && index < roomsByNumber.length ? roomsByNumber[index] : null;
+        }
+        int position = positions.get(roomNumber);
+        return position >= 0 ? rooms.get(position) : null;
+    }
+
+    /**
+     * Checks if a room exists.
+     *
+     * @param roomNumber the room number
+     * @return true if the room exists
+     */
+    public boolean contains(int roomNumber) {
+        return get(roomNumber) != null;
+    }
+
+    /**
+     * Retrieves the rooms.
+     *
+     * @return an unmodifiable list of the rooms, in the order they were registered
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Retrieves the rooms of the given capacity.
+     *
+     * @param capacity the capacity of the rooms
+     * @return an unmodifiable list of the rooms, in the order they were registered, empty if there is none
+     */
+    public List<Room> getRooms(int capacity) {
+        return roomsByCapacity.getOrDefault(capacity, Collections.emptyList());
+    }
+
+    /**
+     * Retrieves the rooms of at least the given capacity, from the best fitting one:
+     * by ascending capacity, then ascending price, then in the order they were registered.
+     *
+     * @param minCapacity the minimum capacity of the rooms
+     * @return an unmodifiable list of the rooms, empty if there is none
+     */
+    public List<Room> getRoomsByFit(int minCapacity) {
+        int low = 0;
+        int high = roomsByFit.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (roomsByFit.get(middle).getCapacity() < minCapacity) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return roomsByFit.subList(low, roomsByFit.size());
+    }
+
+    /**
+     * Retrieves the rooms grouped by capacity, in ascending order of capacity.
+     *
+     * @return an unmodifiable view of the rooms by capacity
+     */
+    public Map<Integer, List<Room>> getRoomsByCapacity() {
+        return Collections.unmodifiableMap(roomsByCapacity);
+    }
+
+    /**
+     * Returns the number of rooms.
+     *
+     * @return the number of rooms
+     */
+    public int size() {
+        return rooms.size();
+    }
+}
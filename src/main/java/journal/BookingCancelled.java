@@ -0,0 +1,12 @@
+package journal;
+
+import entities.Booking;
+
+/**
+ * Represents a booking removed from a hotel.
+ *
+ * @param sequence the position of the event in the journal
+ * @param booking  the booking cancelled
+ */
+public record BookingCancelled(long sequence, Booking booking) implements BookingEvent {
+}
@@ -0,0 +1,12 @@
+package journal;
+
+import entities.Booking;
+
+/**
+ * Represents a booking added to a hotel.
+ *
+ * @param sequence the position of the event in the journal
+ * @param booking  the booking created
+ */
+public record BookingCreated(long sequence, Booking booking) implements BookingEvent {
+}
@@ -0,0 +1,23 @@
+package journal;
+
+import entities.Booking;
+
+/**
+ * Represents a change of the bookings of a hotel, as recorded in a {@link BookingJournal}.
+ */
+public sealed interface BookingEvent permits BookingCreated, BookingCancelled {
+
+    /**
+     * Returns the position of the event in the journal, from 0 and without gaps.
+     *
+     * @return the sequence number
+     */
+    long sequence();
+
+    /**
+     * Returns the booking created or cancelled.
+     *
+     * @return the booking
+     */
+    Booking booking();
+}
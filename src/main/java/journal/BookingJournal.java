@@ -0,0 +1,335 @@
+package journal;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Represents an append-only, in-memory journal of the bookings created and cancelled in a hotel.
+ * <p>
+ * Registered as a listener of a hotel, it appends an event for every booking added or removed. Appending is lock-free:
+ * a sequence number is claimed with an atomic increment and the event is stored in its slot of a segment of
+ * 4096 slots; segments are linked and created on demand. Appending never waits for subscribers: each one reads at
+ * its own pace on its own thread, in batches, and its lag is how far it is behind.
+ * <p>
+ * The journal keeps the latest events for replays, 16384 unless given: whenever a segment fills up, the segments
+ * older than that are dropped, unless a subscriber has not read them yet. A subscriber more than 262144 events behind,
+ * unless given, is disconnected instead, so a stalled one cannot hold the events forever. The segments are dropped
+ * in the background, not by the append that filled one up. The journal can also be truncated sooner,
+ * e.g. once a snapshot holds the bookings. Until it is truncated, the bookings of a hotel can be rebuilt by replaying it.
+ * <p>
+ * Listeners registered after the journal can still cancel a change it has recorded, so it should be registered last.
+ * Archiving bookings is not journaled: an archived booking has not been cancelled.
+ */
+public class BookingJournal implements BookingListener {
+
+    static final int SEGMENT_SIZE = 4096;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int REPLAY_BATCH_SIZE = 1024;
+    private static final long DEFAULT_RETAINED_EVENTS = 4L * SEGMENT_SIZE;
+    private static final long DEFAULT_MAX_LAG = 64L * SEGMENT_SIZE;
+
+    private final long retainedEvents;
+    private final long maxLag;
+    private final Executor reclaimer;
+    private final AtomicBoolean reclaimScheduled = new AtomicBoolean();
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile Segment head = new Segment(0);
+    // a recent segment, where appends start looking for their slot
+    private volatile Segment tail = head;
+
+    /**
+     * Creates a journal keeping the latest 16384 events for replays.
+     */
+    public BookingJournal() {
+        this(DEFAULT_RETAINED_EVENTS);
+    }
+
+    /**
+     * Creates a journal disconnecting the subscribers more than 262144 events behind.
+     *
+     * @param retainedEvents the number of latest events kept for replays, more are kept for slow subscribers,
+     *                       {@link Long#MAX_VALUE} to keep every event
+     * @throws IllegalArgumentException if the number of events is not positive
+     */
+    public BookingJournal(long retainedEvents) {
+        this(retainedEvents, DEFAULT_MAX_LAG);
+    }
+
+    /**
+     * Creates a journal.
+     *
+     * @param retainedEvents the number of latest events kept for replays, more are kept for slow subscribers,
+     *                       {@link Long#MAX_VALUE} to keep every event
+     * @param maxLag         the number of events a subscriber can be behind before it is disconnected,
+     *                       {@link Long#MAX_VALUE} to never disconnect one
+     * @throws IllegalArgumentException if a number of events is not positive
+     */
+    public BookingJournal(long retainedEvents, long maxLag) {
+        this(retainedEvents, maxLag, ForkJoinPool.commonPool());
+    }
+
+    BookingJournal(long retainedEvents, long maxLag, Executor reclaimer) {
+        if (retainedEvents <= 0) {
+            throw new IllegalArgumentException("The number of retained events must be positive");
+        }
+        if (maxLag <= 0) {
+            throw new IllegalArgumentException("The maximum lag must be positive");
+        }
+        this.retainedEvents = retainedEvents;
+        this.maxLag = maxLag;
+        this.reclaimer = reclaimer;
+    }
+
+    @Override
+    public void bookingAdded(Booking booking) {
+        // the tail is read before the sequence is claimed, so it never is past the segment of the sequence
+        Segment segment = tail;
+        long sequence = nextSequence.getAndIncrement();
+        publish(segment, new BookingCreated(sequence, booking));
+    }
+
+    @Override
+    public void bookingRemoved(Booking booking) {
+        Segment segment = tail;
+        long sequence = nextSequence.getAndIncrement();
+        publish(segment, new BookingCancelled(sequence, booking));
+    }
+
+    /**
+     * Returns the sequence number of the next event.
+     *
+     * @return the number of events appended since the journal was created
+     */
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Returns the sequence number of the first event kept.
+     *
+     * @return the first sequence number, 0 unless the journal has been truncated
+     */
+    public long getFirstSequence() {
+        return head.base;
+    }
+
+    /**
+     * Passes the events appended so far to a consumer, in order.
+     *
+     * @param fromSequence the sequence number of the first event
+     * @param consumer     the consumer of the events
+     * @return the sequence number following the last event passed
+     * @throws IllegalArgumentException if the events from the sequence number are not kept
+     * @throws IllegalStateException    if the events not passed yet were dropped during the replay
+     */
+    public long replay(long fromSequence, Consumer<BookingEvent> consumer) {
+        Cursor cursor = cursor(fromSequence);
+        List<BookingEvent> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+        while (cursor.poll(batch, REPLAY_BATCH_SIZE) > 0) {
+            batch.forEach(consumer);
+            batch.clear();
+        }
+        //check if the replay stopped at an event cleared by a truncation
+        if (cursor.position < getFirstSequence()) {
+            throw new IllegalStateException("The journal was truncated during the replay");
+        }
+        return cursor.position;
+    }
+
+    /**
+     * Builds a hotel with the bookings obtained by replaying the whole journal.
+     *
+     * @param rooms the rooms of the hotel
+     * @return the hotel
+     * @throws IllegalStateException if the journal has been truncated
+     */
+    public Hotel rebuild(List<Room> rooms) {
+        if (getFirstSequence() != 0) {
+            throw new IllegalStateException("The journal has been truncated");
+        }
+        Hotel hotel = Hotel.builder().rooms(rooms).build();
+        replay(0, event -> {
+            if (event instanceof BookingCreated) {
+                hotel.addBooking(event.booking());
+            } else {
+                hotel.removeBooking(event.booking());
+            }
+        });
+        return hotel;
+    }
+
+    /**
+     * Starts delivering the events appended from now on to a subscriber.
+     *
+     * @param subscriber the subscriber
+     * @return the subscription, to be closed when the subscriber is done
+     */
+    public Subscription subscribe(BookingSubscriber subscriber) {
+        return subscribe(subscriber, getNextSequence(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Starts delivering the events to a subscriber, on a thread of its own.
+     *
+     * @param subscriber   the subscriber
+     * @param fromSequence the sequence number of the first event
+     * @param batchSize    the maximum number of events per call
+     * @return the subscription, to be closed when the subscriber is done
+     * @throws IllegalArgumentException if the events from the sequence number are not kept
+     */
+    public synchronized Subscription subscribe(BookingSubscriber subscriber, long fromSequence, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        Subscription subscription = new Subscription(this, cursor(fromSequence), subscriber, batchSize);
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+
+    /**
+     * Drops the segments whose events all precede a sequence number and have been read by every subscriber.
+     * A replay still reading them fails.
+     *
+     * @param sequence the sequence number of the first event to keep
+     */
+    public synchronized void truncate(long sequence) {
+        long limit = Math.min(sequence, getNextSequence());
+        for (Subscription subscription : subscriptions) {
+            limit = Math.min(limit, subscription.getPosition());
+        }
+        Segment segment = head;
+        while (segment.base + SEGMENT_SIZE <= limit && segment.next.get() != null) {
+            Segment dropped = segment;
+            segment = segment.next.get();
+            head = segment;
+            // a dropped segment may already be in the old generation, its events would survive every young collection
+            for (int i = 0; i < SEGMENT_SIZE; i++) {
+                dropped.events.setPlain(i, null);
+            }
+        }
+    }
+
+    private void reclaim() {
+        reclaimScheduled.set(false);
+        long next = getNextSequence();
+        for (Subscription subscription : subscriptions) {
+            //check if the subscriber is too far behind to keep the events it has not read
+            if (next - subscription.getPosition() > maxLag) {
+                subscription.disconnect(new IllegalStateException("The subscriber fell more than " + maxLag + " events behind"));
+            }
+        }
+        truncate(next - retainedEvents);
+    }
+
+    synchronized void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    private void publish(Segment segment, BookingEvent event) {
+        long sequence = event.sequence();
+        while (sequence >= segment.base + SEGMENT_SIZE) {
+            Segment next = segment.next.get();
+            if (next == null) {
+                next = new Segment(segment.base + SEGMENT_SIZE);
+                if (segment.next.compareAndSet(null, next)) {
+                    // once per segment, by the append that created it, which does not wait for it
+                    if (reclaimScheduled.compareAndSet(false, true)) {
+                        reclaimer.execute(this::reclaim);
+                    }
+                } else {
+                    next = segment.next.get();
+                }
+            }
+            segment = next;
+        }
+        if (segment.base > tail.base) {
+            tail = segment;
+        }
+        // a volatile write, ordered before reading whether a subscriber is parked: no wake-up is missed
+        segment.events.set((int) (sequence & (SEGMENT_SIZE - 1)), event);
+        for (Subscription subscription : subscriptions) {
+            subscription.wake();
+        }
+    }
+
+    private Cursor cursor(long fromSequence) {
+        Segment segment = head;
+        if (fromSequence < segment.base || fromSequence > getNextSequence()) {
+            throw new IllegalArgumentException("The events from " + fromSequence + " are not in the journal");
+        }
+        while (fromSequence >= segment.base + SEGMENT_SIZE && segment.next.get() != null) {
+            segment = segment.next.get();
+        }
+        return new Cursor(segment, fromSequence);
+    }
+
+    /**
+     * Represents a block of consecutive slots of the journal.
+     * A slot is null until the event claiming it has been stored.
+     */
+    static final class Segment {
+
+        private final long base;
+        private final AtomicReferenceArray<BookingEvent> events = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        private final AtomicReference<Segment> next = new AtomicReference<>();
+
+        private Segment(long base) {
+            this.base = base;
+        }
+    }
+
+    /**
+     * Represents a position in the journal, read by one thread.
+     */
+    static final class Cursor {
+
+        private Segment segment;
+        long position;
+
+        private Cursor(Segment segment, long position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        /**
+         * Adds the next events to a batch, stopping at the first event not stored yet.
+         *
+         * @param batch the batch
+         * @param max   the maximum size of the batch
+         * @return the size of the batch
+         */
+        int poll(List<BookingEvent> batch, int max) {
+            while (batch.size() < max) {
+                while (position >= segment.base + SEGMENT_SIZE && segment.next.get() != null) {
+                    segment = segment.next.get();
+                }
+                if (position >= segment.base + SEGMENT_SIZE) {
+                    break;
+                }
+                BookingEvent event = segment.events.get((int) (position & (SEGMENT_SIZE - 1)));
+                if (event == null) {
+                    break;
+                }
+                batch.add(event);
+                position++;
+            }
+            return batch.size();
+        }
+    }
+}
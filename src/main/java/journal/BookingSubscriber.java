@@ -0,0 +1,18 @@
+package journal;
+
+import java.util.List;
+
+/**
+ * Represents a downstream system reading the events of a {@link BookingJournal}, e.g. housekeeping or billing.
+ */
+@FunctionalInterface
+public interface BookingSubscriber {
+
+    /**
+     * Called with the next events of the journal, in order. It is always called from the same thread.
+     *
+     * @param events the events, at least one; the list is only valid during the call
+     * @throws Exception if the events cannot be handled, which ends the subscription
+     */
+    void onEvents(List<BookingEvent> events) throws Exception;
+}
@@ -0,0 +1,134 @@
+package journal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a subscriber reading a {@link BookingJournal} on a thread of its own.
+ * <p>
+ * The subscriber is passed the events in batches of up to the batch size, so a slow subscriber catches up
+ * with larger batches. Its pace never slows down the hotel: the events wait in the journal, and the lag tells
+ * how many. A subscriber that throws an exception, or falls too far behind, is not called anymore, the failure is kept.
+ */
+public class Subscription implements AutoCloseable {
+
+    private static final long IDLE_PARK = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
+
+    private final BookingJournal journal;
+    private final BookingJournal.Cursor cursor;
+    private final BookingSubscriber subscriber;
+    private final int batchSize;
+    private final Thread thread;
+    private volatile long position;
+    private volatile boolean parked;
+    private volatile boolean closed;
+    private volatile Exception failure;
+    // run on the subscriber's thread once it is marked parked, before it polls again: lets tests append at that moment
+    volatile Runnable beforePark = () -> {
+    };
+
+    Subscription(BookingJournal journal, BookingJournal.Cursor cursor, BookingSubscriber subscriber, int batchSize) {
+        this.journal = journal;
+        this.cursor = cursor;
+        this.subscriber = subscriber;
+        this.batchSize = batchSize;
+        this.position = cursor.position;
+        this.thread = new Thread(this::run, "booking-journal-subscriber");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Returns the sequence number of the next event to be handled by the subscriber.
+     *
+     * @return the sequence number
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of events appended to the journal but not handled by the subscriber yet.
+     *
+     * @return the number of events
+     */
+    public long getLag() {
+        return journal.getNextSequence() - position;
+    }
+
+    /**
+     * Returns the exception thrown by the subscriber, or the reason it was disconnected, which ended the subscription.
+     *
+     * @return the exception, or null if the subscriber has not failed
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Stops delivering events, waiting up to a second for the batch being handled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        journal.unsubscribe(this);
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join(CLOSE_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void disconnect(Exception cause) {
+        failure = cause;
+        closed = true;
+        journal.unsubscribe(this);
+        LockSupport.unpark(thread);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void wake() {
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<BookingEvent> batch = new ArrayList<>(batchSize);
+        List<BookingEvent> view = Collections.unmodifiableList(batch);
+        while (!closed) {
+            batch.clear();
+            if (cursor.poll(batch, batchSize) == 0) {
+                parked = true;
+                beforePark.run();
+                // polled again once parked is visible: an event appended in between is delivered, not parked on
+                boolean empty = cursor.poll(batch, batchSize) == 0;
+                if (empty && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK);
+                }
+                parked = false;
+                if (empty) {
+                    continue;
+                }
+            }
+            try {
+                subscriber.onEvents(view);
+            } catch (Exception e) {
+                failure = e;
+                closed = true;
+                journal.unsubscribe(this);
+                return;
+            }
+            position = cursor.position;
+        }
+    }
+}
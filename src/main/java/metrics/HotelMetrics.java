@@ -0,0 +1,160 @@
+package metrics;
+
+import entities.Hotel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents the metrics of the operations made on a hotel:
+ * a latency histogram per operation and outcome, and gauges sampled when a snapshot is taken.
+ * <p>
+ * The outcome of an operation is {@value #SUCCESS} or the simple name of the exception it threw.
+ * Recording takes no lock, and a disabled instance records nothing and does not read the clock.
+ */
+public class HotelMetrics {
+
+    /**
+     * The outcome of an operation that succeeded.
+     */
+    public static final String SUCCESS = "success";
+
+    private static final HotelMetrics DISABLED = new HotelMetrics(false);
+
+    private final boolean enabled;
+    private final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private HotelMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns metrics that record nothing.
+     *
+     * @return the disabled metrics
+     */
+    public static HotelMetrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates metrics with no gauge.
+     *
+     * @return the metrics
+     */
+    public static HotelMetrics create() {
+        return new HotelMetrics(true);
+    }
+
+    /**
+     * Creates metrics with gauges of the sizes of a hotel: rooms, bookings, archived bookings and guests.
+     *
+     * @param hotel the hotel to measure
+     * @return the metrics
+     */
+    public static HotelMetrics forHotel(Hotel hotel) {
+        HotelMetrics metrics = create();
+        metrics.registerGauge("rooms", () -> hotel.getRooms().size());
+        metrics.registerGauge("bookings", hotel::getBookingCount);
+        metrics.registerGauge("archivedBookings", hotel::getArchivedBookingCount);
+        metrics.registerGauge("guests", hotel::getGuestCount);
+        return metrics;
+    }
+
+    /**
+     * Registers a gauge, sampled when a snapshot is taken.
+     *
+     * @param name  the name of the gauge
+     * @param gauge the supplier of the gauge's value
+     */
+    public void registerGauge(String name, LongSupplier gauge) {
+        if (enabled) {
+            gauges.put(name, gauge);
+        }
+    }
+
+    /**
+     * Returns the start time of an operation.
+     *
+     * @return the current time in nanoseconds, or 0 if the metrics are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records an operation that succeeded.
+     *
+     * @param operation the name of the operation
+     * @param start     the start time returned by {@link #start()}
+     */
+    public void success(String operation, long start) {
+        if (enabled) {
+            record(operation, SUCCESS, start);
+        }
+    }
+
+    /**
+     * Records an operation that failed.
+     *
+     * @param operation the name of the operation
+     * @param start     the start time returned by {@link #start()}
+     * @param failure   the exception thrown by the operation
+     */
+    public void failure(String operation, long start, Exception failure) {
+        if (enabled) {
+            record(operation, failure.getClass().getSimpleName(), start);
+        }
+    }
+
+    /**
+     * Records an operation by its outcome.
+     *
+     * @param operation the name of the operation
+     * @param outcome   the outcome of the operation, {@value #SUCCESS} or the name of the failure
+     * @param start     the start time returned by {@link #start()}
+     */
+    public void record(String operation, String outcome, long start) {
+        if (enabled) {
+            histogram(operation, outcome).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the histogram of an operation and outcome, creating it if needed.
+     *
+     * @param operation the name of the operation
+     * @param outcome   the outcome of the operation
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String operation, String outcome) {
+        return histograms.computeIfAbsent(operation, o -> new ConcurrentHashMap<>())
+                .computeIfAbsent(outcome, o -> new LatencyHistogram());
+    }
+
+    /**
+     * Takes a snapshot of the metrics.
+     *
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        List<MetricsSnapshot.Operation> operations = new ArrayList<>();
+        histograms.forEach((operation, outcomes) -> outcomes.forEach((outcome, histogram) ->
+                operations.add(new MetricsSnapshot.Operation(operation, outcome,
+                        histogram.getCount(),
+                        histogram.getMean(),
+                        histogram.getPercentile(50),
+                        histogram.getPercentile(99),
+                        histogram.getPercentile(99.9),
+                        histogram.getMax()))));
+        operations.sort(MetricsSnapshot.Operation.ORDER);
+        Map<String, Long> gaugeValues = new LinkedHashMap<>();
+        gauges.keySet().stream().sorted().forEach(name -> gaugeValues.put(name, gauges.get(name).getAsLong()));
+        return new MetricsSnapshot(operations, gaugeValues);
+    }
+}
@@ -0,0 +1,70 @@
+package metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the metrics of a hotel at a point in time.
+ *
+ * @param operations the latencies of the operations, by operation and outcome
+ * @param gauges     the values of the gauges, by name
+ */
+public record MetricsSnapshot(List<Operation> operations, Map<String, Long> gauges) {
+
+    /**
+     * Exports the snapshot in the Prometheus text format.
+     *
+     * @return the exported metrics
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE hotel_operation_seconds summary\n");
+        for (Operation operation : operations) {
+            String labels = "operation=\"" + operation.operation() + "\",outcome=\"" + operation.outcome() + "\"";
+            appendQuantile(text, labels, "0.5", operation.p50());
+            appendQuantile(text, labels, "0.99", operation.p99());
+            appendQuantile(text, labels, "0.999", operation.p999());
+            text.append("hotel_operation_seconds_count{").append(labels).append("} ").append(operation.count()).append('\n');
+            text.append("hotel_operation_seconds_sum{").append(labels).append("} ").append(operation.mean() * operation.count() / 1e9).append('\n');
+        }
+        gauges.forEach((name, value) -> text.append("# TYPE hotel_").append(name).append(" gauge\n")
+                .append("hotel_").append(name).append(' ').append(value).append('\n'));
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("%-16s %-26s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "outcome", "count", "mean(us)", "p50(us)", "p99(us)", "p99.9(us)", "max(us)"));
+        for (Operation operation : operations) {
+            text.append(String.format("%-16s %-26s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    operation.operation(), operation.outcome(), operation.count(), operation.mean() / 1e3,
+                    operation.p50() / 1e3, operation.p99() / 1e3, operation.p999() / 1e3, operation.max() / 1e3));
+        }
+        gauges.forEach((name, value) -> text.append(String.format("%-16s %10d%n", name, value)));
+        return text.toString();
+    }
+
+    private static void appendQuantile(StringBuilder text, String labels, String quantile, long nanos) {
+        text.append("hotel_operation_seconds{").append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                .append(nanos / 1e9).append('\n');
+    }
+
+    /**
+     * Represents the latencies of an operation with a given outcome, in nanoseconds.
+     *
+     * @param operation the name of the operation
+     * @param outcome   the outcome of the operation
+     * @param count     the number of operations
+     * @param mean      the mean latency
+     * @param p50       the median latency
+     * @param p99       the 99th percentile latency
+     * @param p999      the 99.9th percentile latency
+     * @param max       the highest latency
+     */
+    public record Operation(String operation, String outcome, long count, double mean, long p50, long p99, long p999, long max) {
+
+        static final Comparator<Operation> ORDER = Comparator.comparing(Operation::operation).thenComparing(Operation::outcome);
+    }
+}
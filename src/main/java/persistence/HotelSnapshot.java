@@ -0,0 +1,136 @@
+package persistence;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes a compact binary image of the rooms and bookings of a hotel.
+ * <p>
+ * The format is {@code [magic][version][room count][rooms][booking count][bookings]} where a room is
+ * {@code [room number][capacity][price]} and a booking is
+ * {@code [reference][room number][check-in epoch day][check-out epoch day][full name]}.
+ */
+public final class HotelSnapshot {
+
+    private static final int MAGIC = 0x484F5445;
+    private static final int VERSION = 1;
+
+    private HotelSnapshot() {
+    }
+
+    /**
+     * Writes the rooms and bookings of a hotel to a file.
+     * The snapshot is written to a temporary file first and then moved, so a crash never leaves a partial snapshot.
+     *
+     * @param hotel the hotel to write
+     * @param file  the file of the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Hotel hotel, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            List<Room> rooms = hotel.getRooms();
+            output.writeInt(rooms.size());
+            for (Room room : rooms) {
+                output.writeInt(room.getRoomNumber());
+                output.writeInt(room.getCapacity());
+                output.writeDouble(room.getPrice());
+            }
+            // archived after the live ones, so a booking archived meanwhile is written twice rather than lost
+            List<Booking> bookings = hotel.getBookings();
+            List<Booking> archived = new ArrayList<>(hotel.getArchivedBookingCount());
+            hotel.forEachArchivedBooking(archived::add);
+            output.writeInt(bookings.size() + archived.size());
+            for (Booking booking : bookings) {
+                writeBooking(output, booking);
+            }
+            for (Booking booking : archived) {
+                writeBooking(output, booking);
+            }
+            output.flush();
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the rooms and bookings of a snapshot.
+     *
+     * @param file the file of the snapshot
+     * @return a hotel holding the rooms and bookings of the snapshot
+     * @throws IOException if the snapshot cannot be read or is not a snapshot
+     */
+    public static Hotel read(Path file) throws IOException {
+        List<Room> rooms = new ArrayList<>();
+        Map<Integer, Booking> bookings = new LinkedHashMap<>();
+        read(file, rooms::add, booking -> bookings.put(booking.getReference(), booking));
+        return Hotel.builder().rooms(rooms).bookings(new ArrayList<>(bookings.values())).build();
+    }
+
+    /**
+     * Reads the rooms and bookings of a snapshot, in the order they were written.
+     * Archived bookings come back with the others, a booking may come twice with the same reference.
+     *
+     * @param file     the file of the snapshot
+     * @param rooms    the consumer of the rooms
+     * @param bookings the consumer of the bookings
+     * @throws IOException if the snapshot cannot be read or is not a snapshot
+     */
+    static void read(Path file, Consumer<Room> rooms, Consumer<Booking> bookings) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Not a hotel snapshot: " + file);
+            }
+            int roomCount = input.readInt();
+            for (int i = 0; i < roomCount; i++) {
+                rooms.accept(Room.builder()
+                        .roomNumber(input.readInt())
+                        .capacity(input.readInt())
+                        .price(input.readDouble())
+                        .build());
+            }
+            int bookingCount = input.readInt();
+            for (int i = 0; i < bookingCount; i++) {
+                bookings.accept(Booking.builder()
+                        .reference(input.readInt())
+                        .roomNumber(input.readInt())
+                        .checkInDate(LocalDate.ofEpochDay(input.readInt()))
+                        .checkOutDate(LocalDate.ofEpochDay(input.readInt()))
+                        .fullName(input.readUTF())
+                        .build());
+            }
+        }
+    }
+
+    private static void writeBooking(DataOutputStream output, Booking booking) throws IOException {
+        output.writeInt(booking.getReference());
+        output.writeInt(booking.getRoomNumber());
+        output.writeInt((int) booking.getCheckInDate().toEpochDay());
+        output.writeInt((int) booking.getCheckOutDate().toEpochDay());
+        output.writeUTF(booking.getFullName());
+    }
+}
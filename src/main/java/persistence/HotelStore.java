@@ -0,0 +1,198 @@
+package persistence;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Represents the durable storage of a hotel in a directory.
+ * <p>
+ * Every booking added to or removed from the hotel is appended to a write-ahead log before the change is acknowledged.
+ * A snapshot switches to a new log generation, writes the whole hotel and then deletes the older logs and snapshots.
+ * On startup, the latest snapshot is restored and the logs written since are replayed on top of it.
+ * Replaying a change already in the snapshot leaves the hotel unchanged, so a snapshot never blocks bookings.
+ */
+public class HotelStore implements AutoCloseable {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String LOG_PREFIX = "wal-";
+    private static final String LOG_SUFFIX = ".log";
+
+    private final Path directory;
+    @Getter
+    private final Hotel hotel;
+    private final WriteAheadLog log;
+    private long generation;
+    private ScheduledExecutorService scheduler;
+    private volatile IOException snapshotFailure;
+
+    private HotelStore(Path directory, Hotel hotel, long generation) throws IOException {
+        this.directory = directory;
+        this.hotel = hotel;
+        this.generation = generation;
+        this.log = new WriteAheadLog(logFile(generation));
+    }
+
+    /**
+     * Opens the storage of a hotel, restoring the hotel saved in the directory if any.
+     *
+     * @param directory the directory of the storage
+     * @param rooms     the rooms of the hotel if the directory holds no snapshot yet
+     * @return the storage, whose hotel is durable
+     * @throws IOException if the directory cannot be read or written
+     */
+    public static HotelStore open(Path directory, List<Room> rooms) throws IOException {
+        Files.createDirectories(directory);
+        long generation = Stream.concat(generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).stream(), generations(directory, LOG_PREFIX, LOG_SUFFIX).stream())
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+        Hotel hotel = recover(directory, rooms);
+        HotelStore store = new HotelStore(directory, hotel, generation + 1);
+        hotel.addListener(store.log);
+        // start from a fresh log, so new records never follow a torn one
+        store.snapshot();
+        return store;
+    }
+
+    /**
+     * Restores the hotel saved in a directory, without opening it for writes.
+     *
+     * @param directory the directory of the storage
+     * @param rooms     the rooms of the hotel if the directory holds no snapshot
+     * @return the hotel as of the last durable change
+     * @throws IOException if the directory cannot be read
+     */
+    public static Hotel recover(Path directory, List<Room> rooms) throws IOException {
+        List<Long> snapshots = generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long generation = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        List<Room> restoredRooms = new ArrayList<>();
+        Map<Integer, Booking> bookings = new LinkedHashMap<>();
+        if (snapshots.isEmpty()) {
+            restoredRooms.addAll(rooms);
+        } else {
+            HotelSnapshot.read(snapshotFile(directory, generation), restoredRooms::add, b -> bookings.put(b.getReference(), b));
+        }
+        for (long logGeneration : generations(directory, LOG_PREFIX, LOG_SUFFIX)) {
+            if (logGeneration >= generation) {
+                WriteAheadLog.read(logFile(directory, logGeneration), record -> {
+                    if (record.type() == WriteAheadLog.BOOKING_ADDED) {
+                        bookings.put(record.booking().getReference(), record.booking());
+                    } else {
+                        bookings.remove(record.booking().getReference());
+                    }
+                });
+            }
+        }
+        return Hotel.builder().rooms(restoredRooms).bookings(new ArrayList<>(bookings.values())).build();
+    }
+
+    /**
+     * Writes a snapshot of the hotel and truncates the write-ahead log.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void snapshot() throws IOException {
+        long next = generation + 1;
+        log.rotate(logFile(next));
+        HotelSnapshot.write(hotel, snapshotFile(directory, next));
+        generation = next;
+        for (long old : generations(directory, LOG_PREFIX, LOG_SUFFIX)) {
+            if (old < next) {
+                Files.deleteIfExists(logFile(directory, old));
+            }
+        }
+        for (long old : generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < next) {
+                Files.deleteIfExists(snapshotFile(directory, old));
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot periodically, in a background thread.
+     * A snapshot that fails is retried at the next period, see {@link #getSnapshotFailure()}.
+     *
+     * @param period the time between two snapshots
+     */
+    public synchronized void scheduleSnapshots(Duration period) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hotel-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                snapshot();
+                snapshotFailure = null;
+            } catch (IOException e) {
+                snapshotFailure = e;
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the exception of the last scheduled snapshot, if it failed.
+     * Until a snapshot succeeds, the write-ahead logs are kept and recovery replays them all.
+     *
+     * @return the exception, or null if the last scheduled snapshot succeeded
+     */
+    public IOException getSnapshotFailure() {
+        return snapshotFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        hotel.removeListener(log);
+        log.close();
+    }
+
+    private Path logFile(long generation) {
+        return logFile(directory, generation);
+    }
+
+    private static Path logFile(Path directory, long generation) {
+        return directory.resolve(LOG_PREFIX + generation + LOG_SUFFIX);
+    }
+
+    private static Path snapshotFile(Path directory, long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+    private static List<Long> generations(Path directory, String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> name.substring(prefix.length(), name.length() - suffix.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package persistence;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Represents a read-only image of the rooms and bookings of a hotel, queried in place from a memory-mapped file.
+ * <p>
+ * Every record has a fixed width, so a record is read at its offset without parsing what precedes it and
+ * opening a snapshot costs the same whatever its size. The format is
+ * {@code [header][rooms][bookings][bookings by room][name offsets][names]} where:
+ * <ul>
+ *     <li>the header is {@code [magic][version][room count][booking count][name count][names length]}</li>
+ *     <li>a room is {@code [room number][capacity][price]}, sorted by room number</li>
+ *     <li>a booking is {@code [reference][room number][check-in epoch day][check-out epoch day][name id]},
+ *     sorted by reference</li>
+ *     <li>the bookings by room are the indexes of the bookings sorted by room number then check-in date</li>
+ *     <li>the name of id i is the UTF-8 bytes between the offsets i and i + 1</li>
+ * </ul>
+ * Archived bookings are included. Queries return new objects, nothing read can change the snapshot.
+ * It is thread-safe, the file is only read with absolute reads. A snapshot is limited to 2 GB.
+ */
+public final class MappedSnapshot {
+
+    private static final int MAGIC = 0x484F544D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int ROOM_SIZE = 16;
+    private static final int BOOKING_SIZE = 20;
+
+    private final ByteBuffer buffer;
+    private final int roomCount;
+    private final int bookingCount;
+    private final int roomsOffset;
+    private final int bookingsOffset;
+    private final int byRoomOffset;
+    private final int nameOffsetsOffset;
+    private final int namesOffset;
+
+    private MappedSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        roomCount = buffer.getInt(8);
+        bookingCount = buffer.getInt(12);
+        int nameCount = buffer.getInt(16);
+        roomsOffset = HEADER_SIZE;
+        bookingsOffset = roomsOffset + roomCount * ROOM_SIZE;
+        byRoomOffset = bookingsOffset + bookingCount * BOOKING_SIZE;
+        nameOffsetsOffset = byRoomOffset + bookingCount * Integer.BYTES;
+        namesOffset = nameOffsetsOffset + (nameCount + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Writes the rooms and bookings of a hotel, archived ones included, to a file.
+     * The snapshot is written to a temporary file first and then moved, so a crash never leaves a partial snapshot.
+     *
+     * @param hotel the hotel to write
+     * @param file  the file of the snapshot
+     * @throws IOException if the snapshot cannot be written or is larger than 2 GB
+     */
+    public static void write(Hotel hotel, Path file) throws IOException {
+        List<Room> rooms = new ArrayList<>(hotel.getRooms());
+        rooms.sort(Comparator.comparingInt(Room::getRoomNumber));
+        // archived after the live ones, so a booking archived meanwhile is kept once
+        Map<Integer, Booking> bookingsByReference = new TreeMap<>();
+        hotel.forEachBooking(booking -> bookingsByReference.put(booking.getReference(), booking));
+        hotel.forEachArchivedBooking(booking -> bookingsByReference.putIfAbsent(booking.getReference(), booking));
+        List<Booking> bookings = new ArrayList<>(bookingsByReference.values());
+        Integer[] byRoom = new Integer[bookings.size()];
+        for (int i = 0; i < byRoom.length; i++) {
+            byRoom[i] = i;
+        }
+        Arrays.sort(byRoom, Comparator.<Integer>comparingInt(i -> bookings.get(i).getRoomNumber())
+                .thenComparing(i -> bookings.get(i).getCheckInDate()));
+        Map<String, Integer> nameIds = new LinkedHashMap<>();
+        List<byte[]> names = new ArrayList<>();
+        long namesLength = 0;
+        for (Booking booking : bookings) {
+            if (!nameIds.containsKey(booking.getFullName())) {
+                nameIds.put(booking.getFullName(), names.size());
+                byte[] name = booking.getFullName().getBytes(StandardCharsets.UTF_8);
+                names.add(name);
+                namesLength += name.length;
+            }
+        }
+
+        long size = HEADER_SIZE + (long) rooms.size() * ROOM_SIZE + (long) bookings.size() * (BOOKING_SIZE + Integer.BYTES)
+                + (names.size() + 1L) * Integer.BYTES + namesLength;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The snapshot would be larger than 2 GB");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer output = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            output.putInt(MAGIC).putInt(VERSION).putInt(rooms.size()).putInt(bookings.size()).putInt(names.size()).putInt((int) namesLength);
+            for (Room room : rooms) {
+                output.putInt(room.getRoomNumber()).putInt(room.getCapacity()).putDouble(room.getPrice());
+            }
+            for (Booking booking : bookings) {
+                output.putInt(booking.getReference())
+                        .putInt(booking.getRoomNumber())
+                        .putInt((int) booking.getCheckInDate().toEpochDay())
+                        .putInt((int) booking.getCheckOutDate().toEpochDay())
+                        .putInt(nameIds.get(booking.getFullName()));
+            }
+            for (int index : byRoom) {
+                output.putInt(index);
+            }
+            int offset = 0;
+            for (byte[] name : names) {
+                output.putInt(offset);
+                offset += name.length;
+            }
+            output.putInt(offset);
+            for (byte[] name : names) {
+                output.put(name);
+            }
+            output.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opens a snapshot by mapping its file in memory. Nothing is read but the header.
+     *
+     * @param file the file of the snapshot
+     * @return the snapshot
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static MappedSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a mapped hotel snapshot: " + file);
+            }
+            return new MappedSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Retrieves the rooms.
+     *
+     * @return the rooms, sorted by room number
+     */
+    public List<Room> getRooms() {
+        List<Room> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(room(i));
+        }
+        return rooms;
+    }
+
+    /**
+     * Checks if a room exists.
+     *
+     * @param roomNumber the room number
+     * @return true if the room exists
+     */
+    public boolean checkRoomExists(int roomNumber) {
+        int low = 0;
+        int high = roomCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int number = buffer.getInt(roomsOffset + middle * ROOM_SIZE);
+            if (number < roomNumber) {
+                low = middle + 1;
+            } else if (number > roomNumber) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of bookings.
+     *
+     * @return the number of bookings, archived ones included
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Retrieves a booking by its reference.
+     *
+     * @param reference the reference of the booking
+     * @return a copy of the booking, or an empty optional if no booking has this reference
+     */
+    public Optional<Booking> getBooking(int reference) {
+        int low = 0;
+        int high = bookingCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int found = buffer.getInt(bookingOffset(middle));
+            if (found < reference) {
+                low = middle + 1;
+            } else if (found > reference) {
+                high = middle - 1;
+            } else {
+                return Optional.of(booking(middle));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks if a room is free between the specified dates. A stay may start on the check-out date of another one.
+     *
+     * @param roomNumber   the room number
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @return true if no booking of the room overlaps the dates
+     */
+    public boolean checkRoomAvailability(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+        // the bookings of a room do not overlap, only the last one starting before the check-out can overlap the stay
+        int last = countStartingBefore(roomNumber, (int) checkOutDate.toEpochDay()) - 1;
+        if (last < 0) {
+            return true;
+        }
+        int offset = bookingOffset(byRoom(last));
+        return buffer.getInt(offset + 4) != roomNumber || buffer.getInt(offset + 12) <= checkInDate.toEpochDay();
+    }
+
+    /**
+     * Finds the booking of a guest in a room that includes a date, its check-in and check-out dates included.
+     * Names are compared on their bytes, no name is decoded but the one found.
+     *
+     * @param roomNumber the room number
+     * @param fullName   the exact full name of the guest
+     * @param date       the date
+     * @return a copy of the booking, the earliest one if there are two, or an empty optional if there is none
+     */
+    public Optional<Booking> findBooking(int roomNumber, String fullName, LocalDate date) {
+        byte[] name = fullName.getBytes(StandardCharsets.UTF_8);
+        int day = (int) date.toEpochDay();
+        int found = -1;
+        for (int i = countStartingBefore(roomNumber, day + 1) - 1; i >= 0; i--) {
+            int offset = bookingOffset(byRoom(i));
+            if (buffer.getInt(offset + 4) != roomNumber || buffer.getInt(offset + 12) < day) {
+                break;
+            }
+            if (nameEquals(buffer.getInt(offset + 16), name)) {
+                found = byRoom(i);
+            }
+        }
+        return found >= 0 ? Optional.of(booking(found)) : Optional.empty();
+    }
+
+    /**
+     * Passes a copy of every booking to a consumer, by reference.
+     *
+     * @param consumer the consumer of the bookings
+     */
+    public void forEachBooking(Consumer<Booking> consumer) {
+        for (int i = 0; i < bookingCount; i++) {
+            consumer.accept(booking(i));
+        }
+    }
+
+    // returns the number of bookings of the rooms up to the given one that check in before the given day
+    private int countStartingBefore(int roomNumber, int day) {
+        int low = 0;
+        int high = bookingCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int offset = bookingOffset(byRoom(middle));
+            int number = buffer.getInt(offset + 4);
+            if (number < roomNumber || (number == roomNumber && buffer.getInt(offset + 8) < day)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean nameEquals(int nameId, byte[] name) {
+        int start = buffer.getInt(nameOffsetsOffset + nameId * Integer.BYTES);
+        int end = buffer.getInt(nameOffsetsOffset + (nameId + 1) * Integer.BYTES);
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(namesOffset + start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String name(int nameId) {
+        int start = buffer.getInt(nameOffsetsOffset + nameId * Integer.BYTES);
+        int end = buffer.getInt(nameOffsetsOffset + (nameId + 1) * Integer.BYTES);
+        byte[] name = new byte[end - start];
+        buffer.get(namesOffset + start, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private Room room(int index) {
+        int offset = roomsOffset + index * ROOM_SIZE;
+        return Room.builder()
+                .roomNumber(buffer.getInt(offset))
+                .capacity(buffer.getInt(offset + 4))
+                .price(buffer.getDouble(offset + 8))
+                .build();
+    }
+
+    private Booking booking(int index) {
+        int offset = bookingOffset(index);
+        return Booking.builder()
+                .reference(buffer.getInt(offset))
+                .roomNumber(buffer.getInt(offset + 4))
+                .checkInDate(LocalDate.ofEpochDay(buffer.getInt(offset + 8)))
+                .checkOutDate(LocalDate.ofEpochDay(buffer.getInt(offset + 12)))
+                .fullName(name(buffer.getInt(offset + 16)))
+                .build();
+    }
+
+    private int byRoom(int position) {
+        return buffer.getInt(byRoomOffset + position * Integer.BYTES);
+    }
+
+    private int bookingOffset(int index) {
+        return bookingsOffset + index * BOOKING_SIZE;
+    }
+}
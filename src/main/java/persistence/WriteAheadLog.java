@@ -0,0 +1,277 @@
+package persistence;
+
+import entities.Booking;
+import entities.BookingListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Represents an append-only log of the bookings added to and removed from a hotel.
+ * A change is durable when {@link #bookingAdded(Booking)} or {@link #bookingRemoved(Booking)} returns.
+ * The changes appended while the log is being synced are written and synced together by the next caller (group commit),
+ * so concurrent bookings share the cost of a sync. Bookings added together are appended and synced together.
+ * <p>
+ * A caller interrupted while it waits for the sync throws, so the hotel cancels its change: its record is withdrawn
+ * if it has not been taken by a sync yet, otherwise the opposite record is appended after it. The syncing caller
+ * clears its interrupt status during the I/O, so an interrupt does not close the file.
+ * <p>
+ * A record is {@code [length][type][reference][room number][check-in epoch day][check-out epoch day][full name][crc]},
+ * a torn record at the end of the log is ignored when the log is read.
+ */
+public class WriteAheadLog implements BookingListener, AutoCloseable {
+
+    static final byte BOOKING_ADDED = 1;
+    static final byte BOOKING_REMOVED = 2;
+
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private IOException failure;
+
+    /**
+     * Opens a log, records are appended after the existing ones.
+     *
+     * @param file the file of the log
+     * @throws IOException if the file cannot be opened
+     */
+    public WriteAheadLog(Path file) throws IOException {
+        channel = open(file);
+    }
+
+    // run by the syncing caller once it has taken the batch, before writing it: lets tests hold a sync
+    volatile Runnable beforeSync = () -> {
+    };
+
+    @Override
+    public void bookingAdded(Booking booking) {
+        append(BOOKING_ADDED, List.of(booking));
+    }
+
+    @Override
+    public void bookingRemoved(Booking booking) {
+        append(BOOKING_REMOVED, List.of(booking));
+    }
+
+    @Override
+    public void bookingsAdded(List<Booking> bookings) {
+        append(BOOKING_ADDED, bookings);
+    }
+
+    /**
+     * Syncs the pending records and switches to a new file.
+     * The records appended afterwards go to the new file.
+     *
+     * @param file the new file of the log
+     * @throws IOException if the pending records cannot be synced or the file cannot be opened
+     */
+    public void rotate(Path file) throws IOException {
+        synchronized (lock) {
+            awaitSync();
+            write(pending);
+            pending = new ArrayList<>();
+            durable = appended;
+            channel.close();
+            channel = open(file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            awaitSync();
+            write(pending);
+            pending = new ArrayList<>();
+            durable = appended;
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the records of a log file, in order, until the end of the file or the first torn record.
+     *
+     * @param file     the file of the log
+     * @param consumer the consumer of the records
+     * @throws IOException if the file cannot be read
+     */
+    static void read(Path file, Consumer<Record> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0 || buffer.remaining() < length + Integer.BYTES) {
+                return;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt()) {
+                return;
+            }
+            consumer.accept(decode(ByteBuffer.wrap(payload)));
+        }
+    }
+
+    private void append(byte type, List<Booking> bookings) {
+        List<ByteBuffer> records = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            records.add(encode(type, booking));
+        }
+        List<ByteBuffer> batch;
+        long batchEnd;
+        synchronized (lock) {
+            pending.addAll(records);
+            appended += records.size();
+            long ticket = appended;
+            while (true) {
+                checkFailure();
+                if (durable >= ticket) {
+                    return;
+                }
+                if (!syncing) {
+                    break;
+                }
+                try {
+                    waitForSync();
+                } catch (IllegalStateException e) {
+                    withdraw(records, type, bookings);
+                    throw e;
+                }
+            }
+            // this caller syncs its own record and every record appended before
+            syncing = true;
+            batch = pending;
+            batchEnd = appended;
+            pending = new ArrayList<>();
+        }
+        beforeSync.run();
+        IOException error = null;
+        // an interrupt during the I/O would close the channel for every caller, it is restored afterwards
+        boolean interrupted = Thread.interrupted();
+        try {
+            write(batch);
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            syncing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                durable = batchEnd;
+            }
+            lock.notifyAll();
+            checkFailure();
+        }
+    }
+
+    // the hotel cancels the changes of a failed append, so the log must not keep them
+    private void withdraw(List<ByteBuffer> records, byte type, List<Booking> bookings) {
+        // the records of an append are taken by the same sync, so they are all pending or none
+        Set<ByteBuffer> withdrawn = Collections.newSetFromMap(new IdentityHashMap<>());
+        withdrawn.addAll(records);
+        if (!pending.removeIf(withdrawn::contains)) {
+            for (int i = bookings.size() - 1; i >= 0; i--) {
+                pending.add(encode(type == BOOKING_ADDED ? BOOKING_REMOVED : BOOKING_ADDED, bookings.get(i)));
+                appended++;
+            }
+        }
+    }
+
+    private void awaitSync() throws IOException {
+        while (syncing) {
+            waitForSync();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void waitForSync() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write-ahead log", e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("The write-ahead log cannot be written", failure);
+        }
+    }
+
+    private void write(List<ByteBuffer> records) throws IOException {
+        ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+        long remaining = records.stream().mapToLong(ByteBuffer::remaining).sum();
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static ByteBuffer encode(byte type, Booking booking) {
+        byte[] fullName = booking.getFullName().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES + fullName.length;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        record.putInt(length)
+                .put(type)
+                .putInt(booking.getReference())
+                .putInt(booking.getRoomNumber())
+                .putLong(booking.getCheckInDate().toEpochDay())
+                .putLong(booking.getCheckOutDate().toEpochDay())
+                .putInt(fullName.length)
+                .put(fullName);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), Integer.BYTES, length);
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    private static Record decode(ByteBuffer payload) {
+        byte type = payload.get();
+        Booking.BookingBuilder booking = Booking.builder()
+                .reference(payload.getInt())
+                .roomNumber(payload.getInt())
+                .checkInDate(LocalDate.ofEpochDay(payload.getLong()))
+                .checkOutDate(LocalDate.ofEpochDay(payload.getLong()));
+        byte[] fullName = new byte[payload.getInt()];
+        payload.get(fullName);
+        return new Record(type, booking.fullName(new String(fullName, StandardCharsets.UTF_8)).build());
+    }
+
+    /**
+     * Represents a change read from the log.
+     *
+     * @param type    {@link #BOOKING_ADDED} or {@link #BOOKING_REMOVED}
+     * @param booking the booking added or removed
+     */
+    record Record(byte type, Booking booking) {
+    }
+}
@@ -0,0 +1,140 @@
+package services;
+
+import entities.Room;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the free and busy nights of a set of rooms over a window of consecutive nights,
+ * along with the number of free rooms of each capacity for each night.
+ * Nights are given by their date, a night is busy if a stay includes it, its check-out date excluded.
+ */
+public final class AvailabilityCalendar {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<Room> rooms;
+    private final Map<Integer, BitSet> busyNightsByRoom;
+    private final Map<Integer, int[]> freeRoomsByCapacity;
+
+    AvailabilityCalendar(LocalDate from, LocalDate to, List<Room> rooms, Map<Integer, BitSet> busyNightsByRoom, Map<Integer, int[]> freeRoomsByCapacity) {
+        this.from = from;
+        this.to = to;
+        this.rooms = Collections.unmodifiableList(rooms);
+        this.busyNightsByRoom = busyNightsByRoom;
+        this.freeRoomsByCapacity = freeRoomsByCapacity;
+    }
+
+    /**
+     * Returns the first night of the window.
+     *
+     * @return the first night
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the day after the last night of the window.
+     *
+     * @return the end of the window, excluded
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the number of nights of the window.
+     *
+     * @return the number of nights
+     */
+    public int getNights() {
+        return (int) (to.toEpochDay() - from.toEpochDay());
+    }
+
+    /**
+     * Returns the rooms of the calendar.
+     *
+     * @return an unmodifiable list of the rooms, in the order they were requested
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the capacities of the rooms of the calendar.
+     *
+     * @return the capacities, in ascending order
+     */
+    public List<Integer> getCapacities() {
+        return List.copyOf(freeRoomsByCapacity.keySet());
+    }
+
+    /**
+     * Checks if a room is free on a night.
+     *
+     * @param roomNumber the room number
+     * @param night      the night
+     * @return true if the room is free that night
+     * @throws IllegalArgumentException if the room is not in the calendar or the night is not in the window
+     */
+    public boolean isFree(int roomNumber, LocalDate night) {
+        return !busyNights(roomNumber).get(night(night));
+    }
+
+    /**
+     * Returns the busy nights of a room.
+     *
+     * @param roomNumber the room number
+     * @return the busy nights, bit i is set if the room is busy the night i days after the first one
+     * @throws IllegalArgumentException if the room is not in the calendar
+     */
+    public BitSet getBusyNights(int roomNumber) {
+        return (BitSet) busyNights(roomNumber).clone();
+    }
+
+    /**
+     * Returns the number of rooms of a capacity that are free on a night.
+     *
+     * @param capacity the capacity of the rooms
+     * @param night    the night
+     * @return the number of free rooms, 0 if the calendar has no room of this capacity
+     * @throws IllegalArgumentException if the night is not in the window
+     */
+    public int getFreeRooms(int capacity, LocalDate night) {
+        int index = night(night);
+        int[] freeRooms = freeRoomsByCapacity.get(capacity);
+        return freeRooms != null ? freeRooms[index] : 0;
+    }
+
+    /**
+     * Returns the number of rooms of a capacity that are free on each night.
+     *
+     * @param capacity the capacity of the rooms
+     * @return the number of free rooms of each night, in order
+     */
+    public int[] getFreeRooms(int capacity) {
+        int[] freeRooms = freeRoomsByCapacity.get(capacity);
+        return freeRooms != null ? freeRooms.clone() : new int[getNights()];
+    }
+
+    private BitSet busyNights(int roomNumber) {
+        BitSet busyNights = busyNightsByRoom.get(roomNumber);
+        if (busyNights == null) {
+            throw new IllegalArgumentException("Room " + roomNumber + " is not in the calendar");
+        }
+        return busyNights;
+    }
+
+    private int night(LocalDate night) {
+        long index = night.toEpochDay() - from.toEpochDay();
+        if (index < 0 || index >= getNights()) {
+            throw new IllegalArgumentException("The night " + night + " is not in the calendar");
+        }
+        return (int) index;
+    }
+}
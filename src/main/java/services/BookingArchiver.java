@@ -0,0 +1,65 @@
+package services;
+
+import entities.Hotel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class moves the past bookings of a hotel to its archive, so the live indexes only hold current and future stays.
+ * A booking is archived once its check-out date is before today: it can no longer conflict with a new booking,
+ * since bookings cannot start in the past, but it can still be found by {@link ManageHotel#searchBooking}.
+ */
+public class BookingArchiver implements AutoCloseable {
+
+    private final Hotel hotel;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an archiver of a hotel.
+     *
+     * @param hotel the hotel to archive
+     * @param clock the clock giving today's date
+     */
+    public BookingArchiver(Hotel hotel, Clock clock) {
+        this.hotel = hotel;
+        this.clock = clock;
+    }
+
+    /**
+     * Archives the bookings checked out before today.
+     *
+     * @return the number of bookings archived
+     */
+    public int archive() {
+        return hotel.archiveBookings(LocalDate.now(clock));
+    }
+
+    /**
+     * Archives the past bookings now and then periodically, in a background thread.
+     *
+     * @param period the time between two runs
+     */
+    public synchronized void schedule(Duration period) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hotel-archiver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleAtFixedRate(this::archive, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
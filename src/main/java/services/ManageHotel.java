@@ -0,0 +1,738 @@
+package services;
+
+import entities.Booking;
+import entities.BookingRequest;
+import entities.Hotel;
+import entities.Room;
+import exceptions.*;
+import lombok.Builder;
+import lombok.Getter;
+import metrics.HotelMetrics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Represents a class for managing a hotel.
+ * <p>
+ * Each operation has a variant returning an {@link OperationResult}, whose rejections allocate nothing,
+ * and a variant throwing the exception of its rejection, built on the first one.
+ * <p>
+ * Guests can wait for a room instead of retrying: a cancelled booking books the guests of the {@link Waitlist}
+ * waiting for its nights.
+ */
+@Getter
+@Builder
+public class ManageHotel {
+
+    private static final String SEARCH_BOOKING = "searchBooking";
+    private static final String SEARCH_BOOKINGS = "searchBookings";
+    private static final String BOOK_ROOM = "bookRoom";
+    private static final String BOOK_ROOMS = "bookRooms";
+    private static final String CANCEL_BOOKING = "cancelBooking";
+    private static final String SUGGEST_ROOM = "suggestRoom";
+    private static final String SUGGEST_BEST_FIT = "suggestBestFit";
+    private static final String BOOK_OR_WAIT = "bookOrWait";
+    private static final String AVAILABILITY_CALENDAR = "availabilityCalendar";
+    private static final int MAX_CALENDAR_NIGHTS = 366;
+
+    private Hotel hotel;
+    @Builder.Default
+    private HotelMetrics metrics = HotelMetrics.disabled();
+    @Builder.Default
+    private Today today = Today.system();
+    @Builder.Default
+    private Waitlist waitlist = new Waitlist();
+
+    /**
+     * Searches for a booking based on the room number, guest's full name, and date.
+     *
+     * @param roomNumber the room number to search for
+     * @param fullName the full name of the guest to search for
+     * @param date the date to search for
+     * @return the booking that matches the search criteria
+     * @throws RoomNotFoundException if the room does not exist
+     * @throws BookingNotFoundException if the booking is not found
+     */
+    public Booking searchBooking(int roomNumber, String fullName, LocalDate date) throws RoomNotFoundException, BookingNotFoundException, ParamNotValidException {
+        OperationResult<Booking> result = trySearchBooking(roomNumber, fullName, date);
+        switch (result.getStatus()) {
+            case PARAM_NOT_VALID -> throw new ParamNotValidException();
+            case ROOM_NOT_FOUND -> throw new RoomNotFoundException();
+            case BOOKING_NOT_FOUND -> throw new BookingNotFoundException();
+            default -> {
+                return result.getValue();
+            }
+        }
+    }
+
+    /**
+     * Searches for a booking based on the room number, guest's full name, and date.
+     *
+     * @param roomNumber the room number to search for
+     * @param fullName   the full name of the guest to search for
+     * @param date       the date to search for
+     * @return the booking that matches the search criteria, or PARAM_NOT_VALID, ROOM_NOT_FOUND or BOOKING_NOT_FOUND
+     */
+    public OperationResult<Booking> trySearchBooking(int roomNumber, String fullName, LocalDate date) {
+        long start = metrics.start();
+        try {
+            return record(SEARCH_BOOKING, start, findBooking(roomNumber, fullName, date));
+        } catch (RuntimeException e) {
+            metrics.failure(SEARCH_BOOKING, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Searches for all bookings of a guest, whatever their room.
+     * The guest's name is compared ignoring case and extra spaces.
+     *
+     * @param fullName the full name of the guest to search for
+     * @return the bookings of the guest, sorted by check-in date
+     * @throws ParamNotValidException if the full name is not valid
+     */
+    public List<Booking> searchBookings(String fullName) throws ParamNotValidException {
+        return bookingsOrThrow(trySearchBookings(fullName, null));
+    }
+
+    /**
+     * Searches for the bookings of a guest that include the given date, whatever their room.
+     * The guest's name is compared ignoring case and extra spaces.
+     *
+     * @param fullName the full name of the guest to search for
+     * @param date     the date to search for
+     * @return the bookings of the guest including the date, sorted by check-in date
+     * @throws ParamNotValidException if the full name or the date is not valid
+     */
+    public List<Booking> searchBookings(String fullName, LocalDate date) throws ParamNotValidException {
+        //check if param is valid
+        if (date == null) {
+            long start = metrics.start();
+            record(SEARCH_BOOKINGS, start, OperationResult.failure(OperationStatus.PARAM_NOT_VALID));
+            throw new ParamNotValidException();
+        }
+        return bookingsOrThrow(trySearchBookings(fullName, date));
+    }
+
+    /**
+     * Searches for the bookings of a guest, whatever their room.
+     * The guest's name is compared ignoring case and extra spaces.
+     *
+     * @param fullName the full name of the guest to search for
+     * @param date     the date the bookings must include, or null for all the bookings of the guest
+     * @return the bookings of the guest, sorted by check-in date, or PARAM_NOT_VALID
+     */
+    public OperationResult<List<Booking>> trySearchBookings(String fullName, LocalDate date) {
+        long start = metrics.start();
+        try {
+            return record(SEARCH_BOOKINGS, start, findBookings(fullName, date));
+        } catch (RuntimeException e) {
+            metrics.failure(SEARCH_BOOKINGS, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Books a room with the given details.
+     *
+     * @param roomNumber   the room number to book
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the booking that has been made
+     * @throws RoomNotAvailableException if the room is not available for the given dates
+     * @throws RoomNotFoundException     if the room does not exist
+     * @throws BookingNotValidException  if the booking is not valid
+     */
+    public Booking bookRoom(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) throws RoomNotAvailableException, RoomNotFoundException, BookingNotValidException, ParamNotValidException {
+        OperationResult<Booking> result = tryBookRoom(roomNumber, checkInDate, checkOutDate, fullName);
+        switch (result.getStatus()) {
+            case PARAM_NOT_VALID -> throw new ParamNotValidException();
+            case ROOM_NOT_FOUND -> throw new RoomNotFoundException();
+            case ROOM_NOT_AVAILABLE -> throw new RoomNotAvailableException();
+            default -> {
+                return result.getValue();
+            }
+        }
+    }
+
+    /**
+     * Books a room with the given details.
+     *
+     * @param roomNumber   the room number to book
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the booking that has been made, or PARAM_NOT_VALID, ROOM_NOT_FOUND or ROOM_NOT_AVAILABLE
+     */
+    public OperationResult<Booking> tryBookRoom(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        long start = metrics.start();
+        try {
+            return record(BOOK_ROOM, start, book(roomNumber, checkInDate, checkOutDate, fullName));
+        } catch (RuntimeException e) {
+            metrics.failure(BOOK_ROOM, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Books several rooms at once, for a group: either every room is booked or none is.
+     * All the requests are validated before any room is booked.
+     *
+     * @param requests the booking requests
+     * @return the bookings that have been made, in the order of the requests
+     * @throws ParamNotValidException    if there is no request or a request is not valid
+     * @throws RoomNotFoundException     if a room does not exist
+     * @throws BookingNotValidException  if two requests book the same room on overlapping dates
+     * @throws RoomNotAvailableException if a room is not available for the requested dates
+     */
+    public List<Booking> bookRooms(List<BookingRequest> requests) throws ParamNotValidException, RoomNotFoundException, BookingNotValidException, RoomNotAvailableException {
+        OperationResult<List<Booking>> result = tryBookRooms(requests);
+        switch (result.getStatus()) {
+            case PARAM_NOT_VALID -> throw new ParamNotValidException();
+            case ROOM_NOT_FOUND -> throw new RoomNotFoundException();
+            case BOOKING_NOT_VALID -> throw new BookingNotValidException();
+            case ROOM_NOT_AVAILABLE -> throw new RoomNotAvailableException();
+            default -> {
+                return result.getValue();
+            }
+        }
+    }
+
+    /**
+     * Books several rooms at once, for a group: either every room is booked or none is.
+     * All the requests are validated before any room is booked.
+     *
+     * @param requests the booking requests
+     * @return the bookings that have been made, in the order of the requests,
+     * or PARAM_NOT_VALID, ROOM_NOT_FOUND, BOOKING_NOT_VALID or ROOM_NOT_AVAILABLE
+     */
+    public OperationResult<List<Booking>> tryBookRooms(List<BookingRequest> requests) {
+        long start = metrics.start();
+        try {
+            return record(BOOK_ROOMS, start, bookAll(requests));
+        } catch (RuntimeException e) {
+            metrics.failure(BOOK_ROOMS, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels a booking based on the provided reference.
+     *
+     * @param reference the reference of the booking to be canceled
+     * @throws BookingNotFoundException if the booking is not found
+     */
+    public void cancelBooking(int reference) throws BookingNotFoundException {
+        if (!tryCancelBooking(reference).isSuccess()) {
+            throw new BookingNotFoundException();
+        }
+    }
+
+    /**
+     * Cancels a booking based on the provided reference.
+     *
+     * @param reference the reference of the booking to be canceled
+     * @return the booking that has been cancelled, or BOOKING_NOT_FOUND
+     */
+    public OperationResult<Booking> tryCancelBooking(int reference) {
+        long start = metrics.start();
+        try {
+            return record(CANCEL_BOOKING, start, cancel(reference));
+        } catch (RuntimeException e) {
+            metrics.failure(CANCEL_BOOKING, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a list of rooms that can accommodate the given capacity and are available between the specified check-in and check-out dates.
+     *
+     * @param capacity     the desired capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @return a list of rooms that meet the criteria
+     */
+    public List<Room> suggestRoom(int capacity, LocalDate checkInDate, LocalDate checkOutDate) throws ParamNotValidException {
+        return suggestRoom(capacity, checkInDate, checkOutDate, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a page of the rooms that can accommodate the given capacity and are available between the specified check-in and check-out dates.
+     * The search stops as soon as the page is full, so {@code suggestRoom(capacity, checkInDate, checkOutDate, 0, n)} returns the first n rooms.
+     *
+     * @param capacity     the desired capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param offset       the number of available rooms to skip
+     * @param limit        the maximum number of rooms to return
+     * @return a list of rooms that meet the criteria, in the order of the hotel's rooms
+     */
+    public List<Room> suggestRoom(int capacity, LocalDate checkInDate, LocalDate checkOutDate, int offset, int limit) throws ParamNotValidException {
+        OperationResult<List<Room>> result = trySuggestRoom(capacity, checkInDate, checkOutDate, offset, limit);
+        if (!result.isSuccess()) {
+            throw new ParamNotValidException();
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Returns a page of the rooms that can accommodate the given capacity and are available between the specified check-in and check-out dates.
+     *
+     * @param capacity     the desired capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param offset       the number of available rooms to skip
+     * @param limit        the maximum number of rooms to return
+     * @return a list of rooms that meet the criteria, in the order of the hotel's rooms, or PARAM_NOT_VALID
+     */
+    public OperationResult<List<Room>> trySuggestRoom(int capacity, LocalDate checkInDate, LocalDate checkOutDate, int offset, int limit) {
+        long start = metrics.start();
+        try {
+            return record(SUGGEST_ROOM, start, suggest(capacity, checkInDate, checkOutDate, offset, limit));
+        } catch (RuntimeException e) {
+            metrics.failure(SUGGEST_ROOM, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Books a room, or adds the guest to the waitlist of the room if it is not available.
+     *
+     * @param roomNumber   the room number to book
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the waitlist entry, whose allocation completes with the booking
+     * @throws RoomNotFoundException  if the room does not exist
+     * @throws ParamNotValidException if a param is not valid
+     */
+    public WaitlistEntry bookRoomOrWait(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) throws RoomNotFoundException, ParamNotValidException {
+        return entryOrThrow(tryBookRoomOrWait(roomNumber, checkInDate, checkOutDate, fullName));
+    }
+
+    /**
+     * Books a room, or adds the guest to the waitlist of the room if it is not available.
+     *
+     * @param roomNumber   the room number to book
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the waitlist entry, whose allocation completes with the booking, or PARAM_NOT_VALID or ROOM_NOT_FOUND
+     */
+    public OperationResult<WaitlistEntry> tryBookRoomOrWait(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        long start = metrics.start();
+        try {
+            return record(BOOK_OR_WAIT, start, bookOrWait(true, roomNumber, checkInDate, checkOutDate, fullName));
+        } catch (RuntimeException e) {
+            metrics.failure(BOOK_OR_WAIT, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Books any room of a capacity, or adds the guest to the waitlist of the capacity if none is available.
+     *
+     * @param capacity     the capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the waitlist entry, whose allocation completes with the booking
+     * @throws RoomNotFoundException  if the hotel has no room of this capacity
+     * @throws ParamNotValidException if a param is not valid
+     */
+    public WaitlistEntry bookCapacityOrWait(int capacity, LocalDate checkInDate, LocalDate checkOutDate, String fullName) throws RoomNotFoundException, ParamNotValidException {
+        return entryOrThrow(tryBookCapacityOrWait(capacity, checkInDate, checkOutDate, fullName));
+    }
+
+    /**
+     * Books any room of a capacity, or adds the guest to the waitlist of the capacity if none is available.
+     *
+     * @param capacity     the capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the waitlist entry, whose allocation completes with the booking, or PARAM_NOT_VALID or ROOM_NOT_FOUND
+     */
+    public OperationResult<WaitlistEntry> tryBookCapacityOrWait(int capacity, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        long start = metrics.start();
+        try {
+            return record(BOOK_OR_WAIT, start, bookOrWait(false, capacity, checkInDate, checkOutDate, fullName));
+        } catch (RuntimeException e) {
+            metrics.failure(BOOK_OR_WAIT, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the available rooms best fitting a party between the specified check-in and check-out dates.
+     * The party size is a minimum capacity: rooms are ranked by the beds left empty, then by price,
+     * and the search stops as soon as the limit is reached.
+     *
+     * @param partySize    the number of guests
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param limit        the maximum number of rooms to return
+     * @return the best fitting rooms, the best first
+     * @throws ParamNotValidException if a param is not valid
+     */
+    public List<Room> suggestBestFit(int partySize, LocalDate checkInDate, LocalDate checkOutDate, int limit) throws ParamNotValidException {
+        OperationResult<List<Room>> result = trySuggestBestFit(partySize, checkInDate, checkOutDate, limit);
+        if (!result.isSuccess()) {
+            throw new ParamNotValidException();
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Returns the available rooms best fitting a party between the specified check-in and check-out dates.
+     *
+     * @param partySize    the number of guests
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param limit        the maximum number of rooms to return
+     * @return the best fitting rooms, the best first, or PARAM_NOT_VALID
+     */
+    public OperationResult<List<Room>> trySuggestBestFit(int partySize, LocalDate checkInDate, LocalDate checkOutDate, int limit) {
+        long start = metrics.start();
+        try {
+            return record(SUGGEST_BEST_FIT, start, suggestByFit(partySize, checkInDate, checkOutDate, limit));
+        } catch (RuntimeException e) {
+            metrics.failure(SUGGEST_BEST_FIT, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the free and busy nights of every room of the hotel over a window of nights,
+     * with the number of free rooms of each capacity for each night.
+     *
+     * @param from the first night
+     * @param to   the day after the last night
+     * @return the calendar of the rooms, in the order of the hotel's rooms
+     * @throws ParamNotValidException if the window is not valid, starts in the past or is longer than a year
+     */
+    public AvailabilityCalendar getAvailabilityCalendar(LocalDate from, LocalDate to) throws ParamNotValidException {
+        OperationResult<AvailabilityCalendar> result = tryGetAvailabilityCalendar(null, from, to);
+        if (!result.isSuccess()) {
+            throw new ParamNotValidException();
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Returns the free and busy nights of some rooms over a window of nights,
+     * with the number of free rooms of each capacity for each night.
+     *
+     * @param roomNumbers the numbers of the rooms
+     * @param from        the first night
+     * @param to          the day after the last night
+     * @return the calendar of the rooms, in the order they were requested
+     * @throws ParamNotValidException if the window is not valid, starts in the past or is longer than a year
+     * @throws RoomNotFoundException  if a room does not exist
+     */
+    public AvailabilityCalendar getAvailabilityCalendar(List<Integer> roomNumbers, LocalDate from, LocalDate to) throws ParamNotValidException, RoomNotFoundException {
+        //check if param is valid
+        if (roomNumbers == null) {
+            long start = metrics.start();
+            record(AVAILABILITY_CALENDAR, start, OperationResult.failure(OperationStatus.PARAM_NOT_VALID));
+            throw new ParamNotValidException();
+        }
+        OperationResult<AvailabilityCalendar> result = tryGetAvailabilityCalendar(roomNumbers, from, to);
+        switch (result.getStatus()) {
+            case PARAM_NOT_VALID -> throw new ParamNotValidException();
+            case ROOM_NOT_FOUND -> throw new RoomNotFoundException();
+            default -> {
+                return result.getValue();
+            }
+        }
+    }
+
+    /**
+     * Returns the free and busy nights of some rooms over a window of nights,
+     * with the number of free rooms of each capacity for each night.
+     * The nights of each room are read from its bitmap of occupied nights, in one pass over the window.
+     *
+     * @param roomNumbers the numbers of the rooms, or null for every room of the hotel
+     * @param from        the first night
+     * @param to          the day after the last night
+     * @return the calendar of the rooms, or PARAM_NOT_VALID or ROOM_NOT_FOUND
+     */
+    public OperationResult<AvailabilityCalendar> tryGetAvailabilityCalendar(List<Integer> roomNumbers, LocalDate from, LocalDate to) {
+        long start = metrics.start();
+        try {
+            return record(AVAILABILITY_CALENDAR, start, calendar(roomNumbers, from, to));
+        } catch (RuntimeException e) {
+            metrics.failure(AVAILABILITY_CALENDAR, start, e);
+            throw e;
+        }
+    }
+
+    private <T> OperationResult<T> record(String operation, long start, OperationResult<T> result) {
+        metrics.record(operation, result.getStatus().getOutcome(), start);
+        return result;
+    }
+
+    private static List<Booking> bookingsOrThrow(OperationResult<List<Booking>> result) throws ParamNotValidException {
+        if (!result.isSuccess()) {
+            throw new ParamNotValidException();
+        }
+        return result.getValue();
+    }
+
+    private static WaitlistEntry entryOrThrow(OperationResult<WaitlistEntry> result) throws RoomNotFoundException, ParamNotValidException {
+        switch (result.getStatus()) {
+            case PARAM_NOT_VALID -> throw new ParamNotValidException();
+            case ROOM_NOT_FOUND -> throw new RoomNotFoundException();
+            default -> {
+                return result.getValue();
+            }
+        }
+    }
+
+    private OperationResult<Booking> findBooking(int roomNumber, String fullName, LocalDate date) {
+        //check if param is valid
+        if (date == null || fullName == null || fullName.isEmpty()) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //check if room exists
+        if (!hotel.checkRoomExists(roomNumber)) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_FOUND);
+        }
+
+        //search booking, in the archive if it is a past stay
+        Optional<Booking> booking = hotel.findBooking(roomNumber, fullName, date);
+        if (booking.isEmpty() && date.isBefore(today.get())) {
+            booking = hotel.getArchivedBookings(roomNumber, fullName, date).stream().findFirst();
+        }
+        return booking.isPresent() ? OperationResult.success(booking.get()) : OperationResult.failure(OperationStatus.BOOKING_NOT_FOUND);
+    }
+
+    private OperationResult<List<Booking>> findBookings(String fullName, LocalDate date) {
+        //check if param is valid
+        if (fullName == null || fullName.isBlank()) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //get all bookings for this guest, including the date if any
+        List<Booking> bookingsForGuest = hotel.getBookingsForGuest(fullName);
+        if (date == null) {
+            return OperationResult.success(bookingsForGuest);
+        }
+        return OperationResult.success(bookingsForGuest.stream()
+                .filter(booking -> isDuring(booking, date))
+                .toList());
+    }
+
+    private OperationResult<Booking> book(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        //check if param is valid
+        if (fullName == null || fullName.isEmpty() || !isStay(checkInDate, checkOutDate)) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //check if room exists
+        if (!hotel.checkRoomExists(roomNumber)) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_FOUND);
+        }
+
+        //check if room is available before creating the booking, it is checked again when it is added
+        if (!hotel.checkRoomAvailability(roomNumber, checkInDate, checkOutDate)) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_AVAILABLE);
+        }
+
+        //create booking
+        Booking booking = Booking.builder()
+                .reference(hotel.nextReference())
+                .roomNumber(roomNumber)
+                .checkInDate(checkInDate)
+                .checkOutDate(checkOutDate)
+                .fullName(fullName)
+                .build();
+
+        //book room if it is still available
+        if (!hotel.addBookingIfAvailable(booking)) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_AVAILABLE);
+        }
+        return OperationResult.success(booking);
+    }
+
+    private OperationResult<List<Booking>> bookAll(List<BookingRequest> requests) {
+        //check if params are valid and rooms exist
+        if (requests == null || requests.isEmpty()) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+        for (BookingRequest request : requests) {
+            if (request == null || request.getFullName() == null || request.getFullName().isEmpty() || !isStay(request.getCheckInDate(), request.getCheckOutDate())) {
+                return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+            }
+            if (!hotel.checkRoomExists(request.getRoomNumber())) {
+                return OperationResult.failure(OperationStatus.ROOM_NOT_FOUND);
+            }
+        }
+
+        //check if requests overlap each other
+        List<BookingRequest> sorted = requests.stream()
+                .sorted(Comparator.comparingInt(BookingRequest::getRoomNumber).thenComparing(BookingRequest::getCheckInDate))
+                .toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            BookingRequest previous = sorted.get(i - 1);
+            BookingRequest next = sorted.get(i);
+            if (previous.getRoomNumber() == next.getRoomNumber() && next.getCheckInDate().isBefore(previous.getCheckOutDate())) {
+                return OperationResult.failure(OperationStatus.BOOKING_NOT_VALID);
+            }
+        }
+
+        //create bookings
+        List<Booking> bookings = new ArrayList<>(requests.size());
+        for (BookingRequest request : requests) {
+            bookings.add(Booking.builder()
+                    .reference(hotel.nextReference())
+                    .roomNumber(request.getRoomNumber())
+                    .checkInDate(request.getCheckInDate())
+                    .checkOutDate(request.getCheckOutDate())
+                    .fullName(request.getFullName())
+                    .build());
+        }
+
+        //book rooms if they are all still available
+        if (!hotel.addBookingsIfAvailable(bookings)) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_AVAILABLE);
+        }
+        return OperationResult.success(bookings);
+    }
+
+    private OperationResult<Booking> cancel(int reference) {
+        //search booking
+        Optional<Booking> booking = hotel.getBookingByReference(reference);
+
+        //cancel booking unless it has just been cancelled by someone else, and book the freed nights
+        //for the guests waiting for them before the room is unlocked
+        if (booking.isEmpty() || !hotel.removeBooking(booking.get(), cancelled -> waitlist.bookingCancelled(hotel, cancelled, today.get()))) {
+            return OperationResult.failure(OperationStatus.BOOKING_NOT_FOUND);
+        }
+        return OperationResult.success(booking.get());
+    }
+
+    private OperationResult<List<Room>> suggest(int capacity, LocalDate checkInDate, LocalDate checkOutDate, int offset, int limit) {
+        //check if param is valid
+        if (capacity <= 0 || offset < 0 || limit <= 0 || !isStay(checkInDate, checkOutDate)) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //filter rooms with capacity and availability until the page is full
+        List<Room> rooms = new ArrayList<>();
+        int skipped = 0;
+        for (Room room : hotel.getRoomsWithCapacity(capacity)) {
+            if (hotel.checkRoomAvailability(room.getRoomNumber(), checkInDate, checkOutDate)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    rooms.add(room);
+                    if (rooms.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return OperationResult.success(rooms);
+    }
+
+    private OperationResult<WaitlistEntry> bookOrWait(boolean forRoom, int roomNumberOrCapacity, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        //check if param is valid
+        if (fullName == null || fullName.isEmpty() || !isStay(checkInDate, checkOutDate) || (!forRoom && roomNumberOrCapacity <= 0)) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //check if rooms exist
+        List<Room> rooms = forRoom
+                ? hotel.getRoom(roomNumberOrCapacity).map(List::of).orElse(List.of())
+                : hotel.getRoomsWithCapacity(roomNumberOrCapacity);
+        if (rooms.isEmpty()) {
+            return OperationResult.failure(OperationStatus.ROOM_NOT_FOUND);
+        }
+
+        //book a room, or wait for one
+        return OperationResult.success(waitlist.bookOrWait(hotel, forRoom, rooms, checkInDate, checkOutDate, fullName, today.get()));
+    }
+
+    private OperationResult<List<Room>> suggestByFit(int partySize, LocalDate checkInDate, LocalDate checkOutDate, int limit) {
+        //check if param is valid
+        if (partySize <= 0 || limit <= 0 || !isStay(checkInDate, checkOutDate)) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //rooms come by waste then price, so the first available ones are the best
+        List<Room> rooms = new ArrayList<>(Math.min(limit, 16));
+        for (Room room : hotel.getRoomsByFit(partySize)) {
+            if (hotel.checkRoomAvailability(room.getRoomNumber(), checkInDate, checkOutDate)) {
+                rooms.add(room);
+                if (rooms.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return OperationResult.success(rooms);
+    }
+
+    private OperationResult<AvailabilityCalendar> calendar(List<Integer> roomNumbers, LocalDate from, LocalDate to) {
+        //check if param is valid
+        if (!isStay(from, to) || to.toEpochDay() - from.toEpochDay() > MAX_CALENDAR_NIGHTS) {
+            return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+        }
+
+        //check if rooms exist, a room requested twice is counted once
+        Map<Integer, Room> rooms = new LinkedHashMap<>();
+        if (roomNumbers == null) {
+            hotel.getRooms().forEach(room -> rooms.put(room.getRoomNumber(), room));
+        } else {
+            for (Integer roomNumber : roomNumbers) {
+                if (roomNumber == null) {
+                    return OperationResult.failure(OperationStatus.PARAM_NOT_VALID);
+                }
+                Optional<Room> room = hotel.getRoom(roomNumber);
+                if (room.isEmpty()) {
+                    return OperationResult.failure(OperationStatus.ROOM_NOT_FOUND);
+                }
+                rooms.put(roomNumber, room.get());
+            }
+        }
+
+        //read the busy nights of each room and count down the free rooms of its capacity on those nights
+        int nights = (int) (to.toEpochDay() - from.toEpochDay());
+        Map<Integer, BitSet> busyNightsByRoom = new HashMap<>();
+        Map<Integer, int[]> freeRoomsByCapacity = new TreeMap<>();
+        for (Room room : rooms.values()) {
+            BitSet busyNights = hotel.getOccupiedNights(room.getRoomNumber(), from, to);
+            busyNightsByRoom.put(room.getRoomNumber(), busyNights);
+            int[] freeRooms = freeRoomsByCapacity.computeIfAbsent(room.getCapacity(), capacity -> new int[nights]);
+            for (int night = 0; night < nights; night++) {
+                freeRooms[night]++;
+            }
+            for (int night = busyNights.nextSetBit(0); night >= 0; night = busyNights.nextSetBit(night + 1)) {
+                freeRooms[night]--;
+            }
+        }
+        return OperationResult.success(new AvailabilityCalendar(from, to, new ArrayList<>(rooms.values()), busyNightsByRoom, freeRoomsByCapacity));
+    }
+
+    /**
+     * Validates the dates of a stay in one pass: both are set, it lasts at least a night and does not start in the past.
+     */
+    private boolean isStay(LocalDate checkInDate, LocalDate checkOutDate) {
+        return checkInDate != null && checkOutDate != null && checkInDate.isBefore(checkOutDate) && !checkInDate.isBefore(today.get());
+    }
+
+    private static boolean isDuring(Booking booking, LocalDate date) {
+        return (date.isAfter(booking.getCheckInDate()) && date.isBefore(booking.getCheckOutDate())) || date.isEqual(booking.getCheckInDate()) || date.isEqual(booking.getCheckOutDate());
+    }
+}
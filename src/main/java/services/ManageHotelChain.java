@@ -0,0 +1,249 @@
+package services;
+
+import entities.Booking;
+import entities.Room;
+import exceptions.BookingNotFoundException;
+import exceptions.BookingNotValidException;
+import exceptions.HotelNotFoundException;
+import exceptions.ParamNotValidException;
+import exceptions.RoomNotAvailableException;
+import exceptions.RoomNotFoundException;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class manages a chain of hotels, each one managed by its own {@link ManageHotel}, with its own locks and indexes.
+ * <p>
+ * Booking operations are routed to the hotel they name, so bookings in different hotels never contend.
+ * Searches across the chain are fanned out to the hotels in parallel and their results are merged,
+ * in the order of the hotels and then in the order each hotel returns them.
+ */
+@Getter
+public class ManageHotelChain {
+
+    private final Map<String, ManageHotel> hotels;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a chain, see {@link #builder()}.
+     *
+     * @param hotels   the managers of the hotels by hotel id, in the order of the hotels
+     * @param executor the executor searching the hotels, the common pool if null
+     */
+    @Builder
+    private ManageHotelChain(Map<String, ManageHotel> hotels, ExecutorService executor) {
+        this.hotels = Collections.unmodifiableMap(new LinkedHashMap<>(hotels));
+        this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Searches for a booking of a hotel based on the room number, guest's full name, and date.
+     *
+     * @param hotelId    the id of the hotel
+     * @param roomNumber the room number to search for
+     * @param fullName   the full name of the guest to search for
+     * @param date       the date to search for
+     * @return the booking that matches the search criteria
+     * @throws HotelNotFoundException   if the hotel does not exist
+     * @throws RoomNotFoundException    if the room does not exist
+     * @throws BookingNotFoundException if the booking is not found
+     */
+    public Booking searchBooking(String hotelId, int roomNumber, String fullName, LocalDate date) throws HotelNotFoundException, RoomNotFoundException, BookingNotFoundException, ParamNotValidException {
+        return hotel(hotelId).searchBooking(roomNumber, fullName, date);
+    }
+
+    /**
+     * Searches for all bookings of a guest in every hotel of the chain.
+     *
+     * @param fullName the full name of the guest to search for
+     * @return the bookings of the guest, by hotel and then by check-in date
+     * @throws ParamNotValidException if the full name is not valid
+     */
+    public List<HotelBooking> searchBookings(String fullName) throws ParamNotValidException {
+        return fanOut((hotelId, manageHotel) -> manageHotel.searchBookings(fullName).stream()
+                .map(booking -> new HotelBooking(hotelId, booking))
+                .toList());
+    }
+
+    /**
+     * Searches for the bookings of a guest that include the given date, in every hotel of the chain.
+     *
+     * @param fullName the full name of the guest to search for
+     * @param date     the date to search for
+     * @return the bookings of the guest including the date, by hotel and then by check-in date
+     * @throws ParamNotValidException if the full name or the date is not valid
+     */
+    public List<HotelBooking> searchBookings(String fullName, LocalDate date) throws ParamNotValidException {
+        return fanOut((hotelId, manageHotel) -> manageHotel.searchBookings(fullName, date).stream()
+                .map(booking -> new HotelBooking(hotelId, booking))
+                .toList());
+    }
+
+    /**
+     * Books a room of a hotel with the given details.
+     *
+     * @param hotelId      the id of the hotel
+     * @param roomNumber   the room number to book
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @return the booking that has been made
+     * @throws HotelNotFoundException    if the hotel does not exist
+     * @throws RoomNotAvailableException if the room is not available for the given dates
+     * @throws RoomNotFoundException     if the room does not exist
+     * @throws BookingNotValidException  if the booking is not valid
+     */
+    public Booking bookRoom(String hotelId, int roomNumber, LocalDate checkInDate, LocalDate checkOutDate, String fullName) throws HotelNotFoundException, RoomNotAvailableException, RoomNotFoundException, BookingNotValidException, ParamNotValidException {
+        return hotel(hotelId).bookRoom(roomNumber, checkInDate, checkOutDate, fullName);
+    }
+
+    /**
+     * Cancels a booking of a hotel based on the provided reference.
+     *
+     * @param hotelId   the id of the hotel
+     * @param reference the reference of the booking to be canceled, references are unique within a hotel
+     * @throws HotelNotFoundException   if the hotel does not exist
+     * @throws BookingNotFoundException if the booking is not found
+     */
+    public void cancelBooking(String hotelId, int reference) throws HotelNotFoundException, BookingNotFoundException {
+        hotel(hotelId).cancelBooking(reference);
+    }
+
+    /**
+     * Returns the rooms of every hotel of the chain that can accommodate the given capacity and are available between the specified dates.
+     *
+     * @param capacity     the desired capacity of the room
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @return the rooms that meet the criteria, by hotel and then in the order of the hotel's rooms
+     * @throws ParamNotValidException if the params are not valid
+     */
+    public List<HotelRoom> suggestRoom(int capacity, LocalDate checkInDate, LocalDate checkOutDate) throws ParamNotValidException {
+        return fanOut((hotelId, manageHotel) -> manageHotel.suggestRoom(capacity, checkInDate, checkOutDate).stream()
+                .map(room -> new HotelRoom(hotelId, room))
+                .toList());
+    }
+
+    private ManageHotel hotel(String hotelId) throws HotelNotFoundException {
+        ManageHotel manageHotel = hotels.get(hotelId);
+        if (manageHotel == null) {
+            throw new HotelNotFoundException();
+        }
+        return manageHotel;
+    }
+
+    private <T> List<T> fanOut(HotelQuery<T> query) throws ParamNotValidException {
+        List<Map.Entry<String, ManageHotel>> entries = List.copyOf(hotels.entrySet());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        //search the other hotels in parallel, and the first one in the calling thread
+        List<Future<List<T>>> futures = new ArrayList<>(entries.size() - 1);
+        for (Map.Entry<String, ManageHotel> entry : entries.subList(1, entries.size())) {
+            futures.add(executor.submit(() -> query.apply(entry.getKey(), entry.getValue())));
+        }
+        List<T> results;
+        try {
+            results = new ArrayList<>(query.apply(entries.get(0).getKey(), entries.get(0).getValue()));
+        } catch (ParamNotValidException | RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        //merge the results in the order of the hotels
+        for (Future<List<T>> future : futures) {
+            results.addAll(await(future));
+        }
+        return results;
+    }
+
+    private static <T> List<T> await(Future<List<T>> future) throws ParamNotValidException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching the hotels", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ParamNotValidException paramNotValidException) {
+                throw paramNotValidException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Represents a search run on one hotel of the chain.
+     */
+    private interface HotelQuery<T> {
+
+        List<T> apply(String hotelId, ManageHotel manageHotel) throws ParamNotValidException;
+    }
+
+    /**
+     * Represents a room of a hotel of the chain.
+     *
+     * @param hotelId the id of the hotel
+     * @param room    the room
+     */
+    public record HotelRoom(String hotelId, Room room) {
+    }
+
+    /**
+     * Represents a booking of a hotel of the chain.
+     *
+     * @param hotelId the id of the hotel
+     * @param booking the booking
+     */
+    public record HotelBooking(String hotelId, Booking booking) {
+    }
+
+    /**
+     * Builds a chain, adding the hotels one by one.
+     */
+    public static class ManageHotelChainBuilder {
+
+        // filled here rather than with @Singular, whose generated code casts every value
+        private final Map<String, ManageHotel> hotels = new LinkedHashMap<>();
+
+        /**
+         * Adds a hotel to the chain.
+         *
+         * @param hotelId     the id of the hotel
+         * @param manageHotel the manager of the hotel
+         * @return this builder
+         */
+        public ManageHotelChainBuilder hotel(String hotelId, ManageHotel manageHotel) {
+            hotels.put(hotelId, manageHotel);
+            return this;
+        }
+
+        /**
+         * Adds hotels to the chain.
+         *
+         * @param hotels the managers of the hotels by hotel id
+         * @return this builder
+         */
+        public ManageHotelChainBuilder hotels(Map<String, ManageHotel> hotels) {
+            this.hotels.putAll(hotels);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package services;
+
+/**
+ * Represents the result of an operation of {@link ManageHotel}: its status and, if it succeeded, its value.
+ * The result of a rejection is shared, so rejecting a request allocates nothing.
+ *
+ * @param <T> the type of the value
+ */
+public final class OperationResult<T> {
+
+    private static final OperationResult<?>[] FAILURES = new OperationResult<?>[OperationStatus.values().length];
+
+    static {
+        for (OperationStatus status : OperationStatus.values()) {
+            FAILURES[status.ordinal()] = new OperationResult<>(status, null);
+        }
+    }
+
+    private final OperationStatus status;
+    private final T value;
+
+    private OperationResult(OperationStatus status, T value) {
+        this.status = status;
+        this.value = value;
+    }
+
+    /**
+     * Returns the result of an operation that succeeded.
+     *
+     * @param value the value of the operation
+     * @param <T>   the type of the value
+     * @return the result
+     */
+    public static <T> OperationResult<T> success(T value) {
+        return new OperationResult<>(OperationStatus.SUCCESS, value);
+    }
+
+    /**
+     * Returns the result of an operation that was rejected.
+     *
+     * @param status the reason of the rejection
+     * @param <T>    the type of the value
+     * @return the shared result of the status
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> OperationResult<T> failure(OperationStatus status) {
+        if (status == OperationStatus.SUCCESS) {
+            throw new IllegalArgumentException("A success has a value");
+        }
+        return (OperationResult<T>) FAILURES[status.ordinal()];
+    }
+
+    /**
+     * Returns the status of the operation.
+     *
+     * @return the status
+     */
+    public OperationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the value of the operation.
+     *
+     * @return the value, or null if the operation was rejected
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Tells whether the operation succeeded.
+     *
+     * @return true if the operation succeeded
+     */
+    public boolean isSuccess() {
+        return status == OperationStatus.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "OperationResult(" + value + ")" : "OperationResult(" + status + ")";
+    }
+}
@@ -0,0 +1,43 @@
+package services;
+
+import metrics.HotelMetrics;
+
+/**
+ * Represents the outcome of an operation of {@link ManageHotel}: a success, or the reason it was rejected.
+ * Each rejection matches the exception thrown by the exception-throwing variant of the operation.
+ */
+public enum OperationStatus {
+
+    SUCCESS(HotelMetrics.SUCCESS, null),
+    PARAM_NOT_VALID("ParamNotValidException", "Param not valid"),
+    ROOM_NOT_FOUND("RoomNotFoundException", "Room not found"),
+    ROOM_NOT_AVAILABLE("RoomNotAvailableException", "Room not available"),
+    BOOKING_NOT_FOUND("BookingNotFoundException", "Booking not found"),
+    BOOKING_NOT_VALID("BookingNotValidException", "Booking not valid");
+
+    private final String outcome;
+    private final String message;
+
+    OperationStatus(String outcome, String message) {
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    /**
+     * Returns the outcome recorded in the metrics, the same as when the exception is thrown.
+     *
+     * @return the outcome
+     */
+    public String getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the message of the rejection, the same as the exception's.
+     *
+     * @return the message, or null for a success
+     */
+    public String getMessage() {
+        return message;
+    }
+}
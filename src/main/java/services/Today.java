@@ -0,0 +1,58 @@
+package services;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Represents the current date of a clock, computed once a day.
+ * Reading it costs a read of the clock's time, the date is only recomputed when the day changes.
+ */
+public final class Today {
+
+    private static final Today SYSTEM = new Today(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private volatile Day day = new Day(LocalDate.MIN, 0, 0);
+
+    /**
+     * Creates the current date of a clock.
+     *
+     * @param clock the clock, its zone tells when a day starts
+     */
+    public Today(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current date of the system clock, in the default time zone.
+     *
+     * @return the current date
+     */
+    public static Today system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Returns the current date.
+     *
+     * @return the date
+     */
+    public LocalDate get() {
+        long now = clock.millis();
+        Day current = day;
+        if (now < current.start || now >= current.end) {
+            LocalDate date = LocalDate.now(clock);
+            current = new Day(date,
+                    date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli());
+            day = current;
+        }
+        return current.date;
+    }
+
+    /**
+     * Represents a date and the instants it starts and ends, in milliseconds.
+     */
+    private record Day(LocalDate date, long start, long end) {
+    }
+}
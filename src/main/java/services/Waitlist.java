@@ -0,0 +1,206 @@
+package services;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import exceptions.RoomNotAvailableException;
+import indexes.IntervalIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the guests waiting for a room, or for any room of a capacity, to be free for their stay.
+ * <p>
+ * Entries are indexed by room and by capacity in {@link IntervalIndex}es of their stays. When a booking is cancelled,
+ * only the entries waiting for its room or its capacity whose stay overlaps the freed nights are looked up,
+ * and they are booked in the order they joined the waitlist while the room is still available for them.
+ * <p>
+ * Entries whose check-in date has passed expire whenever the waitlist is used, or when {@link #expire} is called:
+ * their allocation completes exceptionally with a {@link RoomNotAvailableException}.
+ * <p>
+ * It is thread-safe without a lock of its own: each index of a room or a capacity is locked while it is read or changed.
+ * A cancellation hands the freed nights over while its room is still locked, and a guest joins the waitlist
+ * while the rooms it waits for are locked, so the guest is either booked or seen by the cancellation,
+ * and no other booking of the room can take the freed nights before the waiting guests.
+ * A cancellation when no guest waits locks nothing.
+ */
+public class Waitlist {
+
+    private static final Comparator<WaitlistEntry> FIFO = Comparator.comparingLong(WaitlistEntry::getSequence);
+    private static final Comparator<WaitlistEntry> BY_CHECK_IN = Comparator.comparing(WaitlistEntry::getCheckInDate).thenComparing(FIFO);
+
+    private final Map<Integer, IntervalIndex<WaitlistEntry>> entriesByRoom = new ConcurrentHashMap<>();
+    private final Map<Integer, IntervalIndex<WaitlistEntry>> entriesByCapacity = new ConcurrentHashMap<>();
+    // the entries waiting, by check-in date, to expire them
+    private final NavigableSet<WaitlistEntry> entriesByCheckIn = new ConcurrentSkipListSet<>(BY_CHECK_IN);
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Books one of some rooms for a stay, or adds the guest to the waitlist if none is available.
+     *
+     * @param hotel        the hotel
+     * @param forRoom      true if the guest waits for the room, false for any room of its capacity
+     * @param rooms        the rooms the guest accepts, all of the same capacity
+     * @param checkInDate  the check-in date
+     * @param checkOutDate the check-out date
+     * @param fullName     the full name of the guest
+     * @param today        the current date, the entries whose check-in date is before expire
+     * @return the entry, whose allocation is already complete if a room was booked
+     */
+    WaitlistEntry bookOrWait(Hotel hotel, boolean forRoom, List<Room> rooms, LocalDate checkInDate, LocalDate checkOutDate, String fullName, LocalDate today) {
+        expire(today);
+        Room first = rooms.get(0);
+        WaitlistEntry entry = new WaitlistEntry(nextSequence.getAndIncrement(), forRoom, forRoom ? first.getRoomNumber() : 0, first.getCapacity(), checkInDate, checkOutDate, fullName);
+        // the rooms are locked while the guest joins, so a room freed meanwhile is either booked here or sees the entry
+        return hotel.whileRoomsLocked(rooms.stream().map(Room::getRoomNumber).toList(), () -> {
+            for (Room room : rooms) {
+                if (allocate(hotel, entry, room.getRoomNumber())) {
+                    return entry;
+                }
+            }
+            IntervalIndex<WaitlistEntry> index = index(entry);
+            synchronized (index) {
+                index.add(checkInDate.toEpochDay(), checkOutDate.toEpochDay(), entry);
+                entriesByCheckIn.add(entry);
+                size.incrementAndGet();
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Books the freed room for the entries waiting for it, or for its capacity, whose stay overlaps the cancelled one.
+     * It must be called while the room is still locked. Entries whose booking a listener refused are dropped.
+     *
+     * @param hotel     the hotel
+     * @param cancelled the cancelled booking
+     * @param today     the current date
+     */
+    void bookingCancelled(Hotel hotel, Booking cancelled, LocalDate today) {
+        //check if a guest waits
+        if (size.get() == 0) {
+            return;
+        }
+        expire(today);
+        Room room = hotel.getRoom(cancelled.getRoomNumber()).orElse(null);
+        if (room == null) {
+            return;
+        }
+        long from = cancelled.getCheckInDate().toEpochDay();
+        long to = cancelled.getCheckOutDate().toEpochDay();
+        IntervalIndex<WaitlistEntry> forRoom = entriesByRoom.computeIfAbsent(room.getRoomNumber(), roomNumber -> new IntervalIndex<>());
+        IntervalIndex<WaitlistEntry> forCapacity = entriesByCapacity.computeIfAbsent(room.getCapacity(), capacity -> new IntervalIndex<>());
+        // the index of the room before the index of the capacity, no other code locks both
+        synchronized (forRoom) {
+            synchronized (forCapacity) {
+                List<WaitlistEntry> candidates = new ArrayList<>(forRoom.getOverlapping(from, to));
+                candidates.addAll(forCapacity.getOverlapping(from, to));
+                candidates.sort(FIFO);
+                for (WaitlistEntry entry : candidates) {
+                    try {
+                        if (allocate(hotel, entry, room.getRoomNumber())) {
+                            unindex(entry);
+                        }
+                    } catch (RuntimeException e) {
+                        // a listener refused the booking, the other guests are still booked
+                        unindex(entry);
+                        entry.getAllocation().completeExceptionally(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entries whose check-in date is before a date, their allocation completes exceptionally.
+     *
+     * @param today the current date
+     * @return the number of entries removed
+     */
+    public int expire(LocalDate today) {
+        int expired = 0;
+        for (WaitlistEntry entry : entriesByCheckIn) {
+            if (!entry.getCheckInDate().isBefore(today)) {
+                break;
+            }
+            IntervalIndex<WaitlistEntry> index = index(entry);
+            synchronized (index) {
+                if (unindex(entry)) {
+                    entry.getAllocation().completeExceptionally(new RoomNotAvailableException());
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Removes an entry from the waitlist and cancels its allocation.
+     *
+     * @param entry the entry
+     * @return true if the guest was waiting, false if a room has been booked or the guest already left
+     */
+    public boolean remove(WaitlistEntry entry) {
+        IntervalIndex<WaitlistEntry> index = index(entry);
+        synchronized (index) {
+            if (!unindex(entry)) {
+                return false;
+            }
+        }
+        entry.getAllocation().cancel(false);
+        return true;
+    }
+
+    /**
+     * Returns the number of guests waiting.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private boolean allocate(Hotel hotel, WaitlistEntry entry, int roomNumber) {
+        if (!hotel.checkRoomAvailability(roomNumber, entry.getCheckInDate(), entry.getCheckOutDate())) {
+            return false;
+        }
+        Booking booking = Booking.builder()
+                .reference(hotel.nextReference())
+                .roomNumber(roomNumber)
+                .checkInDate(entry.getCheckInDate())
+                .checkOutDate(entry.getCheckOutDate())
+                .fullName(entry.getFullName())
+                .build();
+        if (!hotel.addBookingIfAvailable(booking)) {
+            return false;
+        }
+        entry.getAllocation().complete(booking);
+        return true;
+    }
+
+    private IntervalIndex<WaitlistEntry> index(WaitlistEntry entry) {
+        return entry.isForRoom()
+                ? entriesByRoom.computeIfAbsent(entry.getRoomNumber(), roomNumber -> new IntervalIndex<>())
+                : entriesByCapacity.computeIfAbsent(entry.getCapacity(), capacity -> new IntervalIndex<>());
+    }
+
+    // called while the index of the entry is locked
+    private boolean unindex(WaitlistEntry entry) {
+        if (!index(entry).remove(entry.getCheckInDate().toEpochDay(), entry)) {
+            return false;
+        }
+        entriesByCheckIn.remove(entry);
+        size.decrementAndGet();
+        return true;
+    }
+}
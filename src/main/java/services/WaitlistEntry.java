@@ -0,0 +1,41 @@
+package services;
+
+import entities.Booking;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents a guest waiting for a room, or for any room of a capacity, to be free for a stay.
+ * <p>
+ * Its allocation completes with the booking once it is made, or exceptionally with a
+ * {@link exceptions.RoomNotAvailableException} once the stay has started without a room.
+ * It is cancelled when the guest leaves the waitlist.
+ */
+@Getter
+@ToString
+public final class WaitlistEntry {
+
+    private final long sequence;
+    // true if the guest waits for the given room, false for any room of the capacity
+    private final boolean forRoom;
+    private final int roomNumber;
+    private final int capacity;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final String fullName;
+    @ToString.Exclude
+    private final CompletableFuture<Booking> allocation = new CompletableFuture<>();
+
+    WaitlistEntry(long sequence, boolean forRoom, int roomNumber, int capacity, LocalDate checkInDate, LocalDate checkOutDate, String fullName) {
+        this.sequence = sequence;
+        this.forRoom = forRoom;
+        this.roomNumber = roomNumber;
+        this.capacity = capacity;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.fullName = fullName;
+    }
+}
@@ -0,0 +1,190 @@
+package storage;
+
+import entities.Booking;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Represents a memory-compact store of bookings.
+ * <p>
+ * A booking takes five ints in parallel arrays: reference, room number, check-in and check-out as epoch days,
+ * and the id of the guest name in a {@link NameDictionary}. Slots are found by reference through an {@link IntIntMap}.
+ * A removed booking is replaced by the last one, so removals are O(1) and the arrays stay dense.
+ * {@link Booking} objects are only views, materialized on demand: changing them does not change the store.
+ * <p>
+ * It is thread-safe, every operation locks the store.
+ */
+public class CompactBookingStore {
+
+    private static final int MISSING = -1;
+
+    private final NameDictionary names = new NameDictionary();
+    private final IntIntMap slotsByReference = new IntIntMap(MISSING);
+    private int[] references;
+    private int[] roomNumbers;
+    private int[] checkInDays;
+    private int[] checkOutDays;
+    private int[] nameIds;
+    private int size;
+
+    /**
+     * Creates an empty store.
+     */
+    public CompactBookingStore() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty store sized for the given number of bookings.
+     *
+     * @param capacity the expected number of bookings
+     */
+    public CompactBookingStore(int capacity) {
+        int length = Math.max(1, capacity);
+        references = new int[length];
+        roomNumbers = new int[length];
+        checkInDays = new int[length];
+        checkOutDays = new int[length];
+        nameIds = new int[length];
+    }
+
+    /**
+     * Adds a booking to the store, replacing the booking with the same reference if any.
+     *
+     * @param booking the booking to add
+     */
+    public synchronized void add(Booking booking) {
+        int slot = slotsByReference.get(booking.getReference());
+        if (slot == MISSING) {
+            if (size == references.length) {
+                grow();
+            }
+            slot = size++;
+            slotsByReference.put(booking.getReference(), slot);
+        }
+        references[slot] = booking.getReference();
+        roomNumbers[slot] = booking.getRoomNumber();
+        checkInDays[slot] = (int) booking.getCheckInDate().toEpochDay();
+        checkOutDays[slot] = (int) booking.getCheckOutDate().toEpochDay();
+        nameIds[slot] = names.idOf(booking.getFullName());
+    }
+
+    /**
+     * Removes a booking from the store.
+     *
+     * @param reference the reference of the booking
+     * @return true if the booking was in the store, false otherwise
+     */
+    public synchronized boolean remove(int reference) {
+        int slot = slotsByReference.remove(reference);
+        if (slot == MISSING) {
+            return false;
+        }
+        int last = --size;
+        if (slot != last) {
+            references[slot] = references[last];
+            roomNumbers[slot] = roomNumbers[last];
+            checkInDays[slot] = checkInDays[last];
+            checkOutDays[slot] = checkOutDays[last];
+            nameIds[slot] = nameIds[last];
+            slotsByReference.put(references[slot], slot);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves a booking by its reference.
+     *
+     * @param reference the reference of the booking
+     * @return a view of the booking, or null if no booking has this reference
+     */
+    public synchronized Booking get(int reference) {
+        int slot = slotsByReference.get(reference);
+        return slot == MISSING ? null : view(slot);
+    }
+
+    /**
+     * Retrieves the bookings of a guest in a room that include the given date.
+     * It scans the whole store, which is sequential reads of a few int arrays.
+     *
+     * @param roomNumber the room number
+     * @param fullName   the exact full name of the guest
+     * @param date       the date, from check-in to check-out included
+     * @return views of the bookings, in storage order
+     */
+    public synchronized List<Booking> find(int roomNumber, String fullName, LocalDate date) {
+        int nameId = names.find(fullName);
+        if (nameId < 0) {
+            return List.of();
+        }
+        int day = (int) date.toEpochDay();
+        List<Booking> bookings = new ArrayList<>();
+        for (int slot = 0; slot < size; slot++) {
+            if (nameIds[slot] == nameId && roomNumbers[slot] == roomNumber && checkInDays[slot] <= day && day <= checkOutDays[slot]) {
+                bookings.add(view(slot));
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Passes a view of every booking to a consumer, in storage order.
+     *
+     * @param consumer the consumer of the bookings
+     */
+    public synchronized void forEach(Consumer<Booking> consumer) {
+        for (int slot = 0; slot < size; slot++) {
+            consumer.accept(view(slot));
+        }
+    }
+
+    /**
+     * Returns the number of bookings in the store.
+     *
+     * @return the number of bookings
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes every booking from the store.
+     */
+    public synchronized void clear() {
+        while (size > 0) {
+            slotsByReference.remove(references[--size]);
+        }
+    }
+
+    /**
+     * Returns the number of distinct guest names in the store.
+     *
+     * @return the number of names
+     */
+    public synchronized int nameCount() {
+        return names.size();
+    }
+
+    private Booking view(int slot) {
+        return Booking.builder()
+                .reference(references[slot])
+                .roomNumber(roomNumbers[slot])
+                .checkInDate(LocalDate.ofEpochDay(checkInDays[slot]))
+                .checkOutDate(LocalDate.ofEpochDay(checkOutDays[slot]))
+                .fullName(names.nameOf(nameIds[slot]))
+                .build();
+    }
+
+    private void grow() {
+        int length = references.length + (references.length >> 1) + 1;
+        references = Arrays.copyOf(references, length);
+        roomNumbers = Arrays.copyOf(roomNumbers, length);
+        checkInDays = Arrays.copyOf(checkInDays, length);
+        checkOutDays = Arrays.copyOf(checkOutDays, length);
+        nameIds = Arrays.copyOf(nameIds, length);
+    }
+}
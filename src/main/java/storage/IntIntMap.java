@@ -0,0 +1,129 @@
+package storage;
+
+import java.util.Arrays;
+
+/**
+ * Represents a map from int keys to int values, with open addressing and linear probing, so no key or value is boxed.
+ * It is not thread-safe, its owner guards it.
+ */
+public class IntIntMap {
+
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param missingValue the value returned for a key not in the map
+     */
+    public IntIntMap(int missingValue) {
+        this.missingValue = missingValue;
+        this.keys = new int[16];
+        this.values = new int[16];
+        Arrays.fill(keys, FREE);
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the key, any int but {@link Integer#MIN_VALUE}
+     * @return the value, or the missing value if the key is not in the map
+     */
+    public int get(int key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : missingValue;
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key   the key, any int but {@link Integer#MIN_VALUE}
+     * @param value the value
+     */
+    public void put(int key, int value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key not supported: " + key);
+        }
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size * 4 > keys.length * 3) {
+                values[slot] = value;
+                grow();
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes a key from the map.
+     *
+     * @param key the key
+     * @return the value of the key, or the missing value if the key was not in the map
+     */
+    public int remove(int key) {
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            return missingValue;
+        }
+        int value = values[slot];
+        keys[slot] = FREE;
+        size--;
+        // shift back the following keys of the probe sequence, so lookups never stop at the freed slot
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (slot + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                keys[next] = FREE;
+                free = next;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
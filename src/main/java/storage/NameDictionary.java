@@ -0,0 +1,62 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a dictionary of guest names, each distinct name is stored once and identified by an int.
+ * It is not thread-safe, its owner guards it.
+ */
+public class NameDictionary {
+
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final List<String> namesById = new ArrayList<>();
+
+    /**
+     * Returns the id of a name, adding the name to the dictionary if needed.
+     *
+     * @param name the name
+     * @return the id of the name
+     */
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            id = namesById.size();
+            idsByName.put(name, id);
+            namesById.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a name, without adding it to the dictionary.
+     *
+     * @param name the name
+     * @return the id of the name, or -1 if the dictionary does not hold it
+     */
+    public int find(String name) {
+        Integer id = idsByName.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the name of an id.
+     *
+     * @param id the id of the name
+     * @return the name
+     */
+    public String nameOf(int id) {
+        return namesById.get(id);
+    }
+
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return namesById.size();
+    }
+}
@@ -0,0 +1,118 @@
+package analytics;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import exceptions.ParamNotValidException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OccupancyAnalyticsTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    @Test
+    public void should_behave_like_array_when_use_fenwick_tree() {
+        FenwickTree tree = new FenwickTree(100);
+        long[] expected = new long[100];
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int from = random.nextInt(100);
+            int to = from + random.nextInt(101 - from);
+            if (random.nextBoolean()) {
+                long value = random.nextInt(1000) - 500;
+                tree.add(from, to, value);
+                for (int j = from; j < to; j++) {
+                    expected[j] += value;
+                }
+            } else {
+                long sum = 0;
+                for (int j = from; j < to; j++) {
+                    sum += expected[j];
+                }
+                assertEquals(sum, tree.sum(from, to));
+            }
+        }
+    }
+
+    @Test
+    public void should_return_stats_by_capacity_when_get_stats() throws ParamNotValidException {
+        Hotel hotel = Hotel.builder()
+                .rooms(List.of(room(1, 2, 100), room(2, 2, 150), room(3, 4, 300)))
+                .bookings(new ArrayList<>(List.of(booking(1, 1, 0, 3), booking(2, 2, 1, 2))))
+                .build();
+        OccupancyAnalytics analytics = OccupancyAnalytics.attach(hotel, FIRST_DAY, FIRST_DAY.plusDays(30));
+
+        OccupancyStats stats = analytics.getStats(2, FIRST_DAY, FIRST_DAY.plusDays(4));
+        assertEquals(8, stats.nightsAvailable());
+        assertEquals(4, stats.nightsSold());
+        assertEquals(450, stats.revenue());
+        assertEquals(0.5, stats.occupancy());
+        assertEquals(112.5, stats.adr());
+        assertEquals(56.25, stats.revPar());
+        // the cas if no room of the capacity has been booked
+        assertEquals(0, analytics.getStats(4, FIRST_DAY, FIRST_DAY.plusDays(4)).nightsSold());
+        // the cas if booking has been removed
+        hotel.removeBooking(hotel.getBookingByReference(1).orElseThrow());
+        assertEquals(1, analytics.getStats(2, FIRST_DAY, FIRST_DAY.plusDays(4)).nightsSold());
+        // the cas if range is not within the days analysed
+        assertThrows(ParamNotValidException.class, () -> analytics.getStats(2, FIRST_DAY.minusDays(1), FIRST_DAY));
+        assertThrows(ParamNotValidException.class, () -> analytics.getStats(2, FIRST_DAY, FIRST_DAY));
+    }
+
+    @Test
+    public void should_match_recompute_when_bookings_are_added_and_removed() throws ParamNotValidException {
+        List<Room> rooms = new ArrayList<>();
+        for (int roomNumber = 1; roomNumber <= 20; roomNumber++) {
+            rooms.add(room(roomNumber, 1 + roomNumber % 4, 50 + roomNumber * 10.5));
+        }
+        Hotel hotel = Hotel.builder().rooms(rooms).build();
+        OccupancyAnalytics analytics = OccupancyAnalytics.attach(hotel, FIRST_DAY, FIRST_DAY.plusDays(365));
+        Random random = new Random(7);
+        List<Booking> booked = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            if (!booked.isEmpty() && random.nextInt(3) == 0) {
+                hotel.removeBooking(booked.remove(random.nextInt(booked.size())));
+            } else {
+                // bookings may start before and end after the days analysed
+                int checkIn = random.nextInt(400) - 20;
+                Booking booking = booking(hotel.nextReference(), 1 + random.nextInt(20), checkIn, checkIn + 1 + random.nextInt(14));
+                if (hotel.addBookingIfAvailable(booking)) {
+                    booked.add(booking);
+                }
+            }
+        }
+        hotel.archiveBookings(FIRST_DAY.plusDays(100));
+
+        for (LocalDate[] range : List.of(new LocalDate[]{FIRST_DAY, FIRST_DAY.plusDays(365)}, new LocalDate[]{FIRST_DAY.plusDays(90), FIRST_DAY.plusDays(120)})) {
+            List<OccupancyStats> expected = analytics.recompute(range[0], range[1]);
+            List<OccupancyStats> result = analytics.getStatsByCapacity(range[0], range[1]);
+            assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).nightsSold(), result.get(i).nightsSold());
+                assertEquals(expected.get(i).revenue(), result.get(i).revenue(), 1e-6);
+            }
+        }
+    }
+
+    private static Room room(int roomNumber, int capacity, double price) {
+        return Room.builder().roomNumber(roomNumber).capacity(capacity).price(price).build();
+    }
+
+    private static Booking booking(int reference, int roomNumber, int checkIn, int checkOut) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(roomNumber)
+                .fullName("Guest " + reference)
+                .checkInDate(FIRST_DAY.plusDays(checkIn))
+                .checkOutDate(FIRST_DAY.plusDays(checkOut))
+                .build();
+    }
+}
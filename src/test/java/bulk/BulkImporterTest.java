@@ -0,0 +1,123 @@
+package bulk;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkImporterTest {
+
+    private Hotel HOTEL;
+
+    @BeforeEach
+    public void setUp() {
+        HOTEL = Hotel.builder()
+                .rooms(List.of(Room.builder().roomNumber(1).capacity(2).price(70).build()))
+                .build();
+    }
+
+    @Test
+    public void should_report_rejected_rows_when_import_bookings() throws IOException {
+        String csv = """
+                reference,roomNumber,fullName,checkInDate,checkOutDate
+                0,1,"Doe, John",2020-01-01,2020-01-03
+                1,1,Jane Doe,2020-01-02,2020-01-04
+                2,9,Jane Doe,2020-01-02,2020-01-04
+                0,1,Jane Doe,2020-02-01,2020-02-02
+                3,1,Jane Doe,2020-02-02,2020-02-01
+                4,1,Jane Doe,not a date,2020-02-01
+                5,1,Jane Doe,1800-01-01,1800-01-02
+                6,1,Jane Doe,2020-03-01,2020-03-02
+                """;
+
+        ImportReport report = BulkImporter.builder().hotel(HOTEL).build().importBookings(new StringReader(csv));
+
+        assertEquals(2, report.accepted());
+        assertEquals(6, report.rejectedCount());
+        // the cas if the booking overlaps, the room does not exist, the reference is taken, the dates are not valid, malformed or not supported
+        assertEquals(List.of("RoomNotAvailableException", "RoomNotFoundException", "BookingNotValidException", "BookingNotValidException", "ParamNotValidException", "BookingNotValidException"),
+                report.rejected().stream().map(ImportReport.RejectedRow::reason).toList());
+        assertEquals(3, report.rejected().get(0).lineNumber());
+        assertEquals("Doe, John", HOTEL.getBookingsForRoom(1).get(0).getFullName());
+        assertEquals(7, HOTEL.nextReference());
+    }
+
+    @Test
+    public void should_import_exported_hotel_when_parse_in_parallel() throws IOException {
+        for (int reference = 0; reference < 1000; reference++) {
+            LocalDate checkIn = LocalDate.of(2020, 1, 1).plusDays(2L * reference);
+            HOTEL.addBooking(Booking.builder().reference(reference).roomNumber(1).fullName("Guest \"" + reference + "\"")
+                    .checkInDate(checkIn).checkOutDate(checkIn.plusDays(1)).build());
+        }
+
+        for (BulkFormat format : BulkFormat.values()) {
+            StringWriter rooms = new StringWriter();
+            StringWriter bookings = new StringWriter();
+            BulkExporter exporter = BulkExporter.builder().hotel(HOTEL).format(format).build();
+            assertEquals(1, exporter.exportRooms(rooms));
+            assertEquals(1000, exporter.exportBookings(bookings));
+
+            Hotel hotel = Hotel.builder().build();
+            BulkImporter importer = BulkImporter.builder().hotel(hotel).format(format).parallelism(4).chunkSize(64).build();
+            assertEquals(1, importer.importRooms(new StringReader(rooms.toString())).accepted());
+            // the cas if the bookings are imported twice, the second time every reference is taken
+            assertEquals(1000, importer.importBookings(new StringReader(bookings.toString())).accepted());
+            assertEquals(1000, importer.importBookings(new StringReader(bookings.toString())).rejectedCount());
+            assertEquals(70, hotel.getRooms().get(0).getPrice());
+            assertEquals(HOTEL.getBookings().toString(), hotel.getBookings().toString());
+        }
+    }
+
+    @Test
+    public void should_notify_listeners_once_per_chunk_when_import_bookings() throws IOException {
+        List<Integer> notified = new ArrayList<>();
+        HOTEL.addListener(new BookingListener() {
+            @Override
+            public void bookingAdded(Booking booking) {
+                notified.add(1);
+            }
+
+            @Override
+            public void bookingRemoved(Booking booking) {
+            }
+
+            @Override
+            public void bookingsAdded(List<Booking> bookings) {
+                notified.add(bookings.size());
+            }
+        });
+        StringBuilder csv = new StringBuilder("reference,roomNumber,fullName,checkInDate,checkOutDate\n");
+        for (int reference = 0; reference < 200; reference++) {
+            LocalDate checkIn = LocalDate.of(2020, 1, 1).plusDays(reference);
+            csv.append(reference).append(",1,Jane Doe,").append(checkIn).append(',').append(checkIn.plusDays(1)).append('\n');
+        }
+        // the cas if a row overlaps a row of the same chunk
+        LocalDate lastCheckIn = LocalDate.of(2020, 1, 1).plusDays(199);
+        csv.append("200,1,Jane Doe,").append(lastCheckIn).append(',').append(lastCheckIn.plusDays(1)).append('\n');
+
+        ImportReport report = BulkImporter.builder().hotel(HOTEL).parallelism(1).chunkSize(64).build()
+                .importBookings(new StringReader(csv.toString()));
+
+        assertEquals(200, report.accepted());
+        assertEquals("RoomNotAvailableException", report.rejected().get(0).reason());
+        assertEquals(List.of(64, 64, 64, 8), notified);
+    }
+
+    @Test
+    public void should_throw_exception_when_import_with_unexpected_header() {
+        BulkImporter importer = BulkImporter.builder().hotel(HOTEL).build();
+        assertThrows(IOException.class, () -> importer.importRooms(new StringReader("number,capacity,price\n2,2,80\n")));
+    }
+}
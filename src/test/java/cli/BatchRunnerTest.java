@@ -0,0 +1,98 @@
+package cli;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import services.ManageHotel;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchRunnerTest {
+
+    private LocalDate CHECK_IN;
+    private ManageHotel MANAGE_HOTEL;
+    private Booking BOOKING;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        CHECK_IN = LocalDate.now().plusDays(10);
+        Hotel hotel = Hotel.builder()
+                .rooms(List.of(Room.builder().roomNumber(1).capacity(2).price(70).build(),
+                        Room.builder().roomNumber(2).capacity(4).price(130).build()))
+                .build();
+        MANAGE_HOTEL = ManageHotel.builder().hotel(hotel).build();
+        BOOKING = MANAGE_HOTEL.bookRoom(2, CHECK_IN, CHECK_IN.plusDays(2), "John Doe");
+    }
+
+    @Test
+    public void should_run_script_and_report_failures() throws Exception {
+        for (boolean pipelined : new boolean[]{false, true}) {
+            setUp();
+            String script = String.join("\n",
+                    "# nightly replay",
+                    "book 1 " + CHECK_IN + " " + CHECK_IN.plusDays(3) + " Jane Roe",
+                    "book 1 " + CHECK_IN.plusDays(1) + " " + CHECK_IN.plusDays(2) + " Late Guest",
+                    "",
+                    "search 1 " + CHECK_IN.plusDays(1) + " Jane Roe",
+                    "suggest 2 " + CHECK_IN.plusDays(3) + " " + CHECK_IN.plusDays(4),
+                    "cancel " + BOOKING.getReference(),
+                    "cancel " + BOOKING.getReference(),
+                    "book one",
+                    "list");
+            StringWriter output = new StringWriter();
+
+            BatchRunner.BatchSummary summary = new BatchRunner(MANAGE_HOTEL, pipelined)
+                    .run(new BufferedReader(new StringReader(script)), output);
+
+            String[] lines = output.toString().split("\n");
+            assertTrue(lines[0].startsWith("booked "));
+            // the cas if the room is already booked, the line of the command is reported
+            assertEquals("line 3: book: Room not available", lines[1]);
+            assertTrue(lines[2].contains("Jane Roe"));
+            assertEquals("rooms 1", lines[3]);
+            assertEquals("cancelled " + BOOKING.getReference(), lines[4]);
+            assertEquals("line 8: cancel: Booking not found", lines[5]);
+            assertEquals("line 9: invalid: Param not valid", lines[6]);
+            assertTrue(lines[7].contains("Jane Roe"));
+            assertTrue(lines[8].startsWith("# 8 commands in "));
+
+            assertEquals(8, summary.getCommands());
+            assertEquals(3, summary.getFailures());
+            assertEquals(Map.of("success", 1L, "RoomNotAvailableException", 1L), summary.getOutcomes("book"));
+            assertEquals(Map.of("success", 1L, "BookingNotFoundException", 1L), summary.getOutcomes("cancel"));
+            assertEquals(1, MANAGE_HOTEL.getHotel().getBookings().size());
+        }
+    }
+
+    @Test
+    public void should_run_commands_in_script_order_when_pipelined() throws Exception {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate day = CHECK_IN.plusDays(20 + i);
+            script.append("book 1 ").append(day).append(' ').append(day.plusDays(1)).append(" Guest ").append(i).append('\n');
+        }
+        StringWriter output = new StringWriter();
+
+        BatchRunner.BatchSummary summary = new BatchRunner(MANAGE_HOTEL, true)
+                .run(new BufferedReader(new StringReader(script.toString())), output);
+
+        assertEquals(2000, summary.getCommands());
+        assertEquals(0, summary.getFailures());
+        // the cas if the commands ran in the order of the script, the references follow the check-in dates
+        List<Booking> bookings = MANAGE_HOTEL.getHotel().getBookingsForRoom(1);
+        assertEquals(2000, bookings.size());
+        for (int i = 1; i < bookings.size(); i++) {
+            assertEquals(bookings.get(i - 1).getReference() + 1, bookings.get(i).getReference());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package http;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import services.ManageHotel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HotelHttpServerTest {
+
+    private LocalDate CHECK_IN;
+    private Hotel HOTEL;
+    private HotelHttpServer SERVER;
+    private HttpClient CLIENT;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        CHECK_IN = LocalDate.now().plusDays(1);
+        HOTEL = Hotel.builder().rooms(List.of(Room.builder().roomNumber(1).capacity(2).price(70.5).build())).build();
+        ManageHotel manageHotel = ManageHotel.builder().hotel(HOTEL).build();
+        SERVER = HotelHttpServer.start(new InetSocketAddress("localhost", 0), manageHotel);
+        CLIENT = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SERVER.close();
+    }
+
+    @Test
+    public void should_book_search_and_cancel_when_request_over_http() throws Exception {
+        HttpResponse<String> booked = send("POST", "/bookings?room=1&checkIn=" + CHECK_IN + "&checkOut=" + CHECK_IN.plusDays(2) + "&name=John%20Doe");
+        assertEquals(201, booked.statusCode());
+        assertEquals("{\"reference\":0,\"roomNumber\":1,\"fullName\":\"John Doe\",\"checkInDate\":\"" + CHECK_IN + "\",\"checkOutDate\":\"" + CHECK_IN.plusDays(2) + "\"}", booked.body());
+
+        // the cas if the room is not available
+        HttpResponse<String> notAvailable = send("POST", "/bookings?room=1&checkIn=" + CHECK_IN + "&checkOut=" + CHECK_IN.plusDays(1) + "&name=Jane");
+        assertEquals(409, notAvailable.statusCode());
+        assertEquals("{\"error\":\"RoomNotAvailableException\",\"message\":\"Room not available\"}", notAvailable.body());
+        // the cas if a param is not valid
+        assertEquals(400, send("GET", "/rooms/suggest?capacity=two").statusCode());
+
+        assertEquals(200, send("GET", "/bookings/search?room=1&name=John%20Doe&date=" + CHECK_IN).statusCode());
+        assertEquals("[]", send("GET", "/rooms/suggest?capacity=2&checkIn=" + CHECK_IN + "&checkOut=" + CHECK_IN.plusDays(1)).body());
+        assertEquals("[{\"roomNumber\":1,\"capacity\":2,\"price\":70.5}]", send("GET", "/rooms").body());
+
+        assertEquals("{\"from\":\"" + CHECK_IN + "\",\"to\":\"" + CHECK_IN.plusDays(3) + "\",\"rooms\":[{\"roomNumber\":1,\"free\":[false,false,true]}],"
+                + "\"capacities\":[{\"capacity\":2,\"freeRooms\":[0,0,1]}]}", send("GET", "/rooms/calendar?from=" + CHECK_IN + "&to=" + CHECK_IN.plusDays(3) + "&rooms=1").body());
+        // the cas if a room does not exist
+        assertEquals(404, send("GET", "/rooms/calendar?from=" + CHECK_IN + "&to=" + CHECK_IN.plusDays(3) + "&rooms=1,7").statusCode());
+
+        assertEquals(204, send("DELETE", "/bookings/0").statusCode());
+        // the cas if the booking is already cancelled
+        assertEquals(404, send("DELETE", "/bookings/0").statusCode());
+        assertEquals("[]", send("GET", "/bookings").body());
+    }
+
+    @Test
+    public void should_hide_details_when_request_fails_unexpectedly() throws Exception {
+        HOTEL.addListener(new BookingListener() {
+            @Override
+            public void bookingAdded(Booking booking) {
+                throw new IllegalStateException("Billing rejected the key sk-1234");
+            }
+
+            @Override
+            public void bookingRemoved(Booking booking) {
+            }
+        });
+
+        HttpResponse<String> failed = send("POST", "/bookings?room=1&checkIn=" + CHECK_IN + "&checkOut=" + CHECK_IN.plusDays(1) + "&name=Jane");
+        assertEquals(500, failed.statusCode());
+        assertEquals("{\"error\":\"InternalError\",\"message\":\"The request could not be handled\"}", failed.body());
+    }
+
+    @Test
+    public void should_escape_strings_when_write_json() {
+        JsonWriter json = new JsonWriter(1);
+        json.beginObject()
+                .name("name").value("\"Zo\u00eb\"\n\uD83D\uDE00")
+                .name("values").beginArray().value(-42).value(1.5).value(true).nullValue().endArray()
+                .endObject();
+        assertEquals("{\"name\":\"\\\"Zo\u00eb\\\"\\n\uD83D\uDE00\",\"values\":[-42,1.5,true,null]}", json.toString());
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + SERVER.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
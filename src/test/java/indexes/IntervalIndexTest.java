@@ -0,0 +1,33 @@
+package indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalIndexTest {
+
+    @Test
+    public void should_return_overlapping_values_when_ranges_touch_or_nest() {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        index.add(0, 100, "long");
+        index.add(10, 12, "before");
+        index.add(12, 15, "inside");
+        index.add(12, 13, "inside too");
+        index.add(15, 20, "after");
+
+        assertEquals(List.of("long", "inside", "inside too"), index.getOverlapping(12, 15));
+        // the cas if the ranges only touch the query
+        assertEquals(List.of(), index.getOverlapping(100, 101));
+        assertEquals(List.of("long"), index.getOverlapping(20, 21));
+
+        assertTrue(index.remove(0, "long"));
+        // the cas if the value is already removed
+        assertFalse(index.remove(0, "long"));
+        assertEquals(List.of("before", "inside", "inside too", "after"), index.getOverlapping(11, 16));
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,149 @@
+package indexes;
+
+import entities.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoomBookingIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Test
+    public void should_keep_bookings_sorted_when_added_and_removed_out_of_order() {
+        RoomBookingIndex index = new RoomBookingIndex();
+        Booking late = booking(1, "Jane", 70, 75);
+        Booking early = booking(2, "John", 0, 3);
+        Booking middle = booking(3, "Zoe", 3, 10);
+        index.add(late);
+        index.add(early);
+        index.add(middle);
+
+        assertEquals(List.of(early, middle, late), index.getBookings());
+        assertFalse(index.isAvailable(DAY.plusDays(2), DAY.plusDays(4)));
+        assertTrue(index.isAvailable(DAY.plusDays(10), DAY.plusDays(70)));
+        // the cas if the date is the check-out of one booking and the check-in of another
+        assertSame(early, index.find("John", DAY.plusDays(3)));
+        assertSame(middle, index.find("Zoe", DAY.plusDays(3)));
+
+        assertTrue(index.remove(middle));
+        // the cas if the booking is already removed
+        assertFalse(index.remove(middle));
+        assertEquals(List.of(early, late), index.getBookings());
+        assertTrue(index.isAvailable(DAY.plusDays(3), DAY.plusDays(70)));
+        assertNull(index.find("Zoe", DAY.plusDays(5)));
+    }
+
+    @Test
+    public void should_read_consistent_bookings_when_read_while_room_is_booked() throws Exception {
+        RoomBookingIndex index = new RoomBookingIndex();
+        Booking kept = booking(0, "John", 0, 3);
+        index.add(kept);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> writer = executor.submit(() -> {
+            // the bookings are added before the kept one and beyond the nights already stored, so the arrays grow
+            for (int i = 1; i <= 20_000 && !done.get(); i++) {
+                Booking booking = booking(i, "Guest " + i, -1 - i % 500, -1 - i % 500 + 1);
+                Booking far = booking(-i, "Far " + i, 3 + 64 * (i % 200), 4 + 64 * (i % 200));
+                index.add(booking);
+                index.add(far);
+                index.remove(booking);
+                index.remove(far);
+            }
+        });
+        try {
+            while (!writer.isDone()) {
+                assertFalse(index.isAvailable(DAY.plusDays(1), DAY.plusDays(2)));
+                assertTrue(index.isAvailable(DAY.plusDays(-1000), DAY.plusDays(-999)));
+                assertSame(kept, index.find("John", DAY.plusDays(1)));
+                assertTrue(index.getBookings().contains(kept));
+            }
+            writer.get();
+        } finally {
+            done.set(true);
+            executor.shutdown();
+        }
+        assertEquals(List.of(kept), index.getBookings());
+    }
+
+    @Test
+    public void should_not_book_twice_when_check_out_is_beyond_int_epoch_days() {
+        RoomBookingIndex index = new RoomBookingIndex();
+        Booking far = booking(1, "Jane", DAY, LocalDate.of(6_000_000, 1, 1));
+
+        assertFalse(index.isAvailable(DAY, far.getCheckOutDate()));
+        assertFalse(index.addIfAvailable(far));
+        assertThrows(IllegalArgumentException.class, () -> index.add(far));
+        assertTrue(index.addIfAvailable(booking(2, "John", 0, 10)));
+        // the cas if the nights of the first guest are booked by a second one
+        assertFalse(index.addIfAvailable(booking(3, "Zoe", 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void should_reject_stay_when_check_out_is_far_in_the_future() {
+        RoomBookingIndex index = new RoomBookingIndex();
+        Booking far = booking(1, "Jane", DAY, LocalDate.of(5_000_000, 1, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> index.add(far));
+        assertFalse(index.addIfAvailable(far));
+        // the cas if the stay ends on the last check-out date, the nights take a few kilobytes
+        Booking last = booking(2, "John", RoomBookingIndex.FIRST_NIGHT, RoomBookingIndex.LAST_CHECK_OUT);
+        index.add(last);
+        assertFalse(index.isAvailable(RoomBookingIndex.LAST_CHECK_OUT.minusDays(1), RoomBookingIndex.LAST_CHECK_OUT));
+        assertFalse(index.isAvailable(RoomBookingIndex.FIRST_NIGHT, RoomBookingIndex.FIRST_NIGHT.plusDays(1)));
+        assertEquals(List.of(last), index.getBookings());
+    }
+
+    @Test
+    public void should_index_nights_when_stay_is_before_1970() {
+        RoomBookingIndex index = new RoomBookingIndex();
+        Booking recent = booking(1, "Jane", 0, 3);
+        Booking old = booking(2, "John", LocalDate.of(1969, 12, 1), LocalDate.of(1969, 12, 5));
+        index.add(recent);
+        // the cas if the stay starts before the nights already stored, they are moved back
+        index.add(old);
+
+        assertFalse(index.isAvailable(LocalDate.of(1969, 12, 4), LocalDate.of(1969, 12, 6)));
+        assertTrue(index.isAvailable(LocalDate.of(1969, 12, 5), LocalDate.of(1970, 1, 1)));
+        assertFalse(index.isAvailable(DAY.plusDays(2), DAY.plusDays(4)));
+        assertEquals(BitSet.valueOf(new long[]{0b11110}), index.getOccupiedNights(LocalDate.of(1969, 11, 30), 10));
+        assertTrue(index.remove(old));
+        assertTrue(index.isAvailable(LocalDate.of(1969, 12, 1), LocalDate.of(1969, 12, 5)));
+        assertFalse(index.isAvailable(DAY, DAY.plusDays(1)));
+    }
+
+    private static Booking booking(int reference, String fullName, LocalDate checkIn, LocalDate checkOut) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(1)
+                .fullName(fullName)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+    }
+
+    private static Booking booking(int reference, String fullName, int checkIn, int checkOut) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(1)
+                .fullName(fullName)
+                .checkInDate(DAY.plusDays(checkIn))
+                .checkOutDate(DAY.plusDays(checkOut))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package indexes;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoomRegistryTest {
+
+    @Test
+    public void should_find_room_by_number_when_numbers_are_compact_or_sparse() {
+        for (int step : new int[]{1, 1000}) {
+            List<Room> rooms = new ArrayList<>();
+            for (int i = 1; i <= 200; i++) {
+                rooms.add(room(100 + i * step, 1 + i % 3));
+            }
+            RoomRegistry registry = RoomRegistry.of(rooms);
+
+            for (Room room : rooms) {
+                assertEquals(room, registry.get(room.getRoomNumber()));
+            }
+            // the cas if room not exist
+            assertNull(registry.get(100));
+            assertNull(registry.get(-1));
+            assertNull(registry.get(Integer.MAX_VALUE));
+            assertEquals(rooms, registry.getRooms());
+            assertEquals(66, registry.getRooms(1).size());
+        }
+        // the cas if two rooms have the same number
+        assertThrows(IllegalArgumentException.class, () -> RoomRegistry.of(List.of(room(1, 2), room(1, 4))));
+    }
+
+    @Test
+    public void should_add_and_retire_rooms_when_hotel_is_open() {
+        Hotel hotel = Hotel.builder().rooms(List.of(room(1, 2))).build();
+        List<Room> before = hotel.getRooms();
+
+        assertTrue(hotel.addRoom(room(2, 4)));
+        assertTrue(hotel.checkRoomExists(2));
+        assertEquals(List.of(hotel.getRoom(2).orElseThrow()), hotel.getRoomsWithCapacity(4));
+        // the cas if a reader holds the rooms of before the change
+        assertEquals(1, before.size());
+        // the cas if the room number is taken
+        assertFalse(hotel.addRoom(room(2, 6)));
+
+        Booking booking = Booking.builder().reference(0).roomNumber(2).fullName("John Doe")
+                .checkInDate(LocalDate.of(2030, 1, 1)).checkOutDate(LocalDate.of(2030, 1, 3)).build();
+        assertTrue(hotel.addBookingIfAvailable(booking));
+        // the cas if the room still has bookings
+        assertFalse(hotel.retireRoom(2));
+        hotel.removeBooking(booking);
+        assertTrue(hotel.retireRoom(2));
+        assertFalse(hotel.checkRoomExists(2));
+        assertTrue(hotel.getRoomsWithCapacity(4).isEmpty());
+        // the cas if a booking is made in a retired room
+        assertFalse(hotel.addBookingIfAvailable(booking));
+        assertFalse(hotel.retireRoom(2));
+    }
+
+    private static Room room(int roomNumber, int capacity) {
+        return Room.builder().roomNumber(roomNumber).capacity(capacity).price(100).build();
+    }
+}
@@ -0,0 +1,233 @@
+package journal;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingJournalTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    private static final List<Room> ROOMS = List.of(
+            Room.builder().roomNumber(1).capacity(2).price(100).build(),
+            Room.builder().roomNumber(2).capacity(4).price(200).build());
+
+    @Test
+    public void should_rebuild_bookings_when_replay_journal() {
+        Hotel hotel = Hotel.builder().rooms(ROOMS).build();
+        BookingJournal journal = new BookingJournal(Long.MAX_VALUE);
+        hotel.addListener(journal);
+        Random random = new Random(42);
+        List<Booking> booked = new ArrayList<>();
+        // more events than a segment holds
+        for (int i = 0; i < 10_000; i++) {
+            if (!booked.isEmpty() && random.nextInt(3) == 0) {
+                hotel.removeBooking(booked.remove(random.nextInt(booked.size())));
+            } else {
+                Booking booking = booking(hotel.nextReference(), 1 + random.nextInt(2), random.nextInt(5000));
+                if (hotel.addBookingIfAvailable(booking)) {
+                    booked.add(booking);
+                }
+            }
+        }
+
+        List<BookingEvent> events = new ArrayList<>();
+        assertEquals(journal.getNextSequence(), journal.replay(0, events::add));
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).sequence());
+        }
+        assertEquals(hotel.getBookings(), journal.rebuild(ROOMS).getBookings());
+        // the cas if the journal has been truncated
+        journal.truncate(journal.getNextSequence());
+        assertTrue(journal.getFirstSequence() > 0);
+        assertThrows(IllegalStateException.class, () -> journal.rebuild(ROOMS));
+        assertThrows(IllegalArgumentException.class, () -> journal.replay(0, event -> {
+        }));
+    }
+
+    @Test
+    public void should_keep_latest_events_when_journal_grows() throws Exception {
+        BookingJournal journal = new BookingJournal(BookingJournal.SEGMENT_SIZE, 2L * BookingJournal.SEGMENT_SIZE, Runnable::run);
+        CountDownLatch release = new CountDownLatch(1);
+        Subscription subscription = journal.subscribe(events -> release.await(), 0, 1);
+        for (int i = 0; i < 2 * BookingJournal.SEGMENT_SIZE; i++) {
+            journal.bookingAdded(booking(i, 1, 0));
+        }
+        // the cas if a subscriber has not read the first events yet
+        assertEquals(0, journal.getFirstSequence());
+        assertNull(subscription.getFailure());
+
+        for (int i = 0; i < 2 * BookingJournal.SEGMENT_SIZE; i++) {
+            journal.bookingAdded(booking(i, 1, 0));
+        }
+        // the cas if the subscriber fell too far behind
+        assertTrue(subscription.getFailure() instanceof IllegalStateException);
+        assertTrue(journal.getFirstSequence() > 0);
+
+        release.countDown();
+        subscription.close();
+        for (int i = 0; i < 4 * BookingJournal.SEGMENT_SIZE; i++) {
+            journal.bookingAdded(booking(i, 1, 0));
+        }
+        assertTrue(journal.getNextSequence() - journal.getFirstSequence() <= 2 * BookingJournal.SEGMENT_SIZE);
+        assertEquals(journal.getNextSequence(), journal.replay(journal.getFirstSequence(), event -> {
+        }));
+    }
+
+    @Test
+    public void should_drop_segments_in_background_when_journal_grows() {
+        List<Runnable> reclaims = new ArrayList<>();
+        BookingJournal journal = new BookingJournal(BookingJournal.SEGMENT_SIZE, Long.MAX_VALUE, reclaims::add);
+        for (int i = 0; i < 4 * BookingJournal.SEGMENT_SIZE; i++) {
+            journal.bookingAdded(booking(i, 1, 0));
+        }
+        // the cas if the appends only scheduled the reclaim, once until it runs
+        assertEquals(0, journal.getFirstSequence());
+        assertEquals(1, reclaims.size());
+
+        reclaims.get(0).run();
+        assertEquals(3 * BookingJournal.SEGMENT_SIZE, journal.getFirstSequence());
+    }
+
+    @Test
+    public void should_deliver_events_in_batches_when_subscribe() throws Exception {
+        Hotel hotel = Hotel.builder().rooms(ROOMS).build();
+        BookingJournal journal = new BookingJournal();
+        hotel.addListener(journal);
+        List<BookingEvent> received = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        int count = 1_000;
+
+        try (Subscription subscription = journal.subscribe(events -> {
+            received.addAll(events);
+            batchSizes.add(events.size());
+            // a slow subscriber
+            Thread.sleep(1);
+            if (received.size() == 2 * count) {
+                done.countDown();
+            }
+        }, 0, 64)) {
+            for (int i = 0; i < count; i++) {
+                Booking booking = booking(i, 1, 2 * i);
+                hotel.addBooking(booking);
+                hotel.removeBooking(booking);
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            // the position moves once the last batch has been handled
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (subscription.getLag() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, subscription.getLag());
+        }
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i).sequence());
+            assertEquals(i % 2 == 0, received.get(i) instanceof BookingCreated);
+        }
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 64));
+        // the cas if the subscriber has caught up with larger batches
+        assertTrue(batchSizes.size() < 2 * count);
+    }
+
+    @Test
+    public void should_deliver_event_when_appended_while_subscriber_parks() throws Exception {
+        Hotel hotel = Hotel.builder().rooms(ROOMS).build();
+        BookingJournal journal = new BookingJournal();
+        hotel.addListener(journal);
+        List<BookingEvent> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (Subscription subscription = journal.subscribe(events -> {
+            received.addAll(events);
+            if (received.size() == 2) {
+                done.countDown();
+            }
+        })) {
+            // the cas if an event is appended between the subscriber marking itself parked and polling again
+            subscription.beforePark = () -> {
+                if (appended.getCount() > 0) {
+                    hotel.addBooking(booking(1, 1, 0));
+                    appended.countDown();
+                }
+            };
+            assertTrue(appended.await(10, TimeUnit.SECONDS));
+            hotel.addBooking(booking(2, 2, 0));
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0, received.get(0).sequence());
+        assertEquals(1, received.get(1).sequence());
+    }
+
+    @Test
+    public void should_end_subscription_when_subscriber_fails() throws Exception {
+        Hotel hotel = Hotel.builder().rooms(ROOMS).build();
+        BookingJournal journal = new BookingJournal();
+        hotel.addListener(journal);
+        Subscription subscription = journal.subscribe(events -> {
+            throw new IllegalStateException("Billing is down");
+        });
+
+        hotel.addBooking(booking(1, 1, 0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscription.getFailure() == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertNotNull(subscription.getFailure());
+        assertEquals(1, subscription.getLag());
+        // the cas if bookings go on without the subscriber
+        hotel.addBooking(booking(2, 2, 0));
+        assertEquals(2, journal.getNextSequence());
+    }
+
+    @Test
+    public void should_keep_every_event_when_append_concurrently() throws Exception {
+        BookingJournal journal = new BookingJournal(Long.MAX_VALUE);
+        int threads = 4;
+        int perThread = 20_000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            writers.add(new Thread(() -> {
+                for (int i = first; i < first + perThread; i++) {
+                    journal.bookingAdded(booking(i, 1, 0));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        boolean[] seen = new boolean[threads * perThread];
+        assertEquals(threads * perThread, journal.replay(0, event -> seen[event.booking().getReference()] = true));
+        for (boolean reference : seen) {
+            assertTrue(reference);
+        }
+    }
+
+    private static Booking booking(int reference, int roomNumber, int checkIn) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(roomNumber)
+                .fullName("Guest " + reference)
+                .checkInDate(FIRST_DAY.plusDays(checkIn))
+                .checkOutDate(FIRST_DAY.plusDays(checkIn + 1))
+                .build();
+    }
+}
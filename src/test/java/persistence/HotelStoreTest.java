@@ -0,0 +1,245 @@
+package persistence;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotelStoreTest {
+
+    @TempDir
+    private Path DIRECTORY;
+    private List<Room> ROOMS;
+
+    @BeforeEach
+    public void setUp() {
+        ROOMS = List.of(
+                Room.builder().roomNumber(1).capacity(2).price(70).build(),
+                Room.builder().roomNumber(2).capacity(4).price(130).build());
+    }
+
+    @Test
+    public void should_restore_bookings_when_reopen() throws IOException {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            Hotel hotel = store.getHotel();
+            hotel.addBooking(booking(hotel.nextReference(), 1, "John Doe"));
+            hotel.addBooking(booking(hotel.nextReference(), 2, "Jane Doe"));
+            hotel.removeBooking(hotel.getBookingsForRoom(1).get(0));
+        }
+
+        try (HotelStore store = HotelStore.open(DIRECTORY, List.of())) {
+            Hotel hotel = store.getHotel();
+            assertEquals(2, hotel.getRooms().size());
+            assertEquals(1, hotel.getBookings().size());
+            assertEquals("Jane Doe", hotel.getBookings().get(0).getFullName());
+            // the references keep growing after a restart
+            assertEquals(2, hotel.nextReference());
+        }
+    }
+
+    @Test
+    public void should_replay_log_written_after_snapshot_when_recover() throws IOException {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            Hotel hotel = store.getHotel();
+            hotel.addBooking(booking(hotel.nextReference(), 1, "John Doe"));
+            store.snapshot();
+            hotel.addBooking(booking(hotel.nextReference(), 2, "Jane Doe"));
+            // the cas if the process stops before the next snapshot
+            assertEquals(2, HotelStore.recover(DIRECTORY, ROOMS).getBookings().size());
+        }
+    }
+
+    @Test
+    public void should_ignore_torn_record_when_recover() throws IOException {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            Hotel hotel = store.getHotel();
+            hotel.addBooking(booking(hotel.nextReference(), 1, "John Doe"));
+        }
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            Path log = files.filter(file -> file.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+            Files.write(log, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        Hotel hotel = HotelStore.recover(DIRECTORY, ROOMS);
+        assertEquals(1, hotel.getBookings().size());
+        assertFalse(hotel.checkRoomAvailability(1, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
+    }
+
+    @Test
+    public void should_restore_archived_bookings_when_reopen() throws IOException {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            Hotel hotel = store.getHotel();
+            hotel.addBooking(booking(hotel.nextReference(), 1, "John Doe"));
+            // the cas if the booking is archived before the snapshot
+            hotel.archiveBookings(LocalDate.now().plusDays(4));
+            store.snapshot();
+        }
+
+        Hotel hotel = HotelStore.recover(DIRECTORY, ROOMS);
+        assertEquals(1, hotel.getBookings().size());
+        assertEquals(0, hotel.getArchivedBookingCount());
+    }
+
+    @Test
+    public void should_not_restore_booking_when_later_listener_fails() throws IOException {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            Hotel hotel = store.getHotel();
+            hotel.addListener(new BookingListener() {
+                @Override
+                public void bookingAdded(Booking booking) {
+                    throw new IllegalStateException("Billing is down");
+                }
+
+                @Override
+                public void bookingRemoved(Booking booking) {
+                }
+            });
+            // the cas if the log has recorded the booking before the listener cancels it
+            assertThrows(IllegalStateException.class, () -> hotel.addBooking(booking(hotel.nextReference(), 1, "John Doe")));
+            assertEquals(0, hotel.getBookings().size());
+        }
+
+        assertEquals(0, HotelStore.recover(DIRECTORY, ROOMS).getBookings().size());
+    }
+
+    @Test
+    public void should_keep_failure_when_scheduled_snapshot_fails() throws Exception {
+        try (HotelStore store = HotelStore.open(DIRECTORY, ROOMS)) {
+            long generation;
+            try (Stream<Path> files = Files.list(DIRECTORY)) {
+                generation = files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.startsWith("snapshot-"))
+                        .mapToLong(name -> Long.parseLong(name.substring("snapshot-".length(), name.length() - ".bin".length())))
+                        .max()
+                        .orElseThrow();
+            }
+            // the cas if the next snapshot cannot be written
+            Path blocked = Files.createDirectory(DIRECTORY.resolve("snapshot-" + (generation + 1) + ".bin.tmp"));
+            store.scheduleSnapshots(Duration.ofMillis(10));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (store.getSnapshotFailure() == null && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertNotNull(store.getSnapshotFailure());
+
+            Files.delete(blocked);
+            while (store.getSnapshotFailure() != null && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertNull(store.getSnapshotFailure());
+        }
+    }
+
+    @Test
+    public void should_sync_bookings_once_when_added_together() throws Exception {
+        Path file = DIRECTORY.resolve("wal-1.log");
+        WriteAheadLog log = new WriteAheadLog(file);
+        AtomicInteger syncs = new AtomicInteger();
+        log.beforeSync = syncs::incrementAndGet;
+        Hotel hotel = Hotel.builder().rooms(ROOMS).build();
+        hotel.addListener(log);
+
+        assertTrue(hotel.addBookingsIfAvailable(List.of(booking(0, 1, "John Doe"), booking(1, 2, "John Doe"))));
+        assertEquals(1, syncs.get());
+        // the cas if a later listener cancels the bookings logged together
+        hotel.addListener(new BookingListener() {
+            @Override
+            public void bookingAdded(Booking booking) {
+                throw new IllegalStateException("Billing is down");
+            }
+
+            @Override
+            public void bookingRemoved(Booking booking) {
+            }
+        });
+        List<Booking> later = List.of(
+                Booking.builder().reference(2).roomNumber(1).fullName("Jane Doe").checkInDate(LocalDate.now().plusDays(5)).checkOutDate(LocalDate.now().plusDays(6)).build(),
+                Booking.builder().reference(3).roomNumber(2).fullName("Jane Doe").checkInDate(LocalDate.now().plusDays(5)).checkOutDate(LocalDate.now().plusDays(6)).build());
+        assertThrows(IllegalStateException.class, () -> hotel.addBookingsIfAvailable(later));
+        assertEquals(2, hotel.getBookings().size());
+        log.close();
+
+        List<Integer> references = new ArrayList<>();
+        WriteAheadLog.read(file, record -> references.add(record.type() == WriteAheadLog.BOOKING_ADDED ? record.booking().getReference() : -record.booking().getReference()));
+        assertEquals(List.of(0, 1, 2, 3, -3, -2), references);
+    }
+
+    @Test
+    public void should_withdraw_record_when_appender_interrupted_while_waiting_for_sync() throws Exception {
+        Path file = DIRECTORY.resolve("wal-1.log");
+        WriteAheadLog log = new WriteAheadLog(file);
+        CountDownLatch syncing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        log.beforeSync = () -> {
+            syncing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread syncer = new Thread(() -> log.bookingAdded(booking(0, 1, "John Doe")));
+        syncer.start();
+        assertTrue(syncing.await(10, TimeUnit.SECONDS));
+        log.beforeSync = () -> {
+        };
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                log.bookingAdded(booking(1, 2, "Jane Doe"));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        // the cas if the appender is interrupted, e.g. by an executor shut down, while another one syncs
+        waiter.interrupt();
+        waiter.join();
+        release.countDown();
+        syncer.join();
+        log.close();
+
+        assertTrue(failure.get() instanceof IllegalStateException);
+        List<Integer> references = new ArrayList<>();
+        WriteAheadLog.read(file, record -> references.add(record.booking().getReference()));
+        assertEquals(List.of(0), references);
+    }
+
+    private static Booking booking(int reference, int roomNumber, String fullName) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(roomNumber)
+                .fullName(fullName)
+                .checkInDate(LocalDate.now().plusDays(1))
+                .checkOutDate(LocalDate.now().plusDays(3))
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package persistence;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedSnapshotTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    private Path DIRECTORY;
+
+    @Test
+    public void should_answer_queries_like_hotel_when_read_mapped_snapshot() throws IOException {
+        Hotel hotel = Hotel.builder()
+                .rooms(List.of(Room.builder().roomNumber(7).capacity(4).price(130.5).build(),
+                        Room.builder().roomNumber(3).capacity(2).price(70).build()))
+                .build();
+        for (int i = 0; i < 20; i++) {
+            hotel.addBooking(booking(hotel.nextReference(), 3 + 4 * (i % 2), i % 3 == 0 ? "Zo\u00eb" : "Guest " + i, 3 * i, 3 * i + 2));
+        }
+        hotel.archiveBookings(DAY.plusDays(10));
+        Path file = DIRECTORY.resolve("hotel.map");
+        MappedSnapshot.write(hotel, file);
+
+        MappedSnapshot snapshot = MappedSnapshot.open(file);
+        assertEquals(List.of(3, 7), snapshot.getRooms().stream().map(Room::getRoomNumber).toList());
+        assertTrue(snapshot.checkRoomExists(7));
+        assertFalse(snapshot.checkRoomExists(4));
+        assertEquals(20, snapshot.getBookingCount());
+        List<Booking> bookings = new ArrayList<>();
+        snapshot.forEachBooking(bookings::add);
+        assertEquals(20, bookings.size());
+        assertEquals("Zo\u00eb", snapshot.getBooking(0).orElseThrow().getFullName());
+        // the cas if no booking has the reference
+        assertTrue(snapshot.getBooking(20).isEmpty());
+        // archived bookings are out of the hotel's indexes, the live ones are compared
+        for (int day = 10; day < 62; day++) {
+            for (int room : new int[]{3, 7}) {
+                assertEquals(hotel.checkRoomAvailability(room, DAY.plusDays(day), DAY.plusDays(day + 2)),
+                        snapshot.checkRoomAvailability(room, DAY.plusDays(day), DAY.plusDays(day + 2)));
+            }
+        }
+        // the cas if the stay overlaps an archived booking
+        assertFalse(snapshot.checkRoomAvailability(3, DAY.plusDays(1), DAY.plusDays(2)));
+        assertEquals(DAY.plusDays(15), snapshot.findBooking(7, "Guest 5", DAY.plusDays(17)).orElseThrow().getCheckInDate());
+        assertEquals(0, snapshot.findBooking(3, "Zo\u00eb", DAY.plusDays(2)).orElseThrow().getReference());
+        // the cas if the guest has no booking on that date
+        assertTrue(snapshot.findBooking(3, "Zo\u00eb", DAY.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    public void should_throw_exception_when_open_file_not_snapshot() throws IOException {
+        Path file = Files.writeString(DIRECTORY.resolve("not.map"), "not a snapshot at all, really");
+        assertThrows(IOException.class, () -> MappedSnapshot.open(file));
+    }
+
+    private static Booking booking(int reference, int roomNumber, String fullName, int checkIn, int checkOut) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(roomNumber)
+                .fullName(fullName)
+                .checkInDate(DAY.plusDays(checkIn))
+                .checkOutDate(DAY.plusDays(checkOut))
+                .build();
+    }
+}
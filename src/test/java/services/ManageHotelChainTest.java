@@ -0,0 +1,67 @@
+package services;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import exceptions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ManageHotelChainTest {
+
+    private LocalDate CHECK_IN;
+    private ManageHotelChain CHAIN;
+
+    @BeforeEach
+    public void setUp() {
+        CHECK_IN = LocalDate.now().plusDays(1);
+        ManageHotelChain.ManageHotelChainBuilder builder = ManageHotelChain.builder();
+        for (String hotelId : List.of("paris", "lyon", "nice")) {
+            builder.hotel(hotelId, ManageHotel.builder()
+                    .hotel(Hotel.builder()
+                            .rooms(List.of(Room.builder().roomNumber(1).capacity(2).price(70).build(),
+                                    Room.builder().roomNumber(2).capacity(4).price(130).build()))
+                            .build())
+                    .build());
+        }
+        CHAIN = builder.build();
+    }
+
+    @Test
+    public void should_book_in_its_hotel_only_when_book_room() throws Exception {
+        Booking booking = CHAIN.bookRoom("lyon", 1, CHECK_IN, CHECK_IN.plusDays(2), "John Doe");
+
+        // the cas if the same room of another hotel is booked on the same dates
+        CHAIN.bookRoom("nice", 1, CHECK_IN, CHECK_IN.plusDays(2), "Jane Doe");
+        assertThrows(RoomNotAvailableException.class, () -> CHAIN.bookRoom("lyon", 1, CHECK_IN, CHECK_IN.plusDays(1), "Jane Doe"));
+        assertEquals(booking, CHAIN.searchBooking("lyon", 1, "John Doe", CHECK_IN));
+        assertThrows(BookingNotFoundException.class, () -> CHAIN.searchBooking("paris", 1, "John Doe", CHECK_IN));
+
+        CHAIN.cancelBooking("lyon", booking.getReference());
+        assertEquals(0, CHAIN.getHotels().get("lyon").getHotel().getBookingCount());
+        // the cas if the hotel does not exist
+        assertThrows(HotelNotFoundException.class, () -> CHAIN.bookRoom("rome", 1, CHECK_IN, CHECK_IN.plusDays(1), "John Doe"));
+    }
+
+    @Test
+    public void should_merge_results_by_hotel_when_search_across_chain() throws Exception {
+        CHAIN.bookRoom("nice", 2, CHECK_IN, CHECK_IN.plusDays(2), "John Doe");
+        CHAIN.bookRoom("paris", 2, CHECK_IN.plusDays(5), CHECK_IN.plusDays(6), "John Doe");
+
+        List<ManageHotelChain.HotelBooking> bookings = CHAIN.searchBookings("john doe");
+        assertEquals(List.of("paris", "nice"), bookings.stream().map(ManageHotelChain.HotelBooking::hotelId).toList());
+        assertEquals(1, CHAIN.searchBookings("John Doe", CHECK_IN).size());
+
+        List<ManageHotelChain.HotelRoom> rooms = CHAIN.suggestRoom(4, CHECK_IN, CHECK_IN.plusDays(1));
+        assertEquals(List.of("paris", "lyon"), rooms.stream().map(ManageHotelChain.HotelRoom::hotelId).toList());
+        // the cas if the params are not valid
+        assertThrows(ParamNotValidException.class, () -> CHAIN.suggestRoom(4, CHECK_IN, CHECK_IN));
+        assertThrows(ParamNotValidException.class, () -> CHAIN.searchBookings(" "));
+    }
+}
@@ -0,0 +1,110 @@
+package services;
+
+import entities.Booking;
+import entities.Hotel;
+import entities.Room;
+import exceptions.BookingNotFoundException;
+import exceptions.RoomNotAvailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ManageHotelConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final int ROOMS = 4;
+
+    private Hotel HOTEL;
+    private ManageHotel MANAGE_HOTEL;
+
+    @BeforeEach
+    public void setUp() {
+        HOTEL = Hotel.builder()
+                .rooms(IntStream.rangeClosed(1, ROOMS)
+                        .mapToObj(i -> Room.builder().roomNumber(i).capacity(2).price(70).build())
+                        .toList())
+                .bookings(new ArrayList<>())
+                .build();
+        MANAGE_HOTEL = ManageHotel.builder()
+                .hotel(HOTEL)
+                .build();
+    }
+
+    @Test
+    public void should_never_commit_overlapping_bookings_when_book_concurrently() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(60));
+                    try {
+                        MANAGE_HOTEL.bookRoom(1 + random.nextInt(ROOMS), checkIn, checkIn.plusDays(1 + random.nextInt(5)), "Guest " + i);
+                        booked.incrementAndGet();
+                    } catch (RoomNotAvailableException e) {
+                        // expected when another thread was faster
+                    }
+                    if (random.nextInt(4) == 0) {
+                        try {
+                            MANAGE_HOTEL.cancelBooking(random.nextInt(OPERATIONS_PER_THREAD));
+                            cancelled.incrementAndGet();
+                        } catch (BookingNotFoundException e) {
+                            // expected when the booking does not exist or is already cancelled
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Booking> bookings = HOTEL.getBookings();
+        assertEquals(booked.get() - cancelled.get(), bookings.size());
+
+        // the references are unique
+        Set<Integer> references = new HashSet<>();
+        bookings.forEach(booking -> assertTrue(references.add(booking.getReference())));
+
+        // the bookings of a room never overlap
+        Map<Integer, List<Booking>> bookingsByRoom = bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getRoomNumber));
+        bookingsByRoom.values().forEach(roomBookings -> {
+            List<Booking> sorted = roomBookings.stream()
+                    .sorted((a, b) -> a.getCheckInDate().compareTo(b.getCheckInDate()))
+                    .toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                assertFalse(sorted.get(i).getCheckInDate().isBefore(sorted.get(i - 1).getCheckOutDate()));
+            }
+        });
+    }
+}
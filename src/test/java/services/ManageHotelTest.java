@@ -0,0 +1,484 @@
+package services;
+
+import entities.Booking;
+import entities.BookingRequest;
+import entities.Hotel;
+import entities.Room;
+import exceptions.*;
+import metrics.HotelMetrics;
+import metrics.MetricsSnapshot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ManageHotelTest {
+
+    private String NEW_CUSTOMER_FULLNAME;
+    private Room ROOM;
+    private Hotel HOTEL;
+    private Booking BOOKING;
+    private ManageHotel MANAGE_HOTEL;
+
+    @BeforeEach
+    public void setUp() {
+        NEW_CUSTOMER_FULLNAME = "Dupont Bernard";
+        ROOM = Room.builder().roomNumber(1).capacity(2).price(70).build();
+        BOOKING = Booking.builder().reference(0).roomNumber(1).fullName("John Doe").checkInDate(LocalDate.now().plusMonths(2)).checkOutDate(LocalDate.now().plusMonths(2).plusDays(3)).build();
+        HOTEL = Hotel.builder()
+                .rooms(List.of(ROOM))
+                .bookings(new ArrayList<>(Collections.singletonList(BOOKING))).build();
+        MANAGE_HOTEL = ManageHotel.builder()
+                .hotel(HOTEL)
+                .build();
+    }
+
+
+    /**
+     * Test for searchBooking method.
+     */
+
+    @Test
+    public void should_throw_exception_when_search_with_not_valid_param() {
+        // the cas if full name is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), null, BOOKING.getCheckInDate()));
+        // the cas if full name is empty
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), "", BOOKING.getCheckInDate()));
+        // the cas if date is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), null));
+    }
+
+    @Test
+    public void should_throw_exception_when_search_with_not_exist_room() {
+        // the cas if room not exist
+        assertThrows(RoomNotFoundException.class, () -> MANAGE_HOTEL.searchBooking(2, BOOKING.getFullName(), BOOKING.getCheckInDate()));
+    }
+
+    @Test
+    public void should_throw_exception_when_search_with_not_found_booking() {
+        // the cas if booking with full name not exist
+        assertThrows(BookingNotFoundException.class, () -> MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), "not exist", BOOKING.getCheckInDate()));
+        // the cas if booking with date not exist
+        assertThrows(BookingNotFoundException.class, () -> MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), LocalDate.now()));
+    }
+
+    @Test
+    public void should_return_booking_when_search() throws BookingNotFoundException, RoomNotFoundException, ParamNotValidException {
+        // the cas if BOOKING with date equals checkInDate
+        Booking result = MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), BOOKING.getCheckInDate());
+        assertEquals(BOOKING, result);
+        // the cas if BOOKING with date equals checkOutDate
+        result = MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), BOOKING.getCheckOutDate());
+        assertEquals(BOOKING, result);
+        // the cas if BOOKING with date between checkInDate and checkOutDate
+        result = MANAGE_HOTEL.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), BOOKING.getCheckInDate().plusDays(1));
+        assertEquals(BOOKING, result);
+    }
+
+    @Test
+    public void should_return_bookings_of_guest_when_search_by_name() throws ParamNotValidException, RoomNotFoundException, RoomNotAvailableException, BookingNotValidException {
+        HOTEL.setRooms(List.of(ROOM, Room.builder().roomNumber(2).capacity(4).price(130).build()));
+        Booking otherRoomBooking = MANAGE_HOTEL.bookRoom(2, BOOKING.getCheckOutDate(), BOOKING.getCheckOutDate().plusDays(2), BOOKING.getFullName());
+        // the cas if name differs by case and spaces
+        assertEquals(List.of(BOOKING, otherRoomBooking), MANAGE_HOTEL.searchBookings("  john   DOE "));
+        // the cas if date is in only one booking
+        assertEquals(List.of(otherRoomBooking), MANAGE_HOTEL.searchBookings(BOOKING.getFullName(), otherRoomBooking.getCheckOutDate()));
+        // the cas if guest has no booking
+        assertEquals(0, MANAGE_HOTEL.searchBookings(NEW_CUSTOMER_FULLNAME).size());
+        // the cas if param is not valid
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.searchBookings(" "));
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.searchBookings(BOOKING.getFullName(), null));
+    }
+
+    /**
+     * Test for bookRoom method.
+     */
+
+    @Test
+    public void should_throw_exception_when_book_with_not_exist_room() {
+        // the cas if room not exist
+        assertThrows(RoomNotFoundException.class, () -> MANAGE_HOTEL.bookRoom(2, LocalDate.now(), LocalDate.now().plusDays(1), NEW_CUSTOMER_FULLNAME));
+    }
+
+    @Test
+    public void should_throw_exception_when_book_with_not_valid_param() {
+        // the cas if checkInDate is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), null, LocalDate.now(), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkOutDate is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now(), null, NEW_CUSTOMER_FULLNAME));
+        // the cas if full name is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now(), LocalDate.now().plusDays(1), null));
+        // the cas if full name is empty
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now(), LocalDate.now().plusDays(1), ""));
+        // the cas if checkInDate is after checkOutDate
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now().plusDays(1), LocalDate.now(), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkInDate is before now
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkOutDate is before now
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now(), LocalDate.now().minusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkInDate is equal checkOutDate
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), LocalDate.now(), LocalDate.now(), NEW_CUSTOMER_FULLNAME));
+    }
+
+    @Test
+    public void should_throw_exception_when_book_with_not_available_room() {
+        // the cas if checkIn is before checkInDate and checkOut is after checkInDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(1), BOOKING.getCheckInDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is before checkOutDate and checkOut is after checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckOutDate().minusDays(1), BOOKING.getCheckOutDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is before checkInDate and checkOut is after checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(1), BOOKING.getCheckOutDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is after checkInDate and checkOut is before checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().plusDays(1), BOOKING.getCheckOutDate().minusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is equal checkInDate and checkOut is equal checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is equal checkInDate and checkOut is after checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is equal checkInDate and checkOut is before checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate().minusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is before checkInDate and checkOut is equal checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(1), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is after checkInDate and checkOut is equal checkOutDate
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().plusDays(1), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME));
+    }
+
+    @Test
+    public void should_book_room_when_book() throws RoomNotFoundException, RoomNotAvailableException, BookingNotValidException, ParamNotValidException {
+        // the cas if checkIn is before checkInDate and checkOut is before checkInDate
+        MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(2), BOOKING.getCheckInDate().minusDays(1), NEW_CUSTOMER_FULLNAME);
+        assertEquals(2, HOTEL.getBookings().size());
+        // the cas if checkIn is before checkInDate and checkOut is equal checkInDate
+        HOTEL.setBookings(new ArrayList<>(Collections.singletonList(BOOKING)));
+        MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(2), BOOKING.getCheckInDate(), NEW_CUSTOMER_FULLNAME);
+        assertEquals(2, HOTEL.getBookings().size());
+        // the cas if checkIn is equal checkOutDate and checkOut is after checkOutDate
+        HOTEL.setBookings(new ArrayList<>(Collections.singletonList(BOOKING)));
+        MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckOutDate(), BOOKING.getCheckOutDate().plusDays(2), NEW_CUSTOMER_FULLNAME);
+        assertEquals(2, HOTEL.getBookings().size());
+        // the cas if checkIn is after checkOutDate and checkOut is after checkOutDate
+        HOTEL.setBookings(new ArrayList<>(Collections.singletonList(BOOKING)));
+        MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckOutDate().plusDays(1), BOOKING.getCheckOutDate().plusDays(2), NEW_CUSTOMER_FULLNAME);
+        assertEquals(2, HOTEL.getBookings().size());
+    }
+
+    @Test
+    public void should_book_room_when_book_between_two_bookings() throws RoomNotFoundException, RoomNotAvailableException, BookingNotValidException, ParamNotValidException {
+        Booking nextBooking = Booking.builder().reference(1).roomNumber(1).fullName("Jane Doe").checkInDate(BOOKING.getCheckOutDate().plusDays(3)).checkOutDate(BOOKING.getCheckOutDate().plusDays(5)).build();
+        HOTEL.addBooking(nextBooking);
+        // the cas if checkIn is after the first booking and checkOut is before the second booking
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckOutDate().plusDays(1), nextBooking.getCheckInDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is before the first booking and checkOut is after the second booking
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate().minusDays(1), nextBooking.getCheckOutDate().plusDays(1), NEW_CUSTOMER_FULLNAME));
+        // the cas if checkIn is equal checkOutDate of the first booking and checkOut is equal checkInDate of the second booking
+        MANAGE_HOTEL.bookRoom(ROOM.getRoomNumber(), BOOKING.getCheckOutDate(), nextBooking.getCheckInDate(), NEW_CUSTOMER_FULLNAME);
+        assertEquals(3, HOTEL.getBookings().size());
+    }
+
+    /**
+     * Test for bookRooms method.
+     */
+
+    @Test
+    public void should_book_all_rooms_when_book_group() throws RoomNotFoundException, RoomNotAvailableException, BookingNotValidException, ParamNotValidException {
+        HOTEL.setRooms(List.of(ROOM, Room.builder().roomNumber(2).capacity(4).price(130).build()));
+        List<Booking> result = MANAGE_HOTEL.bookRooms(List.of(
+                request(ROOM.getRoomNumber(), BOOKING.getCheckOutDate(), BOOKING.getCheckOutDate().plusDays(2)),
+                request(2, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate())));
+        assertEquals(2, result.size());
+        assertEquals(3, HOTEL.getBookings().size());
+    }
+
+    @Test
+    public void should_book_no_room_when_book_group_with_not_available_room() {
+        HOTEL.setRooms(List.of(ROOM, Room.builder().roomNumber(2).capacity(4).price(130).build()));
+        // the cas if one room of the group is not available
+        assertThrows(RoomNotAvailableException.class, () -> MANAGE_HOTEL.bookRooms(List.of(
+                request(2, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate()),
+                request(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate()))));
+        assertEquals(1, HOTEL.getBookings().size());
+        // the cas if two requests of the group overlap
+        assertThrows(BookingNotValidException.class, () -> MANAGE_HOTEL.bookRooms(List.of(
+                request(2, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate()),
+                request(2, BOOKING.getCheckInDate().plusDays(1), BOOKING.getCheckOutDate().plusDays(1)))));
+        // the cas if one room of the group does not exist
+        assertThrows(RoomNotFoundException.class, () -> MANAGE_HOTEL.bookRooms(List.of(
+                request(2, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate()),
+                request(3, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate()))));
+        // the cas if the group is empty
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.bookRooms(List.of()));
+        assertEquals(1, HOTEL.getBookings().size());
+    }
+
+    @Test
+    public void should_list_bookings_by_room_when_get_bookings() throws Exception {
+        HOTEL.setRooms(List.of(ROOM, Room.builder().roomNumber(18).capacity(4).price(130).build(), Room.builder().roomNumber(5).capacity(4).price(130).build()));
+        MANAGE_HOTEL.bookRoom(18, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME);
+        MANAGE_HOTEL.bookRoom(5, BOOKING.getCheckOutDate(), BOOKING.getCheckOutDate().plusDays(1), NEW_CUSTOMER_FULLNAME);
+        MANAGE_HOTEL.bookRoom(5, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME);
+
+        // the cas if the rooms are not in the order of their numbers in the hash table
+        List<Booking> bookings = HOTEL.getBookings();
+        assertEquals(List.of(ROOM.getRoomNumber(), 5, 5, 18), bookings.stream().map(Booking::getRoomNumber).toList());
+        assertEquals(BOOKING.getCheckInDate(), bookings.get(1).getCheckInDate());
+    }
+
+    /**
+     * Test for cancelBooking method.
+     */
+
+    @Test
+    public void throw_exception_when_cancel_with_not_found_booking() {
+        // the cas if booking not exist
+        assertThrows(BookingNotFoundException.class, () -> MANAGE_HOTEL.cancelBooking(2));
+    }
+
+    public void should_cancel_room_when_cancel() throws BookingNotFoundException {
+        MANAGE_HOTEL.cancelBooking(0);
+        assertEquals(0, HOTEL.getBookings().size());
+    }
+
+    @Test
+    public void should_remove_booking_when_cancel_by_reference() throws BookingNotFoundException {
+        MANAGE_HOTEL.cancelBooking(BOOKING.getReference());
+        assertEquals(0, HOTEL.getBookingCount());
+        assertTrue(HOTEL.getBookingByReference(BOOKING.getReference()).isEmpty());
+        // the cas if booking is already cancelled
+        assertThrows(BookingNotFoundException.class, () -> MANAGE_HOTEL.cancelBooking(BOOKING.getReference()));
+    }
+
+    /**
+     * Test for suggestRoom method.
+     */
+
+    @Test
+    public void should_throw_exception_when_suggest_with_not_valid_param() {
+        int capacity = 2;
+        // the cas if checkInDate is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, null, LocalDate.now()));
+        // the cas if checkOutDate is null
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, LocalDate.now(), null));
+        // the cas if checkInDate is after checkOutDate
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, LocalDate.now().plusDays(1), LocalDate.now()));
+        // the cas if checkInDate is before now
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
+        // the cas if checkOutDate is before now
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, LocalDate.now(), LocalDate.now().minusDays(1)));
+        // the cas if checkInDate is equal checkOutDate
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(capacity, LocalDate.now(), LocalDate.now()));
+    }
+
+    @Test
+    public void should_return_empty_list_when_suggest_with_not_available_room() throws ParamNotValidException {
+        // the cas if not exist room for capacity
+        List<Room> result = MANAGE_HOTEL.suggestRoom(10, LocalDate.now(), LocalDate.now().plusDays(2));
+        assertEquals(0, result.size());
+        // the cas if exist room for capacity but not available for date
+        result = MANAGE_HOTEL.suggestRoom(ROOM.getCapacity(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate());
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    public void should_return_list_room_when_suggest() throws ParamNotValidException {
+        List<Room> result = MANAGE_HOTEL.suggestRoom(ROOM.getCapacity(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        assertEquals(1, result.size());
+        assertEquals(ROOM, result.get(0));
+    }
+
+    @Test
+    public void should_return_page_of_rooms_when_suggest_with_offset_and_limit() throws ParamNotValidException {
+        Room secondRoom = Room.builder().roomNumber(2).capacity(2).price(80).build();
+        Room thirdRoom = Room.builder().roomNumber(3).capacity(2).price(90).build();
+        HOTEL.setRooms(List.of(ROOM, secondRoom, thirdRoom, Room.builder().roomNumber(4).capacity(4).price(130).build()));
+        // the cas if the first room with capacity is not available for date
+        List<Room> result = MANAGE_HOTEL.suggestRoom(ROOM.getCapacity(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 0, 1);
+        assertEquals(List.of(secondRoom), result);
+        // the cas if the first available room is skipped
+        result = MANAGE_HOTEL.suggestRoom(ROOM.getCapacity(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 1, 10);
+        assertEquals(List.of(thirdRoom), result);
+        // the cas if the limit is not valid
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestRoom(ROOM.getCapacity(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 0, 0));
+    }
+
+    @Test
+    public void should_return_archived_booking_when_search_past_date() throws Exception {
+        Booking pastBooking = Booking.builder().reference(1).roomNumber(1).fullName("John Doe").checkInDate(LocalDate.now().minusDays(10)).checkOutDate(LocalDate.now().minusDays(8)).build();
+        HOTEL.addBooking(pastBooking);
+
+        assertEquals(1, new BookingArchiver(HOTEL, Clock.systemDefaultZone()).archive());
+        assertEquals(1, HOTEL.getBookingCount());
+        assertEquals(1, HOTEL.getArchivedBookingCount());
+        Booking result = MANAGE_HOTEL.searchBooking(1, "John Doe", pastBooking.getCheckOutDate());
+        assertEquals(pastBooking.getReference(), result.getReference());
+        // the cas if the archived booking is searched by another guest
+        assertThrows(BookingNotFoundException.class, () -> MANAGE_HOTEL.searchBooking(1, NEW_CUSTOMER_FULLNAME, pastBooking.getCheckInDate()));
+        assertEquals(List.of(BOOKING), MANAGE_HOTEL.searchBookings("John Doe"));
+    }
+
+    /**
+     * Test for metrics.
+     */
+
+    @Test
+    public void should_record_operations_by_outcome_when_metrics_enabled() throws Exception {
+        HotelMetrics metrics = HotelMetrics.forHotel(HOTEL);
+        ManageHotel manageHotel = ManageHotel.builder().hotel(HOTEL).metrics(metrics).build();
+        manageHotel.searchBooking(BOOKING.getRoomNumber(), BOOKING.getFullName(), BOOKING.getCheckInDate());
+        // the cas if the search fails
+        assertThrows(BookingNotFoundException.class, () -> manageHotel.searchBooking(BOOKING.getRoomNumber(), NEW_CUSTOMER_FULLNAME, BOOKING.getCheckInDate()));
+        // the cas if an overload delegates to another one, it is recorded once
+        manageHotel.suggestRoom(ROOM.getCapacity(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+
+        assertEquals(1, metrics.histogram("searchBooking", HotelMetrics.SUCCESS).getCount());
+        assertEquals(1, metrics.histogram("searchBooking", "BookingNotFoundException").getCount());
+        assertEquals(1, metrics.histogram("suggestRoom", HotelMetrics.SUCCESS).getCount());
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.operations().size());
+        assertEquals(1L, snapshot.gauges().get("bookings"));
+    }
+
+    /**
+     * Test for result-returning operations.
+     */
+
+    @Test
+    public void should_return_shared_result_when_request_rejected() {
+        OperationResult<Booking> notAvailable = MANAGE_HOTEL.tryBookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME);
+        assertEquals(OperationStatus.ROOM_NOT_AVAILABLE, notAvailable.getStatus());
+        // the cas if the same rejection happens again, the result is not allocated again
+        assertSame(notAvailable, MANAGE_HOTEL.tryBookRoom(ROOM.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME));
+        assertEquals(OperationStatus.PARAM_NOT_VALID, MANAGE_HOTEL.tryBookRoom(ROOM.getRoomNumber(), LocalDate.now(), LocalDate.now(), NEW_CUSTOMER_FULLNAME).getStatus());
+        assertEquals(OperationStatus.ROOM_NOT_FOUND, MANAGE_HOTEL.trySearchBooking(2, BOOKING.getFullName(), BOOKING.getCheckInDate()).getStatus());
+        assertEquals(OperationStatus.BOOKING_NOT_FOUND, MANAGE_HOTEL.trySearchBooking(ROOM.getRoomNumber(), NEW_CUSTOMER_FULLNAME, BOOKING.getCheckInDate()).getStatus());
+        assertEquals(OperationStatus.BOOKING_NOT_FOUND, MANAGE_HOTEL.tryCancelBooking(-1).getStatus());
+        // the cas if the request succeeds
+        OperationResult<Booking> found = MANAGE_HOTEL.trySearchBooking(ROOM.getRoomNumber(), BOOKING.getFullName(), BOOKING.getCheckOutDate());
+        assertTrue(found.isSuccess());
+        assertEquals(BOOKING, found.getValue());
+    }
+
+    @Test
+    public void should_not_book_room_when_stay_is_beyond_indexed_dates() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        // the cas if the stay ends beyond the dates the rooms index
+        assertEquals(OperationStatus.ROOM_NOT_AVAILABLE, MANAGE_HOTEL.tryBookRoom(ROOM.getRoomNumber(), checkIn, LocalDate.of(6_000_000, 1, 1), NEW_CUSTOMER_FULLNAME).getStatus());
+        assertEquals(List.of(), MANAGE_HOTEL.trySuggestRoom(ROOM.getCapacity(), checkIn, LocalDate.of(6_000_000, 1, 1), 0, 10).getValue());
+        // the cas if a long stay far ahead is within them
+        LocalDate far = LocalDate.now().plusYears(10);
+        assertTrue(MANAGE_HOTEL.tryBookRoom(ROOM.getRoomNumber(), far, far.plusDays(500), NEW_CUSTOMER_FULLNAME).isSuccess());
+    }
+
+    @Test
+    public void should_validate_dates_against_clock_when_today_is_injected() {
+        LocalDate date = LocalDate.of(2030, 6, 1);
+        MutableClock clock = new MutableClock(date.atTime(23, 59).atZone(ZoneOffset.UTC).toInstant());
+        ManageHotel manageHotel = ManageHotel.builder().hotel(HOTEL).today(new Today(clock)).build();
+
+        assertTrue(manageHotel.tryBookRoom(ROOM.getRoomNumber(), date, date.plusDays(1), NEW_CUSTOMER_FULLNAME).isSuccess());
+        // the cas if the day changes, the cached date follows
+        clock.instant = clock.instant.plusSeconds(120);
+        assertEquals(OperationStatus.PARAM_NOT_VALID, manageHotel.tryBookRoom(ROOM.getRoomNumber(), date, date.plusDays(1), NEW_CUSTOMER_FULLNAME).getStatus());
+        assertTrue(manageHotel.tryBookRoom(ROOM.getRoomNumber(), date.plusDays(1), date.plusDays(2), NEW_CUSTOMER_FULLNAME).isSuccess());
+    }
+
+    @Test
+    public void should_return_free_nights_and_free_rooms_when_get_calendar() throws Exception {
+        HOTEL.addRoom(Room.builder().roomNumber(2).capacity(2).price(80).build());
+        HOTEL.addRoom(Room.builder().roomNumber(3).capacity(4).price(130).build());
+        LocalDate from = BOOKING.getCheckInDate().minusDays(1);
+        LocalDate to = from.plusDays(70);
+        MANAGE_HOTEL.bookRoom(2, BOOKING.getCheckInDate().plusDays(1), BOOKING.getCheckInDate().plusDays(66), NEW_CUSTOMER_FULLNAME);
+        MANAGE_HOTEL.bookRoom(3, to.minusDays(1), to.plusDays(5), NEW_CUSTOMER_FULLNAME);
+
+        AvailabilityCalendar calendar = MANAGE_HOTEL.getAvailabilityCalendar(from, to);
+        assertEquals(70, calendar.getNights());
+        assertEquals(List.of(2, 4), calendar.getCapacities());
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            int freeRooms = 0;
+            for (Room room : HOTEL.getRoomsWithCapacity(2)) {
+                boolean free = HOTEL.checkRoomAvailability(room.getRoomNumber(), night, night.plusDays(1));
+                assertEquals(free, calendar.isFree(room.getRoomNumber(), night));
+                freeRooms += free ? 1 : 0;
+            }
+            assertEquals(freeRooms, calendar.getFreeRooms(2, night));
+            assertEquals(night.equals(to.minusDays(1)) ? 0 : 1, calendar.getFreeRooms(4, night));
+        }
+
+        // the cas if only some rooms are requested, a room requested twice is counted once
+        AvailabilityCalendar some = MANAGE_HOTEL.getAvailabilityCalendar(List.of(2, 2), from, to);
+        assertEquals(List.of(2), some.getCapacities());
+        assertEquals(1, some.getFreeRooms(2, from));
+        assertEquals(0, some.getFreeRooms(2, BOOKING.getCheckInDate().plusDays(1)));
+        // the cas if a room does not exist
+        assertThrows(RoomNotFoundException.class, () -> MANAGE_HOTEL.getAvailabilityCalendar(List.of(1, 4), from, to));
+        // the cas if the window is not valid
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.getAvailabilityCalendar(to, from));
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.getAvailabilityCalendar(from, from.plusYears(2)));
+    }
+
+    @Test
+    public void should_return_best_fitting_rooms_when_suggest_best_fit() throws Exception {
+        Room large = Room.builder().roomNumber(2).capacity(6).price(90).build();
+        Room cheap = Room.builder().roomNumber(3).capacity(4).price(100).build();
+        Room expensive = Room.builder().roomNumber(4).capacity(4).price(150).build();
+        Room booked = Room.builder().roomNumber(5).capacity(4).price(80).build();
+        List.of(large, expensive, cheap, booked).forEach(HOTEL::addRoom);
+        MANAGE_HOTEL.bookRoom(booked.getRoomNumber(), BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), NEW_CUSTOMER_FULLNAME);
+
+        assertEquals(List.of(cheap, expensive, large), MANAGE_HOTEL.suggestBestFit(3, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 10));
+        assertEquals(List.of(cheap), MANAGE_HOTEL.suggestBestFit(3, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 1));
+        // the cas if the stay starts when the bookings end, the smaller rooms fit first
+        assertEquals(List.of(ROOM, booked), MANAGE_HOTEL.suggestBestFit(1, BOOKING.getCheckOutDate(), BOOKING.getCheckOutDate().plusDays(1), 2));
+        // the cas if no room is large enough
+        assertEquals(List.of(), MANAGE_HOTEL.suggestBestFit(7, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 10));
+        // the cas if a param is not valid
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestBestFit(0, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 10));
+        assertThrows(ParamNotValidException.class, () -> MANAGE_HOTEL.suggestBestFit(3, BOOKING.getCheckInDate(), BOOKING.getCheckOutDate(), 0));
+    }
+
+    private BookingRequest request(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+        return BookingRequest.builder()
+                .roomNumber(roomNumber)
+                .fullName(NEW_CUSTOMER_FULLNAME)
+                .checkInDate(checkInDate)
+                .checkOutDate(checkOutDate)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
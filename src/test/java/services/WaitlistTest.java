@@ -0,0 +1,125 @@
+package services;
+
+import entities.Booking;
+import entities.BookingListener;
+import entities.Hotel;
+import entities.Room;
+import exceptions.RoomNotAvailableException;
+import exceptions.RoomNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WaitlistTest {
+
+    private LocalDate CHECK_IN;
+    private Hotel HOTEL;
+    private ManageHotel MANAGE_HOTEL;
+
+    @BeforeEach
+    public void setUp() {
+        CHECK_IN = LocalDate.now().plusDays(10);
+        HOTEL = Hotel.builder()
+                .rooms(List.of(Room.builder().roomNumber(1).capacity(2).price(70).build(),
+                        Room.builder().roomNumber(2).capacity(4).price(130).build()))
+                .build();
+        MANAGE_HOTEL = ManageHotel.builder().hotel(HOTEL).build();
+    }
+
+    @Test
+    public void should_book_waiting_guests_in_order_when_booking_cancelled() throws Exception {
+        Booking booking = MANAGE_HOTEL.bookRoom(1, CHECK_IN, CHECK_IN.plusDays(4), "John Doe");
+        WaitlistEntry first = MANAGE_HOTEL.bookRoomOrWait(1, CHECK_IN.plusDays(1), CHECK_IN.plusDays(3), "First");
+        WaitlistEntry second = MANAGE_HOTEL.bookCapacityOrWait(2, CHECK_IN, CHECK_IN.plusDays(2), "Second");
+        WaitlistEntry third = MANAGE_HOTEL.bookRoomOrWait(1, CHECK_IN.plusDays(3), CHECK_IN.plusDays(4), "Third");
+        WaitlistEntry later = MANAGE_HOTEL.bookRoomOrWait(1, CHECK_IN.plusDays(4), CHECK_IN.plusDays(5), "Later");
+        // the cas if the room is available, it is booked at once
+        assertTrue(later.getAllocation().isDone());
+        assertEquals(3, MANAGE_HOTEL.getWaitlist().size());
+
+        MANAGE_HOTEL.cancelBooking(booking.getReference());
+        // the first guest is booked, the second one overlaps it and keeps waiting, the third one fits after it
+        Booking firstBooking = first.getAllocation().getNow(null);
+        assertEquals(CHECK_IN.plusDays(1), firstBooking.getCheckInDate());
+        assertFalse(second.getAllocation().isDone());
+        assertEquals("Third", third.getAllocation().getNow(null).getFullName());
+        assertEquals(1, MANAGE_HOTEL.getWaitlist().size());
+
+        MANAGE_HOTEL.cancelBooking(firstBooking.getReference());
+        assertEquals(1, second.getAllocation().getNow(null).getRoomNumber());
+        assertEquals(0, MANAGE_HOTEL.getWaitlist().size());
+    }
+
+    @Test
+    public void should_not_book_guest_when_left_waitlist() throws Exception {
+        Booking booking = MANAGE_HOTEL.bookRoom(2, CHECK_IN, CHECK_IN.plusDays(2), "John Doe");
+        WaitlistEntry entry = MANAGE_HOTEL.bookCapacityOrWait(4, CHECK_IN, CHECK_IN.plusDays(1), "Jane Doe");
+
+        assertTrue(MANAGE_HOTEL.getWaitlist().remove(entry));
+        // the cas if the guest already left
+        assertFalse(MANAGE_HOTEL.getWaitlist().remove(entry));
+        MANAGE_HOTEL.cancelBooking(booking.getReference());
+        assertTrue(entry.getAllocation().isCancelled());
+        assertTrue(HOTEL.checkRoomAvailability(2, CHECK_IN, CHECK_IN.plusDays(2)));
+        // the cas if no room has the capacity
+        assertThrows(RoomNotFoundException.class, () -> MANAGE_HOTEL.bookCapacityOrWait(3, CHECK_IN, CHECK_IN.plusDays(1), "Jane Doe"));
+    }
+
+    @Test
+    public void should_book_waiting_guest_before_concurrent_booking_when_booking_cancelled() throws Exception {
+        Booking booking = MANAGE_HOTEL.bookRoom(1, CHECK_IN, CHECK_IN.plusDays(2), "John Doe");
+        WaitlistEntry entry = MANAGE_HOTEL.bookRoomOrWait(1, CHECK_IN, CHECK_IN.plusDays(2), "Jane Doe");
+        AtomicReference<OperationResult<Booking>> concurrent = new AtomicReference<>();
+        Thread booker = new Thread(() -> concurrent.set(MANAGE_HOTEL.tryBookRoom(1, CHECK_IN, CHECK_IN.plusDays(2), "Joe Doe")));
+        HOTEL.addListener(new BookingListener() {
+            @Override
+            public void bookingAdded(Booking added) {
+            }
+
+            @Override
+            public void bookingRemoved(Booking removed) {
+                // the cas if another guest books the freed nights while the booking is being cancelled
+                booker.start();
+                while (booker.getState() != Thread.State.WAITING && booker.isAlive()) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        MANAGE_HOTEL.cancelBooking(booking.getReference());
+        booker.join();
+        assertEquals("Jane Doe", entry.getAllocation().getNow(null).getFullName());
+        assertEquals(OperationStatus.ROOM_NOT_AVAILABLE, concurrent.get().getStatus());
+    }
+
+    @Test
+    public void should_expire_waiting_guest_when_check_in_date_passed() throws Exception {
+        MANAGE_HOTEL.bookRoom(1, CHECK_IN, CHECK_IN.plusDays(4), "John Doe");
+        WaitlistEntry entry = MANAGE_HOTEL.bookRoomOrWait(1, CHECK_IN, CHECK_IN.plusDays(2), "Jane Doe");
+        // the cas if the check-in date has not passed yet
+        assertEquals(0, MANAGE_HOTEL.getWaitlist().expire(CHECK_IN));
+        assertFalse(entry.getAllocation().isDone());
+
+        // the cas if the waitlist is used the day after the check-in date
+        Clock later = Clock.fixed(CHECK_IN.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        ManageHotel manageHotelLater = ManageHotel.builder().hotel(HOTEL).waitlist(MANAGE_HOTEL.getWaitlist()).today(new Today(later)).build();
+        WaitlistEntry booked = manageHotelLater.bookRoomOrWait(2, CHECK_IN.plusDays(1), CHECK_IN.plusDays(2), "Joe Doe");
+        assertTrue(booked.getAllocation().isDone());
+        CompletionException thrown = assertThrows(CompletionException.class, () -> entry.getAllocation().join());
+        assertInstanceOf(RoomNotAvailableException.class, thrown.getCause());
+        assertEquals(0, MANAGE_HOTEL.getWaitlist().size());
+        assertEquals(0, MANAGE_HOTEL.getWaitlist().expire(CHECK_IN.plusDays(1)));
+    }
+}
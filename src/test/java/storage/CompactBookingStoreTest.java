@@ -0,0 +1,83 @@
+package storage;
+
+import entities.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactBookingStoreTest {
+
+    @Test
+    public void should_return_view_of_booking_when_get() {
+        CompactBookingStore store = new CompactBookingStore();
+        store.add(booking(7, 3, "John Doe"));
+
+        Booking result = store.get(7);
+        assertEquals(7, result.getReference());
+        assertEquals(3, result.getRoomNumber());
+        assertEquals("John Doe", result.getFullName());
+        assertEquals(LocalDate.of(2030, 1, 1), result.getCheckInDate());
+        assertEquals(LocalDate.of(2030, 1, 4), result.getCheckOutDate());
+        // the cas if booking not exist
+        assertNull(store.get(8));
+    }
+
+    @Test
+    public void should_keep_other_bookings_when_remove() {
+        CompactBookingStore store = new CompactBookingStore(1);
+        for (int reference = 0; reference < 5; reference++) {
+            store.add(booking(reference, reference, "Guest " + reference % 2));
+        }
+
+        assertTrue(store.remove(1));
+        assertFalse(store.remove(1));
+        assertEquals(4, store.size());
+        assertEquals(2, store.nameCount());
+        // the cas if the last booking has been moved to the freed slot
+        assertEquals(4, store.get(4).getRoomNumber());
+        List<Integer> references = new ArrayList<>();
+        store.forEach(booking -> references.add(booking.getReference()));
+        assertEquals(List.of(0, 4, 2, 3), references);
+    }
+
+    @Test
+    public void should_behave_like_hash_map_when_use_int_int_map() {
+        IntIntMap map = new IntIntMap(-1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.getOrDefault(key, -1), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key));
+        }
+    }
+
+    private static Booking booking(int reference, int roomNumber, String fullName) {
+        return Booking.builder()
+                .reference(reference)
+                .roomNumber(roomNumber)
+                .fullName(fullName)
+                .checkInDate(LocalDate.of(2030, 1, 1))
+                .checkOutDate(LocalDate.of(2030, 1, 4))
+                .build();
+    }
+}